@@ -4,6 +4,8 @@ import crs.gui.MainFrame;
 import crs.service.*;
 
 import javax.swing.*;
+import java.util.ArrayList;
+import java.util.List;
 
 public class Main {
     
@@ -37,7 +39,27 @@ public class Main {
         ReportService.getInstance();
         EmailService.getInstance();
         PDFService.getInstance();
+        if (Boolean.getBoolean("crs.reminders.enabled")) {
+            ReminderDigestService.getInstance().start();
+        }
+        
+        if (Boolean.getBoolean("crs.indexStats")) {
+            Runtime.getRuntime().addShutdownHook(new Thread(Main::printIndexStatistics));
+        }
         
         System.out.println("Services initialized successfully.");
     }
+    
+    private static void printIndexStatistics() {
+        List<String> statistics = new ArrayList<>();
+        statistics.addAll(UserService.getInstance().getIndexStatistics());
+        statistics.addAll(StudentService.getInstance().getIndexStatistics());
+        statistics.addAll(CourseService.getInstance().getIndexStatistics());
+        statistics.addAll(RecoveryPlanService.getInstance().getIndexStatistics());
+        
+        System.out.println("Index statistics:");
+        for (String line : statistics) {
+            System.out.println("  " + line);
+        }
+    }
 }
@@ -7,6 +7,7 @@ import javax.swing.*;
 import javax.swing.table.*;
 import java.awt.*;
 import java.util.List;
+import java.util.function.Supplier;
 
 public class CoursePanel extends JPanel {
     
@@ -14,8 +15,10 @@ public class CoursePanel extends JPanel {
     private CourseService courseService;
     
     private JTable courseTable;
-    private DefaultTableModel tableModel;
+    private SnapshotTableModel<Course> tableModel;
     private JTextField searchField;
+    private JLabel statusLabel;
+    private TableLoader<Course> loader;
     
     public CoursePanel(MainFrame mainFrame) {
         this.mainFrame = mainFrame;
@@ -50,6 +53,8 @@ public class CoursePanel extends JPanel {
         JPanel actionsPanel = new JPanel(new FlowLayout(FlowLayout.RIGHT, 10, 0));
         actionsPanel.setOpaque(false);
         
+        statusLabel = TableLoader.createStatusLabel();
+        actionsPanel.add(statusLabel);
         searchField = new JTextField(20);
         searchField.setFont(new Font("Segoe UI", Font.PLAIN, 13));
         searchField.setPreferredSize(new Dimension(200, 35));
@@ -86,13 +91,14 @@ public class CoursePanel extends JPanel {
         panel.setBackground(Color.WHITE);
         panel.setBorder(BorderFactory.createEmptyBorder(20, 25, 20, 25));
         
-        String[] columns = {"Course ID", "Course Name", "Credits", "Semester", "Instructor", "Exam %", "Assignment %"};
-        tableModel = new DefaultTableModel(columns, 0) {
-            @Override
-            public boolean isCellEditable(int row, int column) {
-                return false;
-            }
-        };
+        tableModel = new SnapshotTableModel<Course>(Course::getCourseId)
+            .addColumn("Course ID", Course::getCourseId)
+            .addColumn("Course Name", Course::getCourseName)
+            .addColumn("Credits", Course::getCredits)
+            .addColumn("Semester", Course::getSemester)
+            .addColumn("Instructor", Course::getInstructor)
+            .addColumn("Exam %", course -> course.getExamWeight() + "%")
+            .addColumn("Assignment %", course -> course.getAssignmentWeight() + "%");
         
         courseTable = new JTable(tableModel);
         courseTable.setFont(new Font("Segoe UI", Font.PLAIN, 13));
@@ -121,7 +127,7 @@ public class CoursePanel extends JPanel {
                 if (e.getClickCount() == 2) {
                     int row = courseTable.getSelectedRow();
                     if (row >= 0) {
-                        String courseId = (String) tableModel.getValueAt(row, 0);
+                        String courseId = tableModel.getRow(row).getCourseId();
                         showEditCourseDialog(courseId);
                     }
                 }
@@ -136,40 +142,21 @@ public class CoursePanel extends JPanel {
     }
     
     public void refresh() {
-        tableModel.setRowCount(0);
-        List<Course> courses = courseService.getAllCourses();
-        
-        for (Course course : courses) {
-            Object[] row = {
-                course.getCourseId(),
-                course.getCourseName(),
-                course.getCredits(),
-                course.getSemester(),
-                course.getInstructor(),
-                course.getExamWeight() + "%",
-                course.getAssignmentWeight() + "%"
-            };
-            tableModel.addRow(row);
-        }
+        loadRows(courseService::getAllCourses);
     }
     
     private void filterTable() {
         String search = searchField.getText().toLowerCase();
-        tableModel.setRowCount(0);
-        List<Course> courses = courseService.searchCourses(search);
-        
-        for (Course course : courses) {
-            Object[] row = {
-                course.getCourseId(),
-                course.getCourseName(),
-                course.getCredits(),
-                course.getSemester(),
-                course.getInstructor(),
-                course.getExamWeight() + "%",
-                course.getAssignmentWeight() + "%"
-            };
-            tableModel.addRow(row);
-        }
+        loadRows(() -> courseService.searchCourses(search));
+    }
+    
+    public boolean cancelLoading() {
+        return TableLoader.cancel(loader);
+    }
+    
+    private void loadRows(Supplier<List<Course>> source) {
+        TableLoader.cancel(loader);
+        loader = new TableLoader<>(tableModel, statusLabel, source).start();
     }
     
     private void importCoursesFromCSV() {
@@ -179,9 +166,7 @@ public class CoursePanel extends JPanel {
         int result = fileChooser.showOpenDialog(this);
         if (result == JFileChooser.APPROVE_OPTION) {
             String filePath = fileChooser.getSelectedFile().getAbsolutePath();
-            courseService.importCoursesFromCSV(filePath);
-            refresh();
-            JOptionPane.showMessageDialog(this, "Courses imported successfully!");
+            new ImportWorker(this, statusLabel, () -> courseService.importCoursesFromCSV(filePath), this::refresh).start();
         }
     }
     
@@ -314,7 +299,7 @@ public class CoursePanel extends JPanel {
                 courseService.updateCourse(course);
                 JOptionPane.showMessageDialog(dialog, "Course updated successfully!");
                 dialog.dispose();
-                refresh();
+                tableModel.updateRow(course);
             } catch (NumberFormatException ex) {
                 JOptionPane.showMessageDialog(dialog, "Please enter valid numbers.", 
                     "Error", JOptionPane.ERROR_MESSAGE);
@@ -6,6 +6,7 @@ import crs.service.*;
 import javax.swing.*;
 import java.awt.*;
 import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
 import java.util.List;
 
 public class DashboardPanel extends JPanel {
@@ -15,6 +16,7 @@ public class DashboardPanel extends JPanel {
     private StudentService studentService;
     private CourseService courseService;
     private RecoveryPlanService recoveryPlanService;
+    private SwingWorker<DashboardData, Void> loader;
     
     public DashboardPanel(MainFrame mainFrame) {
         this.mainFrame = mainFrame;
@@ -31,6 +33,53 @@ public class DashboardPanel extends JPanel {
     
     public void refresh(User user) {
         this.currentUser = user;
+        cancelLoading();
+        render(null);
+        
+        loader = new SwingWorker<DashboardData, Void>() {
+            @Override
+            protected DashboardData doInBackground() {
+                return loadData();
+            }
+            
+            @Override
+            protected void done() {
+                if (isCancelled()) return;
+                try {
+                    render(get());
+                } catch (Exception e) {
+                    System.err.println("Error loading dashboard: " + e.getMessage());
+                }
+            }
+        };
+        loader.execute();
+    }
+    
+    public boolean cancelLoading() {
+        return loader != null && !loader.isDone() && loader.cancel(true);
+    }
+    
+    private DashboardData loadData() {
+        DashboardData data = new DashboardData();
+        List<Student> ineligible = studentService.getIneligibleStudents();
+        List<RecoveryPlan> activePlans = recoveryPlanService.getActivePlans();
+        
+        data.totalStudents = studentService.getAllStudents().size();
+        data.totalCourses = courseService.getAllCourses().size();
+        data.activePlans = activePlans.size();
+        data.ineligibleStudents = ineligible.size();
+        
+        for (int i = 0; i < Math.min(3, activePlans.size()); i++) {
+            RecoveryPlan plan = activePlans.get(i);
+            Student student = studentService.findById(plan.getStudentId());
+            String studentName = student != null ? student.getFullName() : plan.getStudentId();
+            data.planAlerts.add("Active recovery plan for " + studentName + " - " + 
+                String.format("%.0f%%", plan.getProgressPercentage()) + " complete");
+        }
+        return data;
+    }
+    
+    private void render(DashboardData data) {
         removeAll();
         
         JPanel contentPanel = new JPanel();
@@ -42,7 +91,7 @@ public class DashboardPanel extends JPanel {
         contentPanel.add(welcomePanel);
         contentPanel.add(Box.createVerticalStrut(20));
         
-        JPanel statsPanel = createStatsPanel();
+        JPanel statsPanel = createStatsPanel(data);
         contentPanel.add(statsPanel);
         contentPanel.add(Box.createVerticalStrut(20));
         
@@ -50,7 +99,7 @@ public class DashboardPanel extends JPanel {
         contentPanel.add(quickActionsPanel);
         contentPanel.add(Box.createVerticalStrut(20));
         
-        JPanel alertsPanel = createAlertsPanel();
+        JPanel alertsPanel = createAlertsPanel(data);
         contentPanel.add(alertsPanel);
         
         JScrollPane scrollPane = new JScrollPane(contentPanel);
@@ -98,28 +147,27 @@ public class DashboardPanel extends JPanel {
         return panel;
     }
     
-    private JPanel createStatsPanel() {
+    private JPanel createStatsPanel(DashboardData data) {
         JPanel panel = new JPanel(new GridLayout(1, 4, 15, 0));
         panel.setOpaque(false);
         panel.setMaximumSize(new Dimension(Integer.MAX_VALUE, 120));
         
-        int totalStudents = studentService.getAllStudents().size();
-        int totalCourses = courseService.getAllCourses().size();
-        int activePlans = recoveryPlanService.getActivePlans().size();
-        int ineligibleStudents = studentService.getIneligibleStudents().size();
-        
-        panel.add(createStatCard("Total Students", String.valueOf(totalStudents), 
+        panel.add(createStatCard("Total Students", statValue(data, data != null ? data.totalStudents : 0), 
             new Color(52, 152, 219)));
-        panel.add(createStatCard("Total Courses", String.valueOf(totalCourses), 
+        panel.add(createStatCard("Total Courses", statValue(data, data != null ? data.totalCourses : 0), 
             new Color(46, 204, 113)));
-        panel.add(createStatCard("Active Recovery Plans", String.valueOf(activePlans), 
+        panel.add(createStatCard("Active Recovery Plans", statValue(data, data != null ? data.activePlans : 0), 
             new Color(241, 196, 15)));
-        panel.add(createStatCard("Ineligible Students", String.valueOf(ineligibleStudents), 
+        panel.add(createStatCard("Ineligible Students", statValue(data, data != null ? data.ineligibleStudents : 0), 
             new Color(231, 76, 60)));
         
         return panel;
     }
     
+    private String statValue(DashboardData data, int value) {
+        return data != null ? String.valueOf(value) : "...";
+    }
+    
     private JPanel createStatCard(String title, String value, Color color) {
         JPanel card = new JPanel();
         card.setLayout(new BoxLayout(card, BoxLayout.Y_AXIS));
@@ -211,7 +259,7 @@ public class DashboardPanel extends JPanel {
         return button;
     }
     
-    private JPanel createAlertsPanel() {
+    private JPanel createAlertsPanel(DashboardData data) {
         JPanel panel = new JPanel(new BorderLayout());
         panel.setBackground(Color.WHITE);
         panel.setBorder(BorderFactory.createEmptyBorder(20, 25, 20, 25));
@@ -227,22 +275,20 @@ public class DashboardPanel extends JPanel {
         alertsContent.setOpaque(false);
         alertsContent.setBorder(BorderFactory.createEmptyBorder(15, 0, 0, 0));
         
-        List<Student> ineligible = studentService.getIneligibleStudents();
-        if (!ineligible.isEmpty()) {
+        if (data == null) {
+            alertsContent.add(createAlertItem("Loading alerts...", new Color(189, 195, 199)));
+            panel.add(alertsContent, BorderLayout.CENTER);
+            return panel;
+        }
+        
+        if (data.ineligibleStudents > 0) {
             alertsContent.add(createAlertItem(
-                "Warning: " + ineligible.size() + " students are not eligible to progress",
+                "Warning: " + data.ineligibleStudents + " students are not eligible to progress",
                 new Color(231, 76, 60)));
         }
         
-        List<RecoveryPlan> activePlans = recoveryPlanService.getActivePlans();
-        for (int i = 0; i < Math.min(3, activePlans.size()); i++) {
-            RecoveryPlan plan = activePlans.get(i);
-            Student student = studentService.findById(plan.getStudentId());
-            String studentName = student != null ? student.getFullName() : plan.getStudentId();
-            alertsContent.add(createAlertItem(
-                "Active recovery plan for " + studentName + " - " + 
-                String.format("%.0f%%", plan.getProgressPercentage()) + " complete",
-                new Color(241, 196, 15)));
+        for (String alert : data.planAlerts) {
+            alertsContent.add(createAlertItem(alert, new Color(241, 196, 15)));
         }
         
         if (alertsContent.getComponentCount() == 0) {
@@ -272,4 +318,12 @@ public class DashboardPanel extends JPanel {
         
         return item;
     }
+    
+    private static class DashboardData {
+        int totalStudents;
+        int totalCourses;
+        int activePlans;
+        int ineligibleStudents;
+        List<String> planAlerts = new ArrayList<>();
+    }
 }
@@ -6,6 +6,7 @@ import crs.service.*;
 import javax.swing.*;
 import javax.swing.table.*;
 import java.awt.*;
+import java.util.ArrayList;
 import java.util.List;
 
 public class EligibilityPanel extends JPanel {
@@ -15,8 +16,11 @@ public class EligibilityPanel extends JPanel {
     private EmailService emailService;
     
     private JTable eligibilityTable;
-    private DefaultTableModel tableModel;
+    private SnapshotTableModel<EligibilityStatus> tableModel;
     private JComboBox<String> filterCombo;
+    private JLabel statusLabel;
+    private JLabel dispatchLabel;
+    private TableLoader<EligibilityStatus> loader;
     
     public EligibilityPanel(MainFrame mainFrame) {
         this.mainFrame = mainFrame;
@@ -55,12 +59,18 @@ public class EligibilityPanel extends JPanel {
         JPanel actionsPanel = new JPanel(new FlowLayout(FlowLayout.RIGHT, 10, 0));
         actionsPanel.setOpaque(false);
         
+        statusLabel = TableLoader.createStatusLabel();
+        actionsPanel.add(statusLabel);
+        
         String[] filters = {"All Students", "Eligible Only", "Not Eligible Only"};
         filterCombo = new JComboBox<>(filters);
         filterCombo.setPreferredSize(new Dimension(150, 35));
         filterCombo.addActionListener(e -> filterTable());
         actionsPanel.add(filterCombo);
         
+        dispatchLabel = TableLoader.createStatusLabel();
+        actionsPanel.add(dispatchLabel);
+        
         JButton notifyButton = createButton("Notify All", new Color(155, 89, 182));
         notifyButton.addActionListener(e -> notifyIneligibleStudents());
         actionsPanel.add(notifyButton);
@@ -79,13 +89,14 @@ public class EligibilityPanel extends JPanel {
         panel.setBackground(Color.WHITE);
         panel.setBorder(BorderFactory.createEmptyBorder(20, 25, 10, 25));
         
-        String[] columns = {"Student ID", "Name", "Major", "CGPA", "Failed Courses", "Status", "Action"};
-        tableModel = new DefaultTableModel(columns, 0) {
-            @Override
-            public boolean isCellEditable(int row, int column) {
-                return column == 6;
-            }
-        };
+        tableModel = new SnapshotTableModel<EligibilityStatus>(EligibilityStatus::getStudentId)
+            .addColumn("Student ID", EligibilityStatus::getStudentId)
+            .addColumn("Name", EligibilityStatus::getFullName)
+            .addColumn("Major", EligibilityStatus::getMajor)
+            .addColumn("CGPA", status -> String.format("%.2f", status.getCgpa()))
+            .addColumn("Failed Courses", EligibilityStatus::getFailedCoursesCount)
+            .addColumn("Status", EligibilityStatus::getStatusLabel)
+            .addEditableColumn("Action", status -> "Action");
         
         eligibilityTable = new JTable(tableModel);
         eligibilityTable.setFont(new Font("Segoe UI", Font.PLAIN, 13));
@@ -146,17 +157,16 @@ public class EligibilityPanel extends JPanel {
         return panel;
     }
     
-    private void updateSummary() {
+    private void updateSummary(List<EligibilityStatus> snapshot) {
         JPanel summaryPanel = (JPanel) getComponent(2);
         summaryPanel.removeAll();
         
-        List<Student> allStudents = studentService.getAllStudents();
-        int total = allStudents.size();
+        int total = snapshot.size();
         int eligible = 0;
         int notEligible = 0;
         
-        for (Student student : allStudents) {
-            if (studentService.isEligibleToProgress(student.getStudentId())) {
+        for (EligibilityStatus status : snapshot) {
+            if (status.isEligible()) {
                 eligible++;
             } else {
                 notEligible++;
@@ -196,68 +206,24 @@ public class EligibilityPanel extends JPanel {
     }
     
     public void refresh() {
-        tableModel.setRowCount(0);
-        List<Student> students = studentService.getAllStudents();
-        
-        for (Student student : students) {
-            double cgpa = studentService.calculateCGPA(student.getStudentId());
-            
-            studentService.reloadData();
-            Student reloaded = studentService.findById(student.getStudentId());
-            int failedCount = reloaded != null ? reloaded.getFailedCoursesCount() : 0;
-            
-            boolean eligible = cgpa >= 2.0 && failedCount <= 3;
-            String status = eligible ? "Eligible" : "Not Eligible";
-            
-            Object[] row = {
-                student.getStudentId(),
-                student.getFullName(),
-                student.getMajor(),
-                String.format("%.2f", cgpa),
-                failedCount,
-                status,
-                "Action"
-            };
-            tableModel.addRow(row);
-        }
-        
-        updateSummary();
+        populateTable("All Students");
     }
     
     private void filterTable() {
-        String filter = (String) filterCombo.getSelectedItem();
-        tableModel.setRowCount(0);
-        List<Student> students = studentService.getAllStudents();
-        
-        for (Student student : students) {
-            double cgpa = studentService.calculateCGPA(student.getStudentId());
-            
-            studentService.reloadData();
-            Student reloaded = studentService.findById(student.getStudentId());
-            int failedCount = reloaded != null ? reloaded.getFailedCoursesCount() : 0;
-            
-            boolean eligible = cgpa >= 2.0 && failedCount <= 3;
-            String status = eligible ? "Eligible" : "Not Eligible";
-            
-            boolean include = "All Students".equals(filter) ||
-                ("Eligible Only".equals(filter) && eligible) ||
-                ("Not Eligible Only".equals(filter) && !eligible);
-            
-            if (include) {
-                Object[] row = {
-                    student.getStudentId(),
-                    student.getFullName(),
-                    student.getMajor(),
-                    String.format("%.2f", cgpa),
-                    failedCount,
-                    status,
-                    "Action"
-                };
-                tableModel.addRow(row);
-            }
-        }
-        
-        updateSummary();
+        populateTable((String) filterCombo.getSelectedItem());
+    }
+    
+    public boolean cancelLoading() {
+        return TableLoader.cancel(loader);
+    }
+    
+    private void populateTable(String filter) {
+        TableLoader.cancel(loader);
+        loader = new TableLoader<>(tableModel, statusLabel, studentService::getEligibilitySnapshot,
+            status -> "All Students".equals(filter) ||
+                ("Eligible Only".equals(filter) && status.isEligible()) ||
+                ("Not Eligible Only".equals(filter) && !status.isEligible()))
+            .onComplete(this::updateSummary).start();
     }
     
     private void notifyIneligibleStudents() {
@@ -273,18 +239,37 @@ public class EligibilityPanel extends JPanel {
             "Confirm Notification", JOptionPane.YES_NO_OPTION);
         
         if (confirm == JOptionPane.YES_OPTION) {
-            int sent = 0;
+            List<OutboundEmail> messages = new ArrayList<>(ineligible.size());
             for (Student student : ineligible) {
                 double cgpa = studentService.calculateCGPA(student.getStudentId());
-                if (emailService.sendEligibilityNotificationEmail(student, false, cgpa)) {
-                    sent++;
-                }
+                messages.add(emailService.createEligibilityNotification(student, false, cgpa));
             }
-            JOptionPane.showMessageDialog(this,
-                "Sent " + sent + " notification emails successfully.");
+            dispatchLabel.setText("Queued " + messages.size() + " notification emails...");
+            emailService.queueEmails(messages, (dispatch, complete) ->
+                SwingUtilities.invokeLater(() -> showDispatchProgress(dispatch, complete)));
         }
     }
     
+    private void showDispatchProgress(MailDispatch dispatch, boolean complete) {
+        if (!complete) {
+            if (!dispatch.isDone()) {
+                dispatchLabel.setText("Sending notifications: " + (dispatch.getSent() + dispatch.getFailed())
+                    + " of " + dispatch.getTotal() + "...");
+            }
+            return;
+        }
+        
+        dispatchLabel.setText(" ");
+        String message = "Sent " + dispatch.getSent() + " notification emails successfully.";
+        if (dispatch.getFailed() > 0) {
+            message += "\n" + dispatch.getFailed() + " emails could not be delivered.";
+        }
+        if (emailService.isConfigured()) {
+            message += "\n\nMail server: " + emailService.getMailStatistics();
+        }
+        JOptionPane.showMessageDialog(this, message);
+    }
+    
     private void confirmEnrolment(String studentId) {
         Student student = studentService.findById(studentId);
         if (student == null) return;
@@ -305,10 +290,10 @@ public class EligibilityPanel extends JPanel {
         
         if (confirm == JOptionPane.YES_OPTION) {
             studentService.confirmEnrolment(studentId);
-            emailService.sendEligibilityNotificationEmail(student, true, cgpa);
-            JOptionPane.showMessageDialog(this,
-                "Student enrolled successfully!\nConfirmation email sent.");
-            refresh();
+            tableModel.updateRow(EligibilityStatus.of(student));
+            new EmailWorker(() -> emailService.sendEligibilityNotificationEmail(student, true, cgpa), sent ->
+                JOptionPane.showMessageDialog(this, "Student enrolled successfully!\n"
+                    + (sent ? "Confirmation email sent." : "The confirmation email could not be sent."))).start();
         }
     }
     
@@ -372,8 +357,9 @@ public class EligibilityPanel extends JPanel {
                 boolean isSelected, int row, int column) {
             panel.removeAll();
             
-            studentId = (String) table.getValueAt(row, 0);
-            status = (String) table.getValueAt(row, 5);
+            EligibilityStatus eligibility = tableModel.getRow(row);
+            studentId = eligibility.getStudentId();
+            status = eligibility.getStatusLabel();
             
             if ("Eligible".equals(status)) {
                 JButton enrollBtn = new JButton("Enroll");
@@ -411,10 +397,8 @@ public class EligibilityPanel extends JPanel {
         Student student = studentService.findById(studentId);
         if (student == null) return;
         
-        double cgpa = studentService.calculateCGPA(studentId);
-        studentService.reloadData();
-        Student reloaded = studentService.findById(studentId);
-        int failedCount = reloaded != null ? reloaded.getFailedCoursesCount() : 0;
+        double cgpa = student.calculateCGPA();
+        int failedCount = student.getFailedCoursesCount();
         
         StringBuilder message = new StringBuilder();
         message.append("Student: ").append(student.getFullName()).append("\n\n");
@@ -423,9 +407,9 @@ public class EligibilityPanel extends JPanel {
         message.append("Failed Courses: ").append(failedCount);
         message.append(failedCount > 3 ? " (Exceeds maximum 3)" : " (OK)").append("\n\n");
         
-        if (reloaded != null && !reloaded.getFailedCourses().isEmpty()) {
+        if (!student.getFailedCourses().isEmpty()) {
             message.append("Failed Courses:\n");
-            for (StudentCourse sc : reloaded.getFailedCourses()) {
+            for (StudentCourse sc : student.getFailedCourses()) {
                 message.append("  - ").append(sc.getCourse().getCourseName()).append("\n");
             }
         }
@@ -0,0 +1,39 @@
+package crs.gui;
+
+import javax.swing.*;
+import java.util.concurrent.ExecutionException;
+import java.util.function.BooleanSupplier;
+import java.util.function.Consumer;
+
+public class EmailWorker extends SwingWorker<Boolean, Void> {
+    
+    private final BooleanSupplier send;
+    private final Consumer<Boolean> onFinished;
+    
+    public EmailWorker(BooleanSupplier send, Consumer<Boolean> onFinished) {
+        this.send = send;
+        this.onFinished = onFinished;
+    }
+    
+    public EmailWorker start() {
+        execute();
+        return this;
+    }
+    
+    @Override
+    protected Boolean doInBackground() {
+        return send.getAsBoolean();
+    }
+    
+    @Override
+    protected void done() {
+        boolean sent;
+        try {
+            sent = get();
+        } catch (InterruptedException | ExecutionException e) {
+            System.err.println("Error sending email: " + e.getCause());
+            sent = false;
+        }
+        onFinished.accept(sent);
+    }
+}
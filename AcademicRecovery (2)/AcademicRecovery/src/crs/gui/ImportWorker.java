@@ -0,0 +1,80 @@
+package crs.gui;
+
+import crs.util.ImportReport;
+
+import javax.swing.*;
+import java.awt.*;
+import java.util.concurrent.ExecutionException;
+import java.util.function.Supplier;
+
+public class ImportWorker extends SwingWorker<ImportReport, Void> {
+    
+    private final Component parent;
+    private final JLabel statusLabel;
+    private final Supplier<ImportReport> task;
+    private final Runnable onImported;
+    
+    public ImportWorker(Component parent, JLabel statusLabel, Supplier<ImportReport> task, Runnable onImported) {
+        this.parent = parent;
+        this.statusLabel = statusLabel;
+        this.task = task;
+        this.onImported = onImported;
+    }
+    
+    public ImportWorker start() {
+        statusLabel.setText("Importing...");
+        execute();
+        return this;
+    }
+    
+    @Override
+    protected ImportReport doInBackground() {
+        return task.get();
+    }
+    
+    @Override
+    protected void done() {
+        ImportReport report;
+        try {
+            report = get();
+        } catch (InterruptedException | ExecutionException e) {
+            statusLabel.setText(" ");
+            System.err.println("Error importing CSV: " + e.getCause());
+            JOptionPane.showMessageDialog(parent, "Import failed: " + e.getCause(), "Import", JOptionPane.ERROR_MESSAGE);
+            return;
+        }
+        
+        statusLabel.setText(" ");
+        if (report.getImported() > 0) {
+            onImported.run();
+        }
+        showReport(parent, report);
+    }
+    
+    public static void showReport(Component parent, ImportReport report) {
+        int type = report.isFailed() ? JOptionPane.ERROR_MESSAGE
+            : report.hasProblems() ? JOptionPane.WARNING_MESSAGE : JOptionPane.INFORMATION_MESSAGE;
+        if (report.getMessages().isEmpty()) {
+            JOptionPane.showMessageDialog(parent, report.getSummary(), "Import", type);
+            return;
+        }
+        
+        StringBuilder details = new StringBuilder();
+        for (String message : report.getMessages()) {
+            details.append(message).append('\n');
+        }
+        if (report.getOmittedMessages() > 0) {
+            details.append("... and ").append(report.getOmittedMessages()).append(" more");
+        }
+        
+        JTextArea detailsArea = new JTextArea(details.toString(), 12, 50);
+        detailsArea.setEditable(false);
+        detailsArea.setFont(new Font("Monospaced", Font.PLAIN, 12));
+        detailsArea.setCaretPosition(0);
+        
+        JPanel panel = new JPanel(new BorderLayout(0, 10));
+        panel.add(new JLabel(report.getSummary()), BorderLayout.NORTH);
+        panel.add(new JScrollPane(detailsArea), BorderLayout.CENTER);
+        JOptionPane.showMessageDialog(parent, panel, "Import", type);
+    }
+}
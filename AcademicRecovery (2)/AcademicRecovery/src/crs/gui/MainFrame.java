@@ -1,11 +1,13 @@
 package crs.gui;
 
 import crs.model.User;
-import crs.service.UserService;
+import crs.service.*;
 
 import javax.swing.*;
 import java.awt.*;
 import java.awt.event.*;
+import java.util.HashMap;
+import java.util.Map;
 
 public class MainFrame extends JFrame {
     
@@ -25,6 +27,7 @@ public class MainFrame extends JFrame {
     
     private User currentUser;
     private UserService userService;
+    private final Map<String, Long> viewedVersions = new HashMap<>();
     
     private JButton selectedButton;
     
@@ -52,29 +55,16 @@ public class MainFrame extends JFrame {
         mainPanel = new JPanel(new BorderLayout());
         
         loginPanel = new LoginPanel(this);
-        dashboardPanel = new DashboardPanel(this);
-        userPanel = new UserManagementPanel(this);
-        studentPanel = new StudentPanel(this);
-        coursePanel = new CoursePanel(this);
-        recoveryPanel = new RecoveryPlanPanel(this);
-        eligibilityPanel = new EligibilityPanel(this);
-        reportPanel = new ReportPanel(this);
         
         cardLayout = new CardLayout();
         contentPanel = new JPanel(cardLayout);
-        contentPanel.add(dashboardPanel, "dashboard");
-        contentPanel.add(userPanel, "users");
-        contentPanel.add(studentPanel, "students");
-        contentPanel.add(coursePanel, "courses");
-        contentPanel.add(recoveryPanel, "recovery");
-        contentPanel.add(eligibilityPanel, "eligibility");
-        contentPanel.add(reportPanel, "reports");
         
         setContentPane(loginPanel);
     }
     
     public void onLoginSuccess(User user) {
         this.currentUser = user;
+        viewedVersions.clear();
         
         mainPanel.removeAll();
         mainPanel.add(createTopBar(), BorderLayout.NORTH);
@@ -83,17 +73,6 @@ public class MainFrame extends JFrame {
         
         setContentPane(mainPanel);
         
-        dashboardPanel.refresh(user);
-        studentPanel.refresh();
-        coursePanel.refresh();
-        recoveryPanel.refresh();
-        eligibilityPanel.refresh();
-        reportPanel.refresh();
-        
-        if (currentUser.hasPermission("VIEW_USERS")) {
-            userPanel.refresh();
-        }
-        
         showPanel("dashboard");
         
         revalidate();
@@ -101,6 +80,7 @@ public class MainFrame extends JFrame {
     }
     
     public void logout() {
+        cancelLoadingExcept(null);
         userService.logout();
         currentUser = null;
         loginPanel.reset();
@@ -219,8 +199,17 @@ public class MainFrame extends JFrame {
     }
     
     public void showPanel(String panelName) {
+        cancelLoadingExcept(panelName);
+        ensurePanel(panelName);
         cardLayout.show(contentPanel, panelName);
         
+        long version = getDataVersion(panelName);
+        Long viewed = viewedVersions.get(panelName);
+        if (viewed != null && viewed == version) {
+            return;
+        }
+        viewedVersions.put(panelName, version);
+        
         switch (panelName) {
             case "dashboard":
                 dashboardPanel.refresh(currentUser);
@@ -248,6 +237,99 @@ public class MainFrame extends JFrame {
         }
     }
     
+    private void ensurePanel(String panelName) {
+        switch (panelName) {
+            case "dashboard":
+                if (dashboardPanel == null) {
+                    dashboardPanel = new DashboardPanel(this);
+                    contentPanel.add(dashboardPanel, panelName);
+                }
+                break;
+            case "students":
+                if (studentPanel == null) {
+                    studentPanel = new StudentPanel(this);
+                    contentPanel.add(studentPanel, panelName);
+                }
+                break;
+            case "courses":
+                if (coursePanel == null) {
+                    coursePanel = new CoursePanel(this);
+                    contentPanel.add(coursePanel, panelName);
+                }
+                break;
+            case "recovery":
+                if (recoveryPanel == null) {
+                    recoveryPanel = new RecoveryPlanPanel(this);
+                    contentPanel.add(recoveryPanel, panelName);
+                }
+                break;
+            case "eligibility":
+                if (eligibilityPanel == null) {
+                    eligibilityPanel = new EligibilityPanel(this);
+                    contentPanel.add(eligibilityPanel, panelName);
+                }
+                break;
+            case "reports":
+                if (reportPanel == null) {
+                    reportPanel = new ReportPanel(this);
+                    contentPanel.add(reportPanel, panelName);
+                }
+                break;
+            case "users":
+                if (userPanel == null) {
+                    userPanel = new UserManagementPanel(this);
+                    contentPanel.add(userPanel, panelName);
+                }
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown panel: " + panelName);
+        }
+    }
+    
+    private long getDataVersion(String panelName) {
+        long students = StudentService.getInstance().getDataVersion();
+        switch (panelName) {
+            case "dashboard":
+            case "recovery":
+                return students + CourseService.getInstance().getDataVersion()
+                    + RecoveryPlanService.getInstance().getDataVersion();
+            case "students":
+            case "eligibility":
+            case "reports":
+                return students;
+            case "courses":
+                return CourseService.getInstance().getDataVersion();
+            case "users":
+                return userService.getDataVersion();
+            default:
+                return 0;
+        }
+    }
+    
+    private void cancelLoadingExcept(String panelName) {
+        if (!"dashboard".equals(panelName) && dashboardPanel != null && dashboardPanel.cancelLoading()) {
+            viewedVersions.remove("dashboard");
+        }
+        if (!"students".equals(panelName) && studentPanel != null && studentPanel.cancelLoading()) {
+            viewedVersions.remove("students");
+        }
+        if (!"courses".equals(panelName) && coursePanel != null && coursePanel.cancelLoading()) {
+            viewedVersions.remove("courses");
+        }
+        if (!"recovery".equals(panelName) && recoveryPanel != null && recoveryPanel.cancelLoading()) {
+            viewedVersions.remove("recovery");
+        }
+        if (!"eligibility".equals(panelName) && eligibilityPanel != null && eligibilityPanel.cancelLoading()) {
+            viewedVersions.remove("eligibility");
+        }
+        if (!"reports".equals(panelName) && reportPanel != null && reportPanel.cancelLoading()) {
+            viewedVersions.remove("reports");
+        }
+        if (!"users".equals(panelName) && userPanel != null && userPanel.cancelLoading()) {
+            viewedVersions.remove("users");
+        }
+    }
+    
     public User getCurrentUser() {
         return currentUser;
     }
@@ -19,8 +19,10 @@ public class RecoveryPlanPanel extends JPanel {
     private EmailService emailService;
     
     private JTable planTable;
-    private DefaultTableModel tableModel;
+    private SnapshotTableModel<RecoveryPlan> tableModel;
     private JComboBox<String> statusFilter;
+    private JLabel statusLabel;
+    private TableLoader<RecoveryPlan> loader;
     
     public RecoveryPlanPanel(MainFrame mainFrame) {
         this.mainFrame = mainFrame;
@@ -58,6 +60,8 @@ public class RecoveryPlanPanel extends JPanel {
         JPanel actionsPanel = new JPanel(new FlowLayout(FlowLayout.RIGHT, 10, 0));
         actionsPanel.setOpaque(false);
         
+        statusLabel = TableLoader.createStatusLabel();
+        actionsPanel.add(statusLabel);
         String[] statuses = {"All", "Active", "Completed", "Cancelled"};
         statusFilter = new JComboBox<>(statuses);
         statusFilter.setPreferredSize(new Dimension(120, 35));
@@ -83,13 +87,15 @@ public class RecoveryPlanPanel extends JPanel {
         panel.setBackground(Color.WHITE);
         panel.setBorder(BorderFactory.createEmptyBorder(20, 25, 20, 25));
         
-        String[] columns = {"Plan ID", "Student", "Course", "Start Date", "End Date", "Progress", "Status", "Actions"};
-        tableModel = new DefaultTableModel(columns, 0) {
-            @Override
-            public boolean isCellEditable(int row, int column) {
-                return column == 7;
-            }
-        };
+        tableModel = new SnapshotTableModel<RecoveryPlan>(RecoveryPlan::getPlanId)
+            .addColumn("Plan ID", RecoveryPlan::getPlanId)
+            .addColumn("Student", this::getStudentName)
+            .addColumn("Course", this::getCourseName)
+            .addColumn("Start Date", plan -> plan.getStartDate() != null ? plan.getStartDate().toString() : "N/A")
+            .addColumn("End Date", plan -> plan.getEndDate() != null ? plan.getEndDate().toString() : "N/A")
+            .addColumn("Progress", RecoveryPlan::getProgressPercentage)
+            .addColumn("Status", RecoveryPlan::getStatus)
+            .addEditableColumn("Actions", plan -> "Actions");
         
         planTable = new JTable(tableModel);
         planTable.setFont(new Font("Segoe UI", Font.PLAIN, 13));
@@ -114,50 +120,35 @@ public class RecoveryPlanPanel extends JPanel {
     }
     
     public void refresh() {
-        tableModel.setRowCount(0);
-        List<RecoveryPlan> plans = recoveryPlanService.getAllRecoveryPlans();
-        
-        for (RecoveryPlan plan : plans) {
-            Student student = studentService.findById(plan.getStudentId());
-            Course course = courseService.findById(plan.getCourseId());
-            
-            Object[] row = {
-                plan.getPlanId(),
-                student != null ? student.getFullName() : plan.getStudentId(),
-                course != null ? course.getCourseName() : plan.getCourseId(),
-                plan.getStartDate() != null ? plan.getStartDate().toString() : "N/A",
-                plan.getEndDate() != null ? plan.getEndDate().toString() : "N/A",
-                plan.getProgressPercentage(),
-                plan.getStatus(),
-                "Actions"
-            };
-            tableModel.addRow(row);
-        }
+        loadRows("All");
     }
     
     private void filterTable() {
-        String status = (String) statusFilter.getSelectedItem();
-        tableModel.setRowCount(0);
-        List<RecoveryPlan> plans = recoveryPlanService.getAllRecoveryPlans();
-        
-        for (RecoveryPlan plan : plans) {
-            if ("All".equals(status) || plan.getStatus().equals(status)) {
-                Student student = studentService.findById(plan.getStudentId());
-                Course course = courseService.findById(plan.getCourseId());
-                
-                Object[] row = {
-                    plan.getPlanId(),
-                    student != null ? student.getFullName() : plan.getStudentId(),
-                    course != null ? course.getCourseName() : plan.getCourseId(),
-                    plan.getStartDate() != null ? plan.getStartDate().toString() : "N/A",
-                    plan.getEndDate() != null ? plan.getEndDate().toString() : "N/A",
-                    plan.getProgressPercentage(),
-                    plan.getStatus(),
-                    "Actions"
-                };
-                tableModel.addRow(row);
-            }
-        }
+        loadRows((String) statusFilter.getSelectedItem());
+    }
+    
+    public boolean cancelLoading() {
+        return TableLoader.cancel(loader);
+    }
+    
+    private void loadRows(String status) {
+        TableLoader.cancel(loader);
+        loader = new TableLoader<>(tableModel, statusLabel, recoveryPlanService::getAllRecoveryPlans,
+            plan -> "All".equals(status) || plan.getStatus().equals(status)).start();
+    }
+    
+    private void refreshPlan(String planId) {
+        tableModel.updateRow(recoveryPlanService.findById(planId));
+    }
+    
+    private String getStudentName(RecoveryPlan plan) {
+        Student student = studentService.findById(plan.getStudentId());
+        return student != null ? student.getFullName() : plan.getStudentId();
+    }
+    
+    private String getCourseName(RecoveryPlan plan) {
+        Course course = courseService.findById(plan.getCourseId());
+        return course != null ? course.getCourseName() : plan.getCourseId();
     }
     
     private void showCreatePlanDialog() {
@@ -195,7 +186,7 @@ public class RecoveryPlanPanel extends JPanel {
                 Student selected = studentsWithFailed.get(idx);
                 List<StudentCourse> failed = selected.getFailedCourses();
                 for (StudentCourse sc : failed) {
-                    courseCombo.addItem(sc.getCourse().getCourseId() + " - " + sc.getCourse().getCourseName());
+                    courseCombo.addItem(sc.getCourseId() + " - " + sc.getCourse().getCourseName());
                 }
             }
         });
@@ -244,21 +235,21 @@ public class RecoveryPlanPanel extends JPanel {
                 
                 RecoveryPlan plan = recoveryPlanService.createRecoveryPlan(
                     student.getStudentId(),
-                    failedCourse.getCourse().getCourseId(),
+                    failedCourse.getCourseId(),
                     recommendationArea.getText().trim(),
                     LocalDate.parse(startDateField.getText().trim()),
                     LocalDate.parse(endDateField.getText().trim()),
                     mainFrame.getCurrentUser().getUsername()
                 );
                 
-                emailService.sendRecoveryPlanEmail(student, plan, failedCourse.getCourse());
-                
-                JOptionPane.showMessageDialog(dialog, 
-                    "Recovery plan created successfully!\nEmail sent to student.");
                 dialog.dispose();
                 refresh();
                 
-                showAddMilestonesDialog(plan.getPlanId());
+                new EmailWorker(() -> emailService.sendRecoveryPlanEmail(student, plan, failedCourse.getCourse()), sent -> {
+                    JOptionPane.showMessageDialog(this, "Recovery plan created successfully!\n"
+                        + (sent ? "Email sent to student." : "The email to the student could not be sent."));
+                    showAddMilestonesDialog(plan.getPlanId());
+                }).start();
                 
             } catch (Exception ex) {
                 JOptionPane.showMessageDialog(dialog, "Error: " + ex.getMessage(),
@@ -341,7 +332,7 @@ public class RecoveryPlanPanel extends JPanel {
             
             JOptionPane.showMessageDialog(dialog, "Milestones added successfully!");
             dialog.dispose();
-            refresh();
+            refreshPlan(planId);
         });
         buttonPanel.add(saveButton);
         
@@ -522,7 +513,7 @@ public class RecoveryPlanPanel extends JPanel {
                 
                 JOptionPane.showMessageDialog(dialog, "Grade saved successfully!");
                 dialog.dispose();
-                refresh();
+                refreshPlan(planId);
             } catch (NumberFormatException ex) {
                 JOptionPane.showMessageDialog(dialog, "Please enter a valid grade.");
             }
@@ -643,7 +634,7 @@ public class RecoveryPlanPanel extends JPanel {
         @Override
         public Component getTableCellEditorComponent(JTable table, Object value,
                 boolean isSelected, int row, int column) {
-            planId = (String) table.getValueAt(row, 0);
+            planId = tableModel.getRow(row).getPlanId();
             panel.setBackground(Color.WHITE);
             return panel;
         }
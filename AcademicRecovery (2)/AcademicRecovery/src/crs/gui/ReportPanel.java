@@ -22,6 +22,7 @@ public class ReportPanel extends JPanel {
     private JComboBox<String> studentCombo;
     private JComboBox<String> semesterCombo;
     private JTextField yearField;
+    private SwingWorker<String[], Void> studentLoader;
     
     public ReportPanel(MainFrame mainFrame) {
         this.mainFrame = mainFrame;
@@ -95,6 +96,7 @@ public class ReportPanel extends JPanel {
             "Student Academic Report",
             "Full Academic Transcript",
             "Eligibility Status Report",
+            "Grade Distribution Report",
             "Recovery Plan Report"
         };
         reportTypeCombo = new JComboBox<>(reportTypes);
@@ -192,16 +194,40 @@ public class ReportPanel extends JPanel {
     }
     
     public void refresh() {
-        studentCombo.removeAllItems();
-        List<Student> students = studentService.getAllStudents();
-        for (Student student : students) {
-            studentCombo.addItem(student.getStudentId() + " - " + student.getFullName());
-        }
+        cancelLoading();
+        studentLoader = new SwingWorker<String[], Void>() {
+            @Override
+            protected String[] doInBackground() {
+                List<Student> students = studentService.getAllStudents();
+                String[] items = new String[students.size()];
+                for (int i = 0; i < items.length && !isCancelled(); i++) {
+                    Student student = students.get(i);
+                    items[i] = student.getStudentId() + " - " + student.getFullName();
+                }
+                return items;
+            }
+            
+            @Override
+            protected void done() {
+                if (isCancelled()) return;
+                try {
+                    studentCombo.setModel(new DefaultComboBoxModel<>(get()));
+                } catch (Exception e) {
+                    System.err.println("Error loading students: " + e.getMessage());
+                }
+            }
+        };
+        studentLoader.execute();
+    }
+    
+    public boolean cancelLoading() {
+        return studentLoader != null && !studentLoader.isDone() && studentLoader.cancel(true);
     }
     
     private void updateOptionsVisibility() {
         String reportType = (String) reportTypeCombo.getSelectedItem();
-        boolean showStudent = !reportType.equals("Eligibility Status Report");
+        boolean showStudent = !reportType.equals("Eligibility Status Report") &&
+            !reportType.equals("Grade Distribution Report");
         boolean showSemester = reportType.equals("Student Academic Report");
         
         studentCombo.setEnabled(showStudent);
@@ -241,6 +267,10 @@ public class ReportPanel extends JPanel {
                     report = reportService.generateEligibilityReport();
                     break;
                     
+                case "Grade Distribution Report":
+                    report = reportService.generateGradeDistributionReport();
+                    break;
+                    
                 case "Recovery Plan Report":
                     if (studentCombo.getSelectedIndex() < 0) {
                         JOptionPane.showMessageDialog(this, "Please select a student.");
@@ -341,9 +371,9 @@ public class ReportPanel extends JPanel {
         
         String reportType = (String) reportTypeCombo.getSelectedItem();
         
-        if (reportType.equals("Eligibility Status Report")) {
+        if (reportType.equals("Eligibility Status Report") || reportType.equals("Grade Distribution Report")) {
             JOptionPane.showMessageDialog(this, 
-                "Eligibility report cannot be sent to individual students.");
+                "Summary reports cannot be sent to individual students.");
             return;
         }
         
@@ -361,13 +391,15 @@ public class ReportPanel extends JPanel {
             "Confirm Email", JOptionPane.YES_NO_OPTION);
         
         if (confirm == JOptionPane.YES_OPTION) {
-            boolean sent = emailService.sendAcademicReportEmail(student, reportArea.getText());
-            if (sent) {
-                JOptionPane.showMessageDialog(this, "Report sent successfully!");
-            } else {
-                JOptionPane.showMessageDialog(this, "Failed to send email.", 
-                    "Error", JOptionPane.ERROR_MESSAGE);
-            }
+            String report = reportArea.getText();
+            new EmailWorker(() -> emailService.sendAcademicReportEmail(student, report), sent -> {
+                if (sent) {
+                    JOptionPane.showMessageDialog(this, "Report sent successfully!");
+                } else {
+                    JOptionPane.showMessageDialog(this, "Failed to send email.", 
+                        "Error", JOptionPane.ERROR_MESSAGE);
+                }
+            }).start();
         }
     }
     
@@ -0,0 +1,98 @@
+package crs.gui;
+
+import javax.swing.table.AbstractTableModel;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+public class SnapshotTableModel<T> extends AbstractTableModel {
+    
+    private final Function<T, String> keyFunction;
+    private final List<String> columnNames = new ArrayList<>();
+    private final List<Function<? super T, ?>> columnValues = new ArrayList<>();
+    private final List<T> rows = new ArrayList<>();
+    private final Map<String, Integer> rowIndex = new HashMap<>();
+    private int editableColumn = -1;
+    
+    public SnapshotTableModel(Function<T, String> keyFunction) {
+        this.keyFunction = keyFunction;
+    }
+    
+    public SnapshotTableModel<T> addColumn(String name, Function<? super T, ?> value) {
+        columnNames.add(name);
+        columnValues.add(value);
+        return this;
+    }
+    
+    public SnapshotTableModel<T> addEditableColumn(String name, Function<? super T, ?> value) {
+        editableColumn = columnNames.size();
+        return addColumn(name, value);
+    }
+    
+    public void addRows(Collection<? extends T> items) {
+        if (items.isEmpty()) return;
+        int first = rows.size();
+        appendInternal(items);
+        fireTableRowsInserted(first, rows.size() - 1);
+    }
+    
+    public void clear() {
+        if (rows.isEmpty()) return;
+        rows.clear();
+        rowIndex.clear();
+        fireTableDataChanged();
+    }
+    
+    public boolean updateRow(T item) {
+        Integer row = item != null ? rowIndex.get(keyFunction.apply(item)) : null;
+        if (row == null) {
+            return false;
+        }
+        rows.set(row, item);
+        fireTableRowsUpdated(row, row);
+        return true;
+    }
+    
+    public T getRow(int row) {
+        return rows.get(row);
+    }
+    
+    private void appendInternal(Collection<? extends T> items) {
+        for (T item : items) {
+            rowIndex.putIfAbsent(keyFunction.apply(item), rows.size());
+            rows.add(item);
+        }
+    }
+    
+    @Override
+    public int getRowCount() {
+        return rows.size();
+    }
+    
+    @Override
+    public int getColumnCount() {
+        return columnNames.size();
+    }
+    
+    @Override
+    public String getColumnName(int column) {
+        return columnNames.get(column);
+    }
+    
+    @Override
+    public Object getValueAt(int row, int column) {
+        return columnValues.get(column).apply(rows.get(row));
+    }
+    
+    @Override
+    public boolean isCellEditable(int row, int column) {
+        return column == editableColumn;
+    }
+    
+    @Override
+    public void setValueAt(Object value, int row, int column) {
+    }
+}
@@ -7,6 +7,7 @@ import javax.swing.*;
 import javax.swing.table.*;
 import java.awt.*;
 import java.util.List;
+import java.util.function.Supplier;
 
 public class StudentPanel extends JPanel {
     
@@ -15,8 +16,10 @@ public class StudentPanel extends JPanel {
     private CourseService courseService;
     
     private JTable studentTable;
-    private DefaultTableModel tableModel;
+    private SnapshotTableModel<Student> tableModel;
     private JTextField searchField;
+    private JLabel statusLabel;
+    private TableLoader<Student> loader;
     
     public StudentPanel(MainFrame mainFrame) {
         this.mainFrame = mainFrame;
@@ -52,6 +55,9 @@ public class StudentPanel extends JPanel {
         JPanel actionsPanel = new JPanel(new FlowLayout(FlowLayout.RIGHT, 10, 0));
         actionsPanel.setOpaque(false);
         
+        statusLabel = TableLoader.createStatusLabel();
+        actionsPanel.add(statusLabel);
+        
         searchField = new JTextField(20);
         searchField.setFont(new Font("Segoe UI", Font.PLAIN, 13));
         searchField.setPreferredSize(new Dimension(200, 35));
@@ -70,6 +76,10 @@ public class StudentPanel extends JPanel {
         importButton.addActionListener(e -> importStudentsFromCSV());
         actionsPanel.add(importButton);
         
+        JButton importGradesButton = createButton("Import Grades", new Color(155, 89, 182));
+        importGradesButton.addActionListener(e -> importGradesFromCSV());
+        actionsPanel.add(importGradesButton);
+        
         JButton refreshButton = createButton("Refresh", new Color(52, 152, 219));
         refreshButton.addActionListener(e -> refresh());
         actionsPanel.add(refreshButton);
@@ -84,13 +94,15 @@ public class StudentPanel extends JPanel {
         panel.setBackground(Color.WHITE);
         panel.setBorder(BorderFactory.createEmptyBorder(20, 25, 20, 25));
         
-        String[] columns = {"Student ID", "Name", "Major", "Year", "Email", "CGPA", "Status", "Actions"};
-        tableModel = new DefaultTableModel(columns, 0) {
-            @Override
-            public boolean isCellEditable(int row, int column) {
-                return column == 7;
-            }
-        };
+        tableModel = new SnapshotTableModel<Student>(Student::getStudentId)
+            .addColumn("Student ID", Student::getStudentId)
+            .addColumn("Name", Student::getFullName)
+            .addColumn("Major", Student::getMajor)
+            .addColumn("Year", Student::getYear)
+            .addColumn("Email", Student::getEmail)
+            .addColumn("CGPA", student -> String.format("%.2f", student.calculateCGPA()))
+            .addColumn("Status", student -> student.isEligibleToProgress() ? "Eligible" : "Not Eligible")
+            .addEditableColumn("Actions", student -> "Actions");
         
         studentTable = new JTable(tableModel);
         studentTable.setFont(new Font("Segoe UI", Font.PLAIN, 13));
@@ -131,48 +143,21 @@ public class StudentPanel extends JPanel {
     }
     
     public void refresh() {
-        tableModel.setRowCount(0);
-        List<Student> students = studentService.getAllStudents();
-        
-        for (Student student : students) {
-            double cgpa = studentService.calculateCGPA(student.getStudentId());
-            String status = student.isEligibleToProgress() ? "Eligible" : "Not Eligible";
-            
-            Object[] row = {
-                student.getStudentId(),
-                student.getFullName(),
-                student.getMajor(),
-                student.getYear(),
-                student.getEmail(),
-                String.format("%.2f", cgpa),
-                status,
-                "Actions"
-            };
-            tableModel.addRow(row);
-        }
+        loadRows(studentService::getAllStudents);
     }
     
     private void filterTable() {
         String search = searchField.getText().toLowerCase();
-        tableModel.setRowCount(0);
-        List<Student> students = studentService.searchStudents(search);
-        
-        for (Student student : students) {
-            double cgpa = studentService.calculateCGPA(student.getStudentId());
-            String status = student.isEligibleToProgress() ? "Eligible" : "Not Eligible";
-            
-            Object[] row = {
-                student.getStudentId(),
-                student.getFullName(),
-                student.getMajor(),
-                student.getYear(),
-                student.getEmail(),
-                String.format("%.2f", cgpa),
-                status,
-                "Actions"
-            };
-            tableModel.addRow(row);
-        }
+        loadRows(() -> studentService.searchStudents(search));
+    }
+    
+    public boolean cancelLoading() {
+        return TableLoader.cancel(loader);
+    }
+    
+    private void loadRows(Supplier<List<Student>> source) {
+        TableLoader.cancel(loader);
+        loader = new TableLoader<>(tableModel, statusLabel, source).start();
     }
     
     private void importStudentsFromCSV() {
@@ -182,9 +167,18 @@ public class StudentPanel extends JPanel {
         int result = fileChooser.showOpenDialog(this);
         if (result == JFileChooser.APPROVE_OPTION) {
             String filePath = fileChooser.getSelectedFile().getAbsolutePath();
-            studentService.importStudentsFromCSV(filePath);
-            refresh();
-            JOptionPane.showMessageDialog(this, "Students imported successfully!");
+            new ImportWorker(this, statusLabel, () -> studentService.importStudentsFromCSV(filePath), this::refresh).start();
+        }
+    }
+    
+    private void importGradesFromCSV() {
+        JFileChooser fileChooser = new JFileChooser();
+        fileChooser.setDialogTitle("Select Grade CSV File");
+        
+        int result = fileChooser.showOpenDialog(this);
+        if (result == JFileChooser.APPROVE_OPTION) {
+            String filePath = fileChooser.getSelectedFile().getAbsolutePath();
+            new ImportWorker(this, statusLabel, () -> studentService.importEnrolmentsFromCSV(filePath), this::refresh).start();
         }
     }
     
@@ -229,7 +223,7 @@ public class StudentPanel extends JPanel {
         List<StudentCourse> courses = studentService.getStudentCourses(studentId);
         for (StudentCourse sc : courses) {
             Object[] row = {
-                sc.getCourse().getCourseId(),
+                sc.getCourseId(),
                 sc.getCourse().getCourseName(),
                 sc.getCourse().getCredits(),
                 sc.getGrade() != null ? sc.getGrade() : "N/A",
@@ -285,7 +279,7 @@ public class StudentPanel extends JPanel {
         
         JComboBox<String> courseCombo = new JComboBox<>();
         for (StudentCourse sc : courses) {
-            courseCombo.addItem(sc.getCourse().getCourseId() + " - " + sc.getCourse().getCourseName());
+            courseCombo.addItem(sc.getCourseId() + " - " + sc.getCourse().getCourseName());
         }
         gbc.gridx = 1;
         formPanel.add(courseCombo, gbc);
@@ -319,12 +313,12 @@ public class StudentPanel extends JPanel {
                 double examScore = Double.parseDouble(examField.getText().trim());
                 double assignmentScore = Double.parseDouble(assignmentField.getText().trim());
                 
-                studentService.assignGrade(studentId, selectedCourse.getCourse().getCourseId(), 
+                studentService.assignGrade(studentId, selectedCourse.getCourseId(), 
                     grade, examScore, assignmentScore);
                 
                 JOptionPane.showMessageDialog(dialog, "Grade assigned successfully!");
                 dialog.dispose();
-                refresh();
+                tableModel.updateRow(student);
             } catch (NumberFormatException ex) {
                 JOptionPane.showMessageDialog(dialog, "Please enter valid scores.", 
                     "Error", JOptionPane.ERROR_MESSAGE);
@@ -428,7 +422,7 @@ public class StudentPanel extends JPanel {
         @Override
         public Component getTableCellEditorComponent(JTable table, Object value,
                 boolean isSelected, int row, int column) {
-            studentId = (String) table.getValueAt(row, 0);
+            studentId = tableModel.getRow(row).getStudentId();
             panel.setBackground(Color.WHITE);
             return panel;
         }
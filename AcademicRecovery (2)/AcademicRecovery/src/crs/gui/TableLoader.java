@@ -0,0 +1,118 @@
+package crs.gui;
+
+import javax.swing.*;
+import java.awt.*;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+public class TableLoader<T> extends SwingWorker<Integer, List<T>> {
+    
+    private static final int CHUNK_SIZE = 200;
+    
+    private final SnapshotTableModel<T> model;
+    private final JLabel statusLabel;
+    private final Supplier<List<T>> source;
+    private final Predicate<? super T> filter;
+    private Consumer<List<T>> onComplete;
+    
+    private volatile List<T> items;
+    private volatile int total;
+    
+    public TableLoader(SnapshotTableModel<T> model, JLabel statusLabel, Supplier<List<T>> source) {
+        this(model, statusLabel, source, item -> true);
+    }
+    
+    public TableLoader(SnapshotTableModel<T> model, JLabel statusLabel,
+                       Supplier<List<T>> source, Predicate<? super T> filter) {
+        this.model = model;
+        this.statusLabel = statusLabel;
+        this.source = source;
+        this.filter = filter;
+    }
+    
+    public static JLabel createStatusLabel() {
+        JLabel label = new JLabel(" ");
+        label.setFont(new Font("Segoe UI", Font.ITALIC, 12));
+        label.setForeground(new Color(120, 120, 120));
+        return label;
+    }
+    
+    public TableLoader<T> onComplete(Consumer<List<T>> onComplete) {
+        this.onComplete = onComplete;
+        return this;
+    }
+    
+    public TableLoader<T> start() {
+        model.clear();
+        statusLabel.setText("Loading...");
+        execute();
+        return this;
+    }
+    
+    public static boolean cancel(TableLoader<?> loader) {
+        return loader != null && !loader.isDone() && loader.cancel(true);
+    }
+    
+    @Override
+    protected Integer doInBackground() {
+        List<T> items = source.get();
+        this.items = items;
+        total = items.size();
+        
+        int count = 0;
+        List<T> chunk = new ArrayList<>(CHUNK_SIZE);
+        for (T item : items) {
+            if (isCancelled()) {
+                return count;
+            }
+            if (!filter.test(item)) continue;
+            
+            chunk.add(item);
+            count++;
+            if (chunk.size() == CHUNK_SIZE) {
+                publish(chunk);
+                chunk = new ArrayList<>(CHUNK_SIZE);
+            }
+        }
+        if (!chunk.isEmpty()) {
+            publish(chunk);
+        }
+        return count;
+    }
+    
+    @Override
+    protected void process(List<List<T>> chunks) {
+        if (isCancelled()) return;
+        
+        for (List<T> chunk : chunks) {
+            model.addRows(chunk);
+        }
+        statusLabel.setText("Loading " + model.getRowCount() + " of " + total + "...");
+    }
+    
+    @Override
+    protected void done() {
+        if (isCancelled()) {
+            statusLabel.setText(" ");
+            return;
+        }
+        
+        try {
+            int count = get();
+            statusLabel.setText(count + (count == 1 ? " record" : " records"));
+            if (onComplete != null) {
+                onComplete.accept(items);
+            }
+        } catch (InterruptedException | CancellationException e) {
+            statusLabel.setText(" ");
+        } catch (ExecutionException e) {
+            statusLabel.setText("Failed to load data");
+            System.err.println("Error loading table data: " + e.getCause());
+        }
+    }
+}
@@ -7,6 +7,7 @@ import javax.swing.*;
 import javax.swing.table.*;
 import java.awt.*;
 import java.util.List;
+import java.util.function.Supplier;
 
 public class UserManagementPanel extends JPanel {
     
@@ -15,8 +16,10 @@ public class UserManagementPanel extends JPanel {
     private EmailService emailService;
     
     private JTable userTable;
-    private DefaultTableModel tableModel;
+    private SnapshotTableModel<User> tableModel;
     private JTextField searchField;
+    private JLabel statusLabel;
+    private TableLoader<User> loader;
     
     public UserManagementPanel(MainFrame mainFrame) {
         this.mainFrame = mainFrame;
@@ -52,6 +55,8 @@ public class UserManagementPanel extends JPanel {
         JPanel actionsPanel = new JPanel(new FlowLayout(FlowLayout.RIGHT, 10, 0));
         actionsPanel.setOpaque(false);
         
+        statusLabel = TableLoader.createStatusLabel();
+        actionsPanel.add(statusLabel);
         searchField = new JTextField(20);
         searchField.setFont(new Font("Segoe UI", Font.PLAIN, 13));
         searchField.setPreferredSize(new Dimension(200, 35));
@@ -84,13 +89,14 @@ public class UserManagementPanel extends JPanel {
         panel.setBackground(Color.WHITE);
         panel.setBorder(BorderFactory.createEmptyBorder(20, 25, 20, 25));
         
-        String[] columns = {"User ID", "Username", "Full Name", "Email", "Role", "Status", "Actions"};
-        tableModel = new DefaultTableModel(columns, 0) {
-            @Override
-            public boolean isCellEditable(int row, int column) {
-                return column == 6;
-            }
-        };
+        tableModel = new SnapshotTableModel<User>(User::getUserId)
+            .addColumn("User ID", User::getUserId)
+            .addColumn("Username", User::getUsername)
+            .addColumn("Full Name", User::getFullName)
+            .addColumn("Email", User::getEmail)
+            .addColumn("Role", User::getRole)
+            .addColumn("Status", user -> user.isActive() ? "Active" : "Inactive")
+            .addEditableColumn("Actions", user -> "Actions");
         
         userTable = new JTable(tableModel);
         userTable.setFont(new Font("Segoe UI", Font.PLAIN, 13));
@@ -113,44 +119,28 @@ public class UserManagementPanel extends JPanel {
     }
     
     public void refresh() {
-        tableModel.setRowCount(0);
-        List<User> users = userService.getAllUsers();
-        
-        for (User user : users) {
-            Object[] row = {
-                user.getUserId(),
-                user.getUsername(),
-                user.getFullName(),
-                user.getEmail(),
-                user.getRole(),
-                user.isActive() ? "Active" : "Inactive",
-                "Actions"
-            };
-            tableModel.addRow(row);
-        }
+        loadRows(userService::getAllUsers, null);
     }
     
     private void filterTable() {
         String search = searchField.getText().toLowerCase();
-        tableModel.setRowCount(0);
-        List<User> users = userService.getAllUsers();
-        
-        for (User user : users) {
-            if (user.getUsername().toLowerCase().contains(search) ||
-                user.getFullName().toLowerCase().contains(search) ||
-                user.getEmail().toLowerCase().contains(search)) {
-                Object[] row = {
-                    user.getUserId(),
-                    user.getUsername(),
-                    user.getFullName(),
-                    user.getEmail(),
-                    user.getRole(),
-                    user.isActive() ? "Active" : "Inactive",
-                    "Actions"
-                };
-                tableModel.addRow(row);
-            }
-        }
+        loadRows(userService::getAllUsers, search);
+    }
+    
+    public boolean cancelLoading() {
+        return TableLoader.cancel(loader);
+    }
+    
+    private void loadRows(Supplier<List<User>> source, String search) {
+        TableLoader.cancel(loader);
+        loader = new TableLoader<>(tableModel, statusLabel, source,
+            user -> search == null || matches(user, search)).start();
+    }
+    
+    private boolean matches(User user, String search) {
+        return user.getUsername().toLowerCase().contains(search) ||
+            user.getFullName().toLowerCase().contains(search) ||
+            user.getEmail().toLowerCase().contains(search);
     }
     
     private void showAddUserDialog() {
@@ -201,13 +191,12 @@ public class UserManagementPanel extends JPanel {
                     (String) roleCombo.getSelectedItem()
                 );
                 
-                emailService.sendAccountCreatedEmail(user, password);
-                
-                JOptionPane.showMessageDialog(dialog, 
-                    "User created successfully!\nEmail notification sent.",
-                    "Success", JOptionPane.INFORMATION_MESSAGE);
                 dialog.dispose();
                 refresh();
+                new EmailWorker(() -> emailService.sendAccountCreatedEmail(user, password), sent ->
+                    JOptionPane.showMessageDialog(this, "User created successfully!\n"
+                        + (sent ? "Email notification sent." : "The email notification could not be sent."),
+                        "Success", JOptionPane.INFORMATION_MESSAGE)).start();
             } catch (Exception ex) {
                 JOptionPane.showMessageDialog(dialog, 
                     "Error: " + ex.getMessage(),
@@ -267,7 +256,7 @@ public class UserManagementPanel extends JPanel {
             
             JOptionPane.showMessageDialog(dialog, "User updated successfully!");
             dialog.dispose();
-            refresh();
+            tableModel.updateRow(user);
         });
         buttonPanel.add(saveButton);
         
@@ -372,9 +361,9 @@ public class UserManagementPanel extends JPanel {
                     String newPass = userService.resetPassword(userId);
                     User user = userService.findById(userId);
                     if (user != null && newPass != null) {
-                        emailService.sendPasswordResetEmail(user, newPass);
-                        JOptionPane.showMessageDialog(panel, 
-                            "Password reset to: " + newPass + "\nEmail notification sent.");
+                        new EmailWorker(() -> emailService.sendPasswordResetEmail(user, newPass), sent ->
+                            JOptionPane.showMessageDialog(panel, "Password reset to: " + newPass + "\n"
+                                + (sent ? "Email notification sent." : "The email notification could not be sent."))).start();
                     }
                 }
             });
@@ -386,7 +375,7 @@ public class UserManagementPanel extends JPanel {
         @Override
         public Component getTableCellEditorComponent(JTable table, Object value,
                 boolean isSelected, int row, int column) {
-            userId = (String) table.getValueAt(row, 0);
+            userId = tableModel.getRow(row).getUserId();
             panel.setBackground(Color.WHITE);
             return panel;
         }
@@ -0,0 +1,65 @@
+package crs.model;
+
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+public class AcademicStanding {
+    
+    private long gradePointTenths;
+    private int gradedCredits;
+    private int failedCount;
+    private final Map<StudentCourse, Integer> appliedCredits = new IdentityHashMap<>();
+    
+    public void add(StudentCourse sc) {
+        apply(sc, 1);
+    }
+    
+    public void remove(StudentCourse sc) {
+        apply(sc, -1);
+    }
+    
+    public AcademicStanding copy() {
+        AcademicStanding copy = new AcademicStanding();
+        copy.gradePointTenths = gradePointTenths;
+        copy.gradedCredits = gradedCredits;
+        copy.failedCount = failedCount;
+        copy.appliedCredits.putAll(appliedCredits);
+        return copy;
+    }
+    
+    private void apply(StudentCourse sc, int sign) {
+        if (sc.isFailed()) {
+            failedCount += sign;
+        }
+        
+        String grade = sc.getGrade();
+        if (grade != null && !grade.isEmpty()) {
+            int credits;
+            if (sign > 0) {
+                credits = sc.getCourse().getCredits();
+                appliedCredits.put(sc, credits);
+            } else {
+                Integer applied = appliedCredits.remove(sc);
+                credits = applied != null ? applied : sc.getCourse().getCredits();
+            }
+            gradePointTenths += sign * Math.round(sc.getGradePoint() * 10) * credits;
+            gradedCredits += sign * credits;
+        }
+    }
+    
+    public double getCGPA() {
+        return gradedCredits > 0 ? gradePointTenths / 10.0 / gradedCredits : 0.0;
+    }
+    
+    public int getGradedCredits() { return gradedCredits; }
+    
+    public int getFailedCount() { return failedCount; }
+    
+    public boolean isEligibleToProgress() {
+        return isEligible(getCGPA(), failedCount);
+    }
+    
+    public static boolean isEligible(double cgpa, int failedCount) {
+        return cgpa >= 2.0 && failedCount <= 3;
+    }
+}
@@ -0,0 +1,54 @@
+package crs.model;
+
+public final class EligibilityStatus {
+    
+    private final String studentId;
+    private final String fullName;
+    private final String major;
+    private final double cgpa;
+    private final int failedCoursesCount;
+    private final boolean eligible;
+    
+    public EligibilityStatus(String studentId, String fullName, String major,
+                             double cgpa, int failedCoursesCount, boolean eligible) {
+        this.studentId = studentId;
+        this.fullName = fullName;
+        this.major = major;
+        this.cgpa = cgpa;
+        this.failedCoursesCount = failedCoursesCount;
+        this.eligible = eligible;
+    }
+    
+    public static EligibilityStatus of(Student student) {
+        return new EligibilityStatus(
+            student.getStudentId(),
+            student.getFullName(),
+            student.getMajor(),
+            student.calculateCGPA(),
+            student.getFailedCoursesCount(),
+            student.isEligibleToProgress()
+        );
+    }
+    
+    public String getStudentId() { return studentId; }
+    
+    public String getFullName() { return fullName; }
+    
+    public String getMajor() { return major; }
+    
+    public double getCgpa() { return cgpa; }
+    
+    public int getFailedCoursesCount() { return failedCoursesCount; }
+    
+    public boolean isEligible() { return eligible; }
+    
+    public String getStatusLabel() {
+        return eligible ? "Eligible" : "Not Eligible";
+    }
+    
+    @Override
+    public String toString() {
+        return String.format("%s - %s (CGPA %.2f, %d failed, %s)",
+            studentId, fullName, cgpa, failedCoursesCount, getStatusLabel());
+    }
+}
@@ -0,0 +1,51 @@
+package crs.model;
+
+public final class GradeRecord {
+    
+    private final String studentId;
+    private final String courseId;
+    private final String semester;
+    private final int year;
+    private final Double examScore;
+    private final Double assignmentScore;
+    private final String grade;
+    
+    public GradeRecord(String studentId, String courseId, String semester, int year,
+                       Double examScore, Double assignmentScore, String grade) {
+        this.studentId = studentId;
+        this.courseId = courseId;
+        this.semester = semester;
+        this.year = year;
+        this.examScore = examScore;
+        this.assignmentScore = assignmentScore;
+        this.grade = grade;
+    }
+    
+    public String getStudentId() { return studentId; }
+    
+    public String getCourseId() { return courseId; }
+    
+    public String getSemester() { return semester; }
+    
+    public int getYear() { return year; }
+    
+    public Double getExamScore() { return examScore; }
+    
+    public Double getAssignmentScore() { return assignmentScore; }
+    
+    public String getGrade() { return grade; }
+    
+    public boolean hasGrade() {
+        return grade != null && !grade.isEmpty();
+    }
+    
+    public String getEnrolmentKey() {
+        return studentId + "|" + courseId + "|" + semester + "|" + year;
+    }
+    
+    @Override
+    public String toString() {
+        return String.format("%s - %s %s %d (Grade: %s)",
+            studentId, courseId, semester, year, hasGrade() ? grade : "N/A");
+    }
+}
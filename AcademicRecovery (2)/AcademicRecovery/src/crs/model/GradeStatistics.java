@@ -0,0 +1,73 @@
+package crs.model;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+public final class GradeStatistics {
+    
+    public static final double CGPA_BUCKET_WIDTH = 0.5;
+    public static final List<String> GRADES = List.of("A+", "A", "A-", "B+", "B", "B-", "C+", "C", "C-", "D+", "D", "F");
+    
+    private static final String OTHER_GRADE = "?";
+    
+    private final int enrolmentCount;
+    private final int gradedCount;
+    private final Map<String, Integer> gradeCounts;
+    private final Map<String, Integer> failuresByCourse;
+    private final int[] cgpaHistogram;
+    private final int gradedStudents;
+    private final int ineligibleStudents;
+    
+    public GradeStatistics(int enrolmentCount, int gradedCount, Map<String, Integer> gradeCounts,
+                           Map<String, Integer> failuresByCourse, int[] cgpaHistogram,
+                           int gradedStudents, int ineligibleStudents) {
+        this.enrolmentCount = enrolmentCount;
+        this.gradedCount = gradedCount;
+        this.gradeCounts = Collections.unmodifiableMap(gradeCounts);
+        this.failuresByCourse = Collections.unmodifiableMap(failuresByCourse);
+        this.cgpaHistogram = cgpaHistogram.clone();
+        this.gradedStudents = gradedStudents;
+        this.ineligibleStudents = ineligibleStudents;
+    }
+    
+    public static int cgpaBucket(double cgpa) {
+        return Math.min((int) (cgpa / CGPA_BUCKET_WIDTH), (int) (4.0 / CGPA_BUCKET_WIDTH) - 1);
+    }
+    
+    public static int gradeIndex(String grade) {
+        if (grade == null || grade.isEmpty()) {
+            return -1;
+        }
+        for (int index = 0; index < GRADES.size(); index++) {
+            if (GRADES.get(index).equalsIgnoreCase(grade)) {
+                return index;
+            }
+        }
+        return GRADES.size();
+    }
+    
+    public static String gradeLabel(int index) {
+        return index < GRADES.size() ? GRADES.get(index) : OTHER_GRADE;
+    }
+    
+    public int getEnrolmentCount() { return enrolmentCount; }
+    
+    public int getGradedCount() { return gradedCount; }
+    
+    public Map<String, Integer> getGradeCounts() { return gradeCounts; }
+    
+    public Map<String, Integer> getFailuresByCourse() { return failuresByCourse; }
+    
+    public int[] getCgpaHistogram() { return cgpaHistogram.clone(); }
+    
+    public int getGradedStudents() { return gradedStudents; }
+    
+    public int getIneligibleStudents() { return ineligibleStudents; }
+    
+    @Override
+    public String toString() {
+        return String.format("%d enrolments (%d graded), %d graded students, %d ineligible",
+            enrolmentCount, gradedCount, gradedStudents, ineligibleStudents);
+    }
+}
@@ -0,0 +1,311 @@
+package crs.model;
+
+import crs.util.RecordCodec;
+import crs.util.RecordReader;
+import crs.util.RecordWriter;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+public final class ModelCodecs {
+    
+    public static final RecordCodec<Student> STUDENT = new StudentCodec();
+    public static final RecordCodec<Course> COURSE = new CourseCodec();
+    public static final RecordCodec<StudentCourse> STUDENT_COURSE = new StudentCourseCodec();
+    public static final RecordCodec<RecoveryPlan> RECOVERY_PLAN = new RecoveryPlanCodec();
+    public static final RecordCodec<User> USER = new UserCodec();
+    public static final RecordCodec<LoginLog> LOGIN_LOG = new LoginLogCodec();
+    public static final RecordCodec<OutboundEmail> OUTBOUND_EMAIL = new OutboundEmailCodec();
+    
+    private ModelCodecs() {}
+    
+    private static class StudentCodec implements RecordCodec<Student> {
+        @Override
+        public int getVersion() { return 1; }
+        
+        @Override
+        public void write(RecordWriter out, Student student) {
+            out.writeString(student.getStudentId());
+            out.writeString(student.getFirstName());
+            out.writeString(student.getLastName());
+            out.writeString(student.getEmail());
+            out.writeSymbol(student.getMajor());
+            out.writeSymbol(student.getYear());
+            out.writeSymbol(student.getProgram());
+            out.writeBoolean(student.isEnrolled());
+        }
+        
+        @Override
+        public Student read(RecordReader in, int version) throws IOException {
+            Student student = new Student();
+            student.setStudentId(in.readString());
+            student.setFirstName(in.readString());
+            student.setLastName(in.readString());
+            student.setEmail(in.readString());
+            student.setMajor(in.readSymbol());
+            student.setYear(in.readSymbol());
+            student.setProgram(in.readSymbol());
+            student.setEnrolled(in.readBoolean());
+            return student;
+        }
+    }
+    
+    private static class CourseCodec implements RecordCodec<Course> {
+        @Override
+        public int getVersion() { return 1; }
+        
+        @Override
+        public void write(RecordWriter out, Course course) {
+            out.writeString(course.getCourseId());
+            out.writeString(course.getCourseName());
+            out.writeInt(course.getCredits());
+            out.writeSymbol(course.getSemester());
+            out.writeSymbol(course.getInstructor());
+            out.writeInt(course.getExamWeight());
+            out.writeInt(course.getAssignmentWeight());
+            out.writeString(course.getDescription());
+        }
+        
+        @Override
+        public Course read(RecordReader in, int version) throws IOException {
+            Course course = new Course();
+            course.setCourseId(in.readString());
+            course.setCourseName(in.readString());
+            course.setCredits(in.readInt());
+            course.setSemester(in.readSymbol());
+            course.setInstructor(in.readSymbol());
+            course.setExamWeight(in.readInt());
+            course.setAssignmentWeight(in.readInt());
+            course.setDescription(in.readString());
+            return course;
+        }
+    }
+    
+    private static class StudentCourseCodec implements RecordCodec<StudentCourse> {
+        @Override
+        public int getVersion() { return 1; }
+        
+        @Override
+        public void write(RecordWriter out, StudentCourse sc) {
+            out.writeString(sc.getStudentId());
+            out.writeSymbol(sc.getCourseId());
+            out.writeSymbol(sc.getSemester());
+            out.writeInt(sc.getYear());
+            out.writeSymbol(sc.getGrade());
+            out.writeDouble(sc.getExamScore());
+            out.writeDouble(sc.getAssignmentScore());
+            out.writeInt(sc.getAttemptNumber());
+            out.writeSymbol(sc.getStatus());
+        }
+        
+        @Override
+        public StudentCourse read(RecordReader in, int version) throws IOException {
+            StudentCourse sc = new StudentCourse();
+            sc.setStudentId(in.readString());
+            sc.setCourseId(in.readSymbol());
+            sc.setSemester(in.readSymbol());
+            sc.setYear(in.readInt());
+            sc.setGrade(in.readSymbol());
+            sc.setExamScore(in.readDouble());
+            sc.setAssignmentScore(in.readDouble());
+            sc.setAttemptNumber(in.readInt());
+            sc.setStatus(in.readSymbol());
+            return sc;
+        }
+    }
+    
+    private static class RecoveryPlanCodec implements RecordCodec<RecoveryPlan> {
+        @Override
+        public int getVersion() { return 1; }
+        
+        @Override
+        public void write(RecordWriter out, RecoveryPlan plan) {
+            out.writeString(plan.getPlanId());
+            out.writeString(plan.getStudentId());
+            out.writeSymbol(plan.getCourseId());
+            out.writeString(plan.getRecommendation());
+            out.writeDate(plan.getStartDate());
+            out.writeDate(plan.getEndDate());
+            out.writeSymbol(plan.getStatus());
+            out.writeSymbol(plan.getCreatedBy());
+            out.writeDate(plan.getCreatedAt());
+            out.writeString(plan.getNotes());
+            
+            List<Milestone> milestones = plan.getMilestones();
+            out.writeVarInt(milestones.size());
+            for (Milestone milestone : milestones) {
+                out.writeString(milestone.getMilestoneId());
+                out.writeSymbol(milestone.getStudyWeek());
+                out.writeString(milestone.getTask());
+                out.writeString(milestone.getDescription());
+                out.writeDate(milestone.getDueDate());
+                out.writeSymbol(milestone.getStatus());
+                out.writeDouble(milestone.getGrade());
+                out.writeString(milestone.getFeedback());
+                out.writeDate(milestone.getCompletedDate());
+            }
+        }
+        
+        @Override
+        public RecoveryPlan read(RecordReader in, int version) throws IOException {
+            RecoveryPlan plan = new RecoveryPlan();
+            plan.setPlanId(in.readString());
+            plan.setStudentId(in.readString());
+            plan.setCourseId(in.readSymbol());
+            plan.setRecommendation(in.readString());
+            plan.setStartDate(in.readDate());
+            plan.setEndDate(in.readDate());
+            plan.setStatus(in.readSymbol());
+            plan.setCreatedBy(in.readSymbol());
+            plan.setCreatedAt(in.readDate());
+            plan.setNotes(in.readString());
+            
+            int count = in.readVarInt();
+            List<Milestone> milestones = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                Milestone milestone = new Milestone();
+                milestone.setMilestoneId(in.readString());
+                milestone.setPlanId(plan.getPlanId());
+                milestone.setStudyWeek(in.readSymbol());
+                milestone.setTask(in.readString());
+                milestone.setDescription(in.readString());
+                milestone.setDueDate(in.readDate());
+                milestone.setStatus(in.readSymbol());
+                milestone.setGrade(in.readDouble());
+                milestone.setFeedback(in.readString());
+                milestone.setCompletedDate(in.readDate());
+                milestones.add(milestone);
+            }
+            plan.setMilestones(milestones);
+            return plan;
+        }
+    }
+    
+    private static class UserCodec implements RecordCodec<User> {
+        private static final int ACADEMIC_OFFICER = 1;
+        private static final int COURSE_ADMINISTRATOR = 2;
+        
+        @Override
+        public int getVersion() { return 1; }
+        
+        @Override
+        public void write(RecordWriter out, User user) {
+            if (user instanceof AcademicOfficer) {
+                out.writeVarInt(ACADEMIC_OFFICER);
+            } else if (user instanceof CourseAdministrator) {
+                out.writeVarInt(COURSE_ADMINISTRATOR);
+            } else {
+                throw new IllegalArgumentException("Unsupported user type: " + user.getClass().getName());
+            }
+            out.writeString(user.userId);
+            out.writeString(user.username);
+            out.writeString(user.password);
+            out.writeString(user.email);
+            out.writeString(user.fullName);
+            out.writeBoolean(user.isActive);
+            out.writeDateTime(user.createdAt);
+            out.writeDateTime(user.lastLogin);
+            out.writeDateTime(user.lastLogout);
+            
+            if (user instanceof AcademicOfficer) {
+                AcademicOfficer officer = (AcademicOfficer) user;
+                out.writeSymbol(officer.getDepartment());
+                out.writeString(officer.getOfficeNumber());
+            } else {
+                out.writeSymbol(((CourseAdministrator) user).getAssignedProgram());
+            }
+        }
+        
+        @Override
+        public User read(RecordReader in, int version) throws IOException {
+            int type = in.readVarInt();
+            User user;
+            if (type == ACADEMIC_OFFICER) {
+                user = new AcademicOfficer();
+            } else if (type == COURSE_ADMINISTRATOR) {
+                user = new CourseAdministrator();
+            } else {
+                throw new IOException("Unknown user type " + type);
+            }
+            user.userId = in.readString();
+            user.username = in.readString();
+            user.password = in.readString();
+            user.email = in.readString();
+            user.fullName = in.readString();
+            user.isActive = in.readBoolean();
+            user.createdAt = in.readDateTime();
+            user.lastLogin = in.readDateTime();
+            user.lastLogout = in.readDateTime();
+            
+            if (user instanceof AcademicOfficer) {
+                AcademicOfficer officer = (AcademicOfficer) user;
+                officer.setDepartment(in.readSymbol());
+                officer.setOfficeNumber(in.readString());
+            } else {
+                ((CourseAdministrator) user).setAssignedProgram(in.readSymbol());
+            }
+            return user;
+        }
+    }
+    
+    private static class LoginLogCodec implements RecordCodec<LoginLog> {
+        @Override
+        public int getVersion() { return 1; }
+        
+        @Override
+        public void write(RecordWriter out, LoginLog log) {
+            out.writeString(log.getLogId());
+            out.writeSymbol(log.getUserId());
+            out.writeSymbol(log.getUsername());
+            out.writeSymbol(log.getAction());
+            out.writeDateTime(log.getTimestamp());
+            out.writeSymbol(log.getIpAddress());
+            out.writeBoolean(log.isSuccess());
+        }
+        
+        @Override
+        public LoginLog read(RecordReader in, int version) throws IOException {
+            LoginLog log = new LoginLog();
+            log.setLogId(in.readString());
+            log.setUserId(in.readSymbol());
+            log.setUsername(in.readSymbol());
+            log.setAction(in.readSymbol());
+            log.setTimestamp(in.readDateTime());
+            log.setIpAddress(in.readSymbol());
+            log.setSuccess(in.readBoolean());
+            return log;
+        }
+    }
+    
+    private static class OutboundEmailCodec implements RecordCodec<OutboundEmail> {
+        @Override
+        public int getVersion() { return 1; }
+        
+        @Override
+        public void write(RecordWriter out, OutboundEmail email) {
+            out.writeString(email.getMessageId());
+            out.writeString(email.getRecipient());
+            out.writeSymbol(email.getSubject());
+            out.writeString(email.getBody());
+            out.writeVarInt(email.getAttempts());
+            out.writeDateTime(email.getCreatedAt());
+            out.writeDateTime(email.getNextAttempt());
+            out.writeString(email.getLastError());
+        }
+        
+        @Override
+        public OutboundEmail read(RecordReader in, int version) throws IOException {
+            OutboundEmail email = new OutboundEmail();
+            email.setMessageId(in.readString());
+            email.setRecipient(in.readString());
+            email.setSubject(in.readSymbol());
+            email.setBody(in.readString());
+            email.setAttempts(in.readVarInt());
+            email.setCreatedAt(in.readDateTime());
+            email.setNextAttempt(in.readDateTime());
+            email.setLastError(in.readString());
+            return email;
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package crs.model;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+
+public class OutboundEmail implements Serializable {
+    private static final long serialVersionUID = 1L;
+    
+    private String messageId;
+    private String recipient;
+    private String subject;
+    private String body;
+    private int attempts;
+    private LocalDateTime createdAt;
+    private LocalDateTime nextAttempt;
+    private String lastError;
+    
+    public OutboundEmail() {
+        this.createdAt = LocalDateTime.now();
+        this.nextAttempt = createdAt;
+    }
+    
+    public OutboundEmail(String messageId, String recipient, String subject, String body) {
+        this();
+        this.messageId = messageId;
+        this.recipient = recipient;
+        this.subject = subject;
+        this.body = body;
+    }
+    
+    public String getMessageId() { return messageId; }
+    public void setMessageId(String messageId) { this.messageId = messageId; }
+    
+    public String getRecipient() { return recipient; }
+    public void setRecipient(String recipient) { this.recipient = recipient; }
+    
+    public String getSubject() { return subject; }
+    public void setSubject(String subject) { this.subject = subject; }
+    
+    public String getBody() { return body; }
+    public void setBody(String body) { this.body = body; }
+    
+    public int getAttempts() { return attempts; }
+    public void setAttempts(int attempts) { this.attempts = attempts; }
+    
+    public LocalDateTime getCreatedAt() { return createdAt; }
+    public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
+    
+    public LocalDateTime getNextAttempt() { return nextAttempt; }
+    public void setNextAttempt(LocalDateTime nextAttempt) { this.nextAttempt = nextAttempt; }
+    
+    public String getLastError() { return lastError; }
+    public void setLastError(String lastError) { this.lastError = lastError; }
+    
+    @Override
+    public String toString() {
+        return String.format("%s to %s: %s (attempts: %d)", messageId, recipient, subject, attempts);
+    }
+}
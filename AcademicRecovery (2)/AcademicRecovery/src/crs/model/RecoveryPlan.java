@@ -2,8 +2,8 @@ package crs.model;
 
 import java.io.Serializable;
 import java.time.LocalDate;
-import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 public class RecoveryPlan implements Serializable {
     private static final long serialVersionUID = 1L;
@@ -21,7 +21,7 @@ public class RecoveryPlan implements Serializable {
     private String notes;
     
     public RecoveryPlan() {
-        this.milestones = new ArrayList<>();
+        this.milestones = new CopyOnWriteArrayList<>();
         this.status = "Active";
         this.createdAt = LocalDate.now();
     }
@@ -55,7 +55,7 @@ public class RecoveryPlan implements Serializable {
     public void setStatus(String status) { this.status = status; }
     
     public List<Milestone> getMilestones() { return milestones; }
-    public void setMilestones(List<Milestone> milestones) { this.milestones = milestones; }
+    public void setMilestones(List<Milestone> milestones) { this.milestones = new CopyOnWriteArrayList<>(milestones); }
     
     public String getCreatedBy() { return createdBy; }
     public void setCreatedBy(String createdBy) { this.createdBy = createdBy; }
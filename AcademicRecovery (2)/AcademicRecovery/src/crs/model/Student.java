@@ -1,8 +1,12 @@
 package crs.model;
 
+import java.io.IOException;
+import java.io.ObjectInputStream;
 import java.io.Serializable;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 public class Student implements Serializable {
     private static final long serialVersionUID = 1L;
@@ -15,10 +19,11 @@ public class Student implements Serializable {
     private String year;
     private String program;
     private boolean isEnrolled;
-    private List<StudentCourse> courses;
+    private transient List<StudentCourse> courses;
+    private transient volatile AcademicStanding standing;
     
     public Student() {
-        this.courses = new ArrayList<>();
+        this.courses = new CopyOnWriteArrayList<>();
         this.isEnrolled = true;
     }
     
@@ -59,39 +64,61 @@ public class Student implements Serializable {
     public boolean isEnrolled() { return isEnrolled; }
     public void setEnrolled(boolean enrolled) { isEnrolled = enrolled; }
     
-    public List<StudentCourse> getCourses() { return courses; }
-    public void setCourses(List<StudentCourse> courses) { this.courses = courses; }
+    public List<StudentCourse> getCourses() { return Collections.unmodifiableList(courses); }
+    public synchronized void setCourses(List<StudentCourse> courses) {
+        this.courses = new CopyOnWriteArrayList<>(courses);
+        this.standing = null;
+    }
     
-    public void addCourse(StudentCourse course) {
+    public synchronized void addCourse(StudentCourse course) {
         this.courses.add(course);
+        AcademicStanding current = standing;
+        if (current != null) {
+            AcademicStanding next = current.copy();
+            next.add(course);
+            standing = next;
+        }
     }
     
-    public double calculateCGPA() {
-        if (courses.isEmpty()) return 0.0;
-        
-        double totalGradePoints = 0;
-        int totalCredits = 0;
-        
-        for (StudentCourse sc : courses) {
-            if (sc.getGrade() != null && !sc.getGrade().isEmpty()) {
-                double gradePoint = getGradePoint(sc.getGrade());
-                int credits = sc.getCourse().getCredits();
-                totalGradePoints += gradePoint * credits;
-                totalCredits += credits;
+    public synchronized void invalidateStanding() {
+        this.standing = null;
+    }
+    
+    public synchronized void updateCourseGrade(StudentCourse course, String grade) {
+        AcademicStanding next = getStanding().copy();
+        next.remove(course);
+        course.setGrade(grade);
+        next.add(course);
+        standing = next;
+    }
+    
+    private AcademicStanding getStanding() {
+        AcademicStanding current = standing;
+        return current != null ? current : buildStanding();
+    }
+    
+    private synchronized AcademicStanding buildStanding() {
+        AcademicStanding current = standing;
+        if (current == null) {
+            current = new AcademicStanding();
+            for (StudentCourse sc : courses) {
+                current.add(sc);
             }
+            standing = current;
         }
-        
-        return totalCredits > 0 ? totalGradePoints / totalCredits : 0.0;
+        return current;
+    }
+    
+    public double calculateCGPA() {
+        return getStanding().getCGPA();
+    }
+    
+    public int getGradedCredits() {
+        return getStanding().getGradedCredits();
     }
     
     public int getFailedCoursesCount() {
-        int count = 0;
-        for (StudentCourse sc : courses) {
-            if (sc.isFailed()) {
-                count++;
-            }
-        }
-        return count;
+        return getStanding().getFailedCount();
     }
     
     public List<StudentCourse> getFailedCourses() {
@@ -105,24 +132,12 @@ public class Student implements Serializable {
     }
     
     public boolean isEligibleToProgress() {
-        return calculateCGPA() >= 2.0 && getFailedCoursesCount() <= 3;
+        return getStanding().isEligibleToProgress();
     }
     
-    private double getGradePoint(String grade) {
-        switch (grade.toUpperCase()) {
-            case "A": case "A+": return 4.0;
-            case "A-": return 3.7;
-            case "B+": return 3.3;
-            case "B": return 3.0;
-            case "B-": return 2.7;
-            case "C+": return 2.3;
-            case "C": return 2.0;
-            case "C-": return 1.7;
-            case "D+": return 1.3;
-            case "D": return 1.0;
-            case "F": return 0.0;
-            default: return 0.0;
-        }
+    private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+        in.defaultReadObject();
+        courses = new CopyOnWriteArrayList<>();
     }
     
     @Override
@@ -1,12 +1,15 @@
 package crs.model;
 
+import java.io.IOException;
+import java.io.ObjectInputStream;
 import java.io.Serializable;
 
 public class StudentCourse implements Serializable {
     private static final long serialVersionUID = 1L;
     
     private String studentId;
-    private Course course;
+    private String courseId;
+    private transient Course course;
     private String semester;
     private int year;
     private String grade;
@@ -23,6 +26,7 @@ public class StudentCourse implements Serializable {
     public StudentCourse(String studentId, Course course, String semester, int year) {
         this();
         this.studentId = studentId;
+        this.courseId = course.getCourseId();
         this.course = course;
         this.semester = semester;
         this.year = year;
@@ -31,8 +35,14 @@ public class StudentCourse implements Serializable {
     public String getStudentId() { return studentId; }
     public void setStudentId(String studentId) { this.studentId = studentId; }
     
+    public String getCourseId() { return courseId; }
+    void setCourseId(String courseId) { this.courseId = courseId; }
+    
     public Course getCourse() { return course; }
-    public void setCourse(Course course) { this.course = course; }
+    public void setCourse(Course course) {
+        this.course = course;
+        this.courseId = course.getCourseId();
+    }
     
     public String getSemester() { return semester; }
     public void setSemester(String semester) { this.semester = semester; }
@@ -58,6 +68,10 @@ public class StudentCourse implements Serializable {
     public String getStatus() { return status; }
     public void setStatus(String status) { this.status = status; }
     
+    public String getEnrolmentKey() {
+        return studentId + "|" + courseId + "|" + semester + "|" + year;
+    }
+    
     public boolean isFailed() {
         return grade != null && grade.equalsIgnoreCase("F");
     }
@@ -114,9 +128,33 @@ public class StudentCourse implements Serializable {
         }
     }
     
+    private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+        ObjectInputStream.GetField fields = in.readFields();
+        studentId = (String) fields.get("studentId", null);
+        courseId = (String) fields.get("courseId", null);
+        semester = (String) fields.get("semester", null);
+        year = fields.get("year", 0);
+        grade = (String) fields.get("grade", null);
+        examScore = fields.get("examScore", 0.0);
+        assignmentScore = fields.get("assignmentScore", 0.0);
+        attemptNumber = fields.get("attemptNumber", 1);
+        status = (String) fields.get("status", null);
+        
+        if (courseId == null) {
+            try {
+                course = (Course) fields.get("course", null);
+            } catch (IllegalArgumentException e) {
+                course = null;
+            }
+            if (course != null) {
+                courseId = course.getCourseId();
+            }
+        }
+    }
+    
     @Override
     public String toString() {
         return String.format("%s - %s (Grade: %s)", 
-            course.getCourseId(), course.getCourseName(), grade != null ? grade : "N/A");
+            courseId, course != null ? course.getCourseName() : courseId, grade != null ? grade : "N/A");
     }
 }
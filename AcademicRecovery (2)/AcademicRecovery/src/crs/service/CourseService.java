@@ -1,128 +1,181 @@
 package crs.service;
 
 import crs.model.Course;
-import crs.util.FileManager;
+import crs.model.ModelCodecs;
+import crs.util.CsvImporter;
+import crs.util.ImportReport;
+import crs.util.KeyIndex;
+import crs.util.ReadWriteGuard;
+import crs.util.SearchIndex;
+import crs.util.SnapshotList;
+import crs.util.StripedLock;
+import crs.util.ValidationUtil;
 
-import java.io.*;
 import java.util.*;
 
 public class CourseService {
     
     private static final String COURSES_FILE = "courses.dat";
     
-    private List<Course> courses;
+    private final Repository<Course> courseStore = Repositories.create(COURSES_FILE, "courses", Course::getCourseId,
+        ModelCodecs.COURSE, Map.of("semester", Course::getSemester));
     
-    private static CourseService instance;
+    private final KeyIndex<Course> courseIndex = new KeyIndex<>("courses.id", Course::getCourseId);
+    private final SearchIndex<Course> courseSearch = new SearchIndex<>("courses.text", Course::getCourseId,
+        c -> new String[] {c.getCourseId(), c.getCourseName(), c.getInstructor()});
+    
+    private final CsvImporter<Course> courseImporter =
+        new CsvImporter<>(7, CourseService::parseCourse, Course::getCourseId);
+    
+    private final ReadWriteGuard guard = new ReadWriteGuard();
+    private final StripedLock courseLocks = new StripedLock(16);
+    
+    private final SnapshotList<Course> courses = new SnapshotList<>();
     
     private CourseService() {
         loadCourses();
+        courseStore.setSource(this::getAllCourses);
+    }
+    
+    private static class Holder {
+        static final CourseService INSTANCE = new CourseService();
     }
     
     public static CourseService getInstance() {
-        if (instance == null) {
-            instance = new CourseService();
-        }
-        return instance;
+        return Holder.INSTANCE;
     }
     
     private void loadCourses() {
-        courses = FileManager.loadFromBinaryFile(COURSES_FILE);
-        if (courses == null) {
-            courses = new ArrayList<>();
-        }
+        List<Course> loaded = courseStore.load();
+        guard.write(() -> {
+            courses.reset(loaded);
+            courseIndex.rebuild(loaded);
+            courseSearch.rebuild(loaded);
+        });
     }
     
     public void saveCourses() {
-        FileManager.saveToBinaryFile(COURSES_FILE, courses);
-    }
-    
-    public void importCoursesFromCSV(String filePath) {
-        try (BufferedReader reader = new BufferedReader(new FileReader(filePath))) {
-            String line;
-            boolean firstLine = true;
-            
-            while ((line = reader.readLine()) != null) {
-                if (firstLine) {
-                    firstLine = false;
-                    continue;
-                }
-                
-                String[] parts = line.split(",");
-                if (parts.length >= 7) {
-                    Course course = new Course(
-                        parts[0].trim(),
-                        parts[1].trim(),
-                        Integer.parseInt(parts[2].trim()),
-                        parts[3].trim(),
-                        parts[4].trim(),
-                        Integer.parseInt(parts[5].trim()),
-                        Integer.parseInt(parts[6].trim())
-                    );
-                    
-                    if (findById(course.getCourseId()) == null) {
-                        courses.add(course);
-                    }
+        courseStore.checkpoint();
+    }
+    
+    public ImportReport importCoursesFromCSV(String filePath) {
+        return courseImporter.importFile(filePath, this::exists, imported -> courseLocks.runAll(() -> {
+            List<Course> added = guard.write(() -> {
+                List<Course> fresh = new ArrayList<>(imported.size());
+                for (Course course : imported) {
+                    if (courseIndex.containsKey(course.getCourseId())) continue;
+                    courseIndex.put(course);
+                    courseSearch.put(course);
+                    fresh.add(course);
                 }
-            }
-            saveCourses();
-        } catch (IOException | NumberFormatException e) {
-            System.err.println("Error importing courses from CSV: " + e.getMessage());
+                courses.addAll(fresh);
+                return fresh;
+            });
+            courseStore.putAll(added);
+        }));
+    }
+    
+    private boolean exists(String courseId) {
+        return guard.read(() -> courseIndex.containsKey(courseId));
+    }
+    
+    private static Course parseCourse(String[] fields) {
+        String courseId = CsvImporter.required(fields, 0, "Course ID");
+        if (!ValidationUtil.isValidId(courseId)) {
+            throw new IllegalArgumentException("invalid course ID '" + courseId + "'");
+        }
+        int credits = CsvImporter.parseInt(fields, 2, "Credits");
+        if (!ValidationUtil.isValidCredits(credits)) {
+            throw new IllegalArgumentException("credits must be between 1 and 6");
+        }
+        int examWeight = CsvImporter.parseInt(fields, 5, "Exam weight");
+        int assignmentWeight = CsvImporter.parseInt(fields, 6, "Assignment weight");
+        if (!ValidationUtil.isValidScore(examWeight) || !ValidationUtil.isValidScore(assignmentWeight)) {
+            throw new IllegalArgumentException("weights must be between 0 and 100");
         }
+        return new Course(
+            courseId,
+            CsvImporter.required(fields, 1, "Course name"),
+            credits,
+            CsvImporter.field(fields, 3),
+            CsvImporter.field(fields, 4),
+            examWeight,
+            assignmentWeight
+        );
     }
     
     public Course addCourse(Course course) {
-        if (findById(course.getCourseId()) != null) {
-            throw new IllegalArgumentException("Course ID already exists");
-        }
-        courses.add(course);
-        saveCourses();
-        return course;
+        return courseLocks.call(course.getCourseId(), () -> {
+            guard.write(() -> {
+                if (courseIndex.containsKey(course.getCourseId())) {
+                    throw new IllegalArgumentException("Course ID already exists");
+                }
+                courses.add(course);
+                courseIndex.put(course);
+                courseSearch.put(course);
+            });
+            courseStore.put(course);
+            return course;
+        });
     }
     
     public void updateCourse(Course course) {
-        for (int i = 0; i < courses.size(); i++) {
-            if (courses.get(i).getCourseId().equals(course.getCourseId())) {
-                courses.set(i, course);
-                saveCourses();
-                return;
+        courseLocks.run(course.getCourseId(), () -> {
+            boolean replaced = guard.write(() -> {
+                Course existing = courseIndex.get(course.getCourseId());
+                if (existing == null || !courses.replace(existing, course)) return false;
+                courseIndex.put(course);
+                courseSearch.put(course);
+                return true;
+            });
+            if (replaced) {
+                courseStore.put(course);
+                StudentService.getInstance().refreshCourse(course);
             }
-        }
+        });
     }
     
     public void deleteCourse(String courseId) {
-        courses.removeIf(c -> c.getCourseId().equals(courseId));
-        saveCourses();
+        courseLocks.run(courseId, () -> {
+            boolean removed = guard.write(() -> {
+                if (!courses.removeIf(c -> c.getCourseId().equals(courseId))) return false;
+                courseIndex.removeKey(courseId);
+                courseSearch.remove(courseId);
+                return true;
+            });
+            if (removed) {
+                courseStore.remove(courseId);
+            }
+        });
     }
     
     public Course findById(String courseId) {
-        for (Course course : courses) {
-            if (course.getCourseId().equals(courseId)) {
-                return course;
-            }
-        }
-        return null;
+        return guard.read(() -> courseIndex.get(courseId));
+    }
+    
+    public long getDataVersion() {
+        return courseStore.getVersion();
+    }
+    
+    public List<String> getIndexStatistics() {
+        return guard.read(() -> Arrays.asList(courseIndex.toString(), courseSearch.toString()));
     }
     
     public List<Course> getAllCourses() {
-        return new ArrayList<>(courses);
+        return courses.snapshot();
     }
     
     public List<Course> searchCourses(String keyword) {
-        List<Course> results = new ArrayList<>();
-        String lower = keyword.toLowerCase();
-        for (Course course : courses) {
-            if (course.getCourseId().toLowerCase().contains(lower) ||
-                course.getCourseName().toLowerCase().contains(lower) ||
-                course.getInstructor().toLowerCase().contains(lower)) {
-                results.add(course);
-            }
-        }
-        return results;
+        return courseSearch.search(keyword);
+    }
+    
+    public List<Course> searchCourses(String keyword, int limit) {
+        return courseSearch.search(keyword, limit);
     }
     
     public List<Course> getCoursesBySemester(String semester) {
         List<Course> results = new ArrayList<>();
-        for (Course course : courses) {
+        for (Course course : getAllCourses()) {
             if (course.getSemester().equalsIgnoreCase(semester)) {
                 results.add(course);
             }
@@ -132,7 +185,7 @@ public class CourseService {
     
     public List<Course> getCoursesByInstructor(String instructor) {
         List<Course> results = new ArrayList<>();
-        for (Course course : courses) {
+        for (Course course : getAllCourses()) {
             if (course.getInstructor().equalsIgnoreCase(instructor)) {
                 results.add(course);
             }
@@ -142,7 +195,7 @@ public class CourseService {
     
     public List<String> getAllSemesters() {
         Set<String> semesters = new HashSet<>();
-        for (Course course : courses) {
+        for (Course course : getAllCourses()) {
             semesters.add(course.getSemester());
         }
         return new ArrayList<>(semesters);
@@ -150,7 +203,7 @@ public class CourseService {
     
     public List<String> getAllInstructors() {
         Set<String> instructors = new HashSet<>();
-        for (Course course : courses) {
+        for (Course course : getAllCourses()) {
             instructors.add(course.getInstructor());
         }
         return new ArrayList<>(instructors);
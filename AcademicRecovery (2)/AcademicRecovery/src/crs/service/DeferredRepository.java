@@ -0,0 +1,174 @@
+package crs.service;
+
+import crs.util.PersistenceScheduler;
+import crs.util.RecordCodec;
+import crs.util.RecordReader;
+import crs.util.RecordWriter;
+
+import java.io.Flushable;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+class DeferredRepository<T> implements Repository<T>, Flushable {
+    
+    private static final int BULK_THRESHOLD = 1000;
+    
+    private final Repository<T> delegate;
+    private final String name;
+    private final Function<T, String> keyFunction;
+    private final RecordCodec<T> codec;
+    private final PersistenceScheduler scheduler;
+    
+    private final Object flushLock = new Object();
+    private Map<String, T> dirty = new LinkedHashMap<>();
+    private Set<String> removed = new LinkedHashSet<>();
+    private final AtomicLong version = new AtomicLong();
+    
+    DeferredRepository(Repository<T> delegate, String name, Function<T, String> keyFunction, RecordCodec<T> codec,
+                       PersistenceScheduler scheduler) {
+        this.delegate = delegate;
+        this.name = name;
+        this.keyFunction = keyFunction;
+        this.codec = codec;
+        this.scheduler = scheduler;
+    }
+    
+    @Override
+    public List<T> load() {
+        flush();
+        return delegate.load();
+    }
+    
+    @Override
+    public void setSource(Supplier<List<T>> source) {
+        delegate.setSource(source);
+    }
+    
+    @Override
+    public void put(T item) {
+        T copy = copyOf(item);
+        String key = keyFunction.apply(copy);
+        synchronized (this) {
+            removed.remove(key);
+            dirty.remove(key);
+            dirty.put(key, copy);
+        }
+        version.incrementAndGet();
+        scheduler.markDirty(this);
+    }
+    
+    @Override
+    public void putAll(Collection<? extends T> items) {
+        if (items.isEmpty()) return;
+        if (items.size() >= BULK_THRESHOLD) {
+            synchronized (flushLock) {
+                flush();
+                delegate.putAll(items);
+            }
+            return;
+        }
+        for (T item : items) {
+            put(item);
+        }
+    }
+    
+    @Override
+    public void remove(String key) {
+        synchronized (this) {
+            dirty.remove(key);
+            removed.add(key);
+        }
+        version.incrementAndGet();
+        scheduler.markDirty(this);
+    }
+    
+    @Override
+    public void removeAll(Collection<String> keys) {
+        if (keys.isEmpty()) return;
+        synchronized (this) {
+            for (String key : keys) {
+                dirty.remove(key);
+                removed.add(key);
+            }
+        }
+        version.incrementAndGet();
+        scheduler.markDirty(this);
+    }
+    
+    @Override
+    public long getVersion() {
+        return delegate.getVersion() + version.get();
+    }
+    
+    @Override
+    public void checkpoint() {
+        synchronized (flushLock) {
+            flush();
+            delegate.checkpoint();
+        }
+    }
+    
+    @Override
+    public void flush() {
+        synchronized (flushLock) {
+            Map<String, T> items;
+            Set<String> keys;
+            synchronized (this) {
+                if (dirty.isEmpty() && removed.isEmpty()) return;
+                items = dirty;
+                keys = removed;
+                dirty = new LinkedHashMap<>();
+                removed = new LinkedHashSet<>();
+            }
+            
+            try {
+                delegate.removeAll(keys);
+                delegate.putAll(new ArrayList<>(items.values()));
+            } catch (RuntimeException e) {
+                restage(items, keys);
+                scheduler.markDirty(this);
+                throw e;
+            }
+        }
+    }
+    
+    private synchronized void restage(Map<String, T> items, Set<String> keys) {
+        for (String key : keys) {
+            if (!dirty.containsKey(key)) {
+                removed.add(key);
+            }
+        }
+        Map<String, T> merged = new LinkedHashMap<>();
+        for (Map.Entry<String, T> entry : items.entrySet()) {
+            if (!dirty.containsKey(entry.getKey()) && !removed.contains(entry.getKey())) {
+                merged.put(entry.getKey(), entry.getValue());
+            }
+        }
+        merged.putAll(dirty);
+        dirty = merged;
+    }
+    
+    @Override
+    public String toString() {
+        return name;
+    }
+    
+    private T copyOf(T item) {
+        RecordWriter out = new RecordWriter();
+        codec.write(out, item);
+        try {
+            return codec.read(new RecordReader(out.buffer(), 0, out.size()), codec.getVersion());
+        } catch (IOException e) {
+            throw new IllegalStateException("Cannot stage " + name + " record " + keyFunction.apply(item), e);
+        }
+    }
+}
@@ -2,160 +2,389 @@ package crs.service;
 
 import crs.model.*;
 import crs.util.FileManager;
+import crs.util.ReverseLineReader;
+import crs.util.Template;
+import crs.util.TextLogWriter;
 
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
 import java.util.*;
+import java.util.concurrent.atomic.AtomicLong;
 
 public class EmailService {
     
     private static final String EMAIL_LOG_FILE = "email_log.txt";
+    private static final String MAIL_QUEUE_FILE = "mail_queue.dat";
+    private static final String TEMPLATE_DIR = "templates/";
+    private static final String SUBJECT_PREFIX = "Subject:";
+    private static final String SIGNATURE = "Best regards,\nCourse Recovery System";
+    private static final DateTimeFormatter LOG_TIMESTAMP = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+    private static final String TO_FIELD = "] To: ";
+    private static final String SUBJECT_FIELD = " | Subject: ";
+    private static final String STATUS_FIELD = " | Status: ";
+    private static final String MESSAGE_ID_PREFIX = "M" + Long.toString(System.currentTimeMillis(), 36).toUpperCase() + "-";
+    private static final AtomicLong MESSAGE_SEQUENCE = new AtomicLong();
     
-    private static EmailService instance;
+    private final TextLogWriter emailLog = new TextLogWriter(EMAIL_LOG_FILE);
+    private final MailQueue mailQueue;
+    
+    private volatile Templates templates;
     
-    private String smtpHost;
-    private String smtpPort;
-    private String smtpUsername;
-    private String smtpPassword;
     private boolean configured;
     
     private EmailService() {
         this.configured = false;
+        reloadTemplates();
+        MailTransport transport = MailTransport.LOG_ONLY;
+        String host = System.getProperty("crs.smtp.host");
+        if (host != null && !host.trim().isEmpty()) {
+            transport = createSmtpTransport(host, System.getProperty("crs.smtp.port", "25"),
+                System.getProperty("crs.smtp.username"), System.getProperty("crs.smtp.password"));
+        }
+        this.mailQueue = new MailQueue(MAIL_QUEUE_FILE, transport, this::logDelivery,
+            Integer.getInteger("crs.mail.workers", 4), Integer.getInteger("crs.mail.maxAttempts", 5));
+    }
+    
+    private static class Holder {
+        static final EmailService INSTANCE = new EmailService();
     }
     
     public static EmailService getInstance() {
-        if (instance == null) {
-            instance = new EmailService();
-        }
-        return instance;
+        return Holder.INSTANCE;
     }
     
     public void configure(String host, String port, String username, String password) {
-        this.smtpHost = host;
-        this.smtpPort = port;
-        this.smtpUsername = username;
-        this.smtpPassword = password;
+        MailTransport previous = mailQueue.getTransport();
+        mailQueue.setTransport(createSmtpTransport(host, port, username, password));
+        if (previous instanceof SmtpMailTransport) {
+            ((SmtpMailTransport) previous).close();
+        }
+    }
+    
+    private SmtpMailTransport createSmtpTransport(String host, String port, String username, String password) {
+        int portNumber;
+        try {
+            portNumber = port == null || port.trim().isEmpty() ? 25 : Integer.parseInt(port.trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid SMTP port: " + port);
+        }
+        SmtpMailTransport transport = new SmtpMailTransport(host, portNumber, username, password,
+            System.getProperty("crs.mail.from"), Integer.getInteger("crs.mail.workers", 4) + 1);
         this.configured = true;
+        return transport;
     }
     
     public boolean isConfigured() {
         return configured;
     }
     
+    public void setTransport(MailTransport transport) {
+        mailQueue.setTransport(transport);
+    }
+    
+    public MailStatistics getMailStatistics() {
+        MailTransport transport = mailQueue.getTransport();
+        if (transport instanceof SmtpMailTransport) {
+            return ((SmtpMailTransport) transport).getStatistics();
+        }
+        return MailStatistics.NONE;
+    }
+    
     public boolean sendEmail(String to, String subject, String body) {
-        logEmail(to, subject, body, true);
-        return true;
+        return deliver(new OutboundEmail(generateMessageId(), to, subject, body));
+    }
+    
+    public MailDispatch queueEmails(List<OutboundEmail> messages, MailDispatch.Listener listener) {
+        return mailQueue.enqueue(messages, listener);
+    }
+    
+    public int getQueuedEmailCount() {
+        return mailQueue.size();
+    }
+    
+    private boolean deliver(OutboundEmail message) {
+        boolean success;
+        try (MailTransport.Connection connection = mailQueue.getTransport().open()) {
+            connection.send(message);
+            success = true;
+        } catch (IOException | RuntimeException e) {
+            System.err.println("Error sending email to " + message.getRecipient() + ": " + e.getMessage());
+            success = false;
+        }
+        logDelivery(message, success);
+        return success;
     }
     
     public boolean sendAccountCreatedEmail(User user, String tempPassword) {
-        String subject = "Welcome to Course Recovery System - Account Created";
-        StringBuilder body = new StringBuilder();
-        body.append("Dear ").append(user.getFullName()).append(",\n\n");
-        body.append("Your account has been created in the Course Recovery System.\n\n");
-        body.append("Username: ").append(user.getUsername()).append("\n");
-        body.append("Temporary Password: ").append(tempPassword).append("\n\n");
-        body.append("Please login and change your password immediately.\n\n");
-        body.append("Best regards,\n");
-        body.append("Course Recovery System");
-        
-        return sendEmail(user.getEmail(), subject, body.toString());
+        return deliver(templates.accountCreated.render(user.getEmail(), user.getFullName(), user.getUsername(), tempPassword));
     }
     
     public boolean sendPasswordResetEmail(User user, String newPassword) {
-        String subject = "Course Recovery System - Password Reset";
-        StringBuilder body = new StringBuilder();
-        body.append("Dear ").append(user.getFullName()).append(",\n\n");
-        body.append("Your password has been reset.\n\n");
-        body.append("New Password: ").append(newPassword).append("\n\n");
-        body.append("Please login and change your password immediately.\n\n");
-        body.append("Best regards,\n");
-        body.append("Course Recovery System");
-        
-        return sendEmail(user.getEmail(), subject, body.toString());
+        return deliver(templates.passwordReset.render(user.getEmail(), user.getFullName(), newPassword));
     }
     
     public boolean sendRecoveryPlanEmail(Student student, RecoveryPlan plan, Course course) {
-        String subject = "Course Recovery Plan Created - " + course.getCourseName();
-        StringBuilder body = new StringBuilder();
-        body.append("Dear ").append(student.getFullName()).append(",\n\n");
-        body.append("A recovery plan has been created for you for the following course:\n\n");
-        body.append("Course: ").append(course.getCourseName()).append(" (").append(course.getCourseId()).append(")\n");
-        body.append("Start Date: ").append(plan.getStartDate()).append("\n");
-        body.append("End Date: ").append(plan.getEndDate()).append("\n\n");
-        body.append("Recommendation:\n").append(plan.getRecommendation()).append("\n\n");
-        
+        Templates current = templates;
+        String milestones = "";
         if (!plan.getMilestones().isEmpty()) {
-            body.append("Milestones:\n");
-            body.append("-".repeat(40)).append("\n");
+            StringBuilder block = new StringBuilder();
+            block.append("Milestones:\n");
+            block.append("-".repeat(40)).append("\n");
             for (Milestone m : plan.getMilestones()) {
-                body.append(m.getStudyWeek()).append(": ").append(m.getTask()).append("\n");
+                current.milestoneLine.render(block, m.getStudyWeek(), m.getTask());
             }
-            body.append("-".repeat(40)).append("\n");
+            block.append("-".repeat(40)).append("\n");
+            milestones = block.toString();
         }
         
-        body.append("\nPlease contact your academic advisor if you have any questions.\n\n");
-        body.append("Best regards,\n");
-        body.append("Course Recovery System");
-        
-        return sendEmail(student.getEmail(), subject, body.toString());
+        return deliver(current.recoveryPlan.render(student.getEmail(), student.getFullName(), course.getCourseName(),
+            course.getCourseId(), plan.getStartDate(), plan.getEndDate(), plan.getRecommendation(), milestones));
     }
     
     public boolean sendAcademicReportEmail(Student student, String reportContent) {
-        String subject = "Academic Performance Report - " + student.getFullName();
-        StringBuilder body = new StringBuilder();
-        body.append("Dear ").append(student.getFullName()).append(",\n\n");
-        body.append("Please find your academic performance report below:\n\n");
-        body.append(reportContent);
-        body.append("\nIf you have any questions, please contact the Academic Office.\n\n");
-        body.append("Best regards,\n");
-        body.append("Course Recovery System");
-        
-        return sendEmail(student.getEmail(), subject, body.toString());
-    }
-    
-    public boolean sendMilestoneReminderEmail(Student student, RecoveryPlan plan, Milestone milestone) {
-        String subject = "Milestone Reminder - " + milestone.getTask();
-        StringBuilder body = new StringBuilder();
-        body.append("Dear ").append(student.getFullName()).append(",\n\n");
-        body.append("This is a reminder for your upcoming milestone:\n\n");
-        body.append("Recovery Plan: ").append(plan.getPlanId()).append("\n");
-        body.append("Milestone: ").append(milestone.getTask()).append("\n");
-        body.append("Due Date: ").append(milestone.getDueDate()).append("\n\n");
-        body.append("Please ensure you complete this task on time.\n\n");
-        body.append("Best regards,\n");
-        body.append("Course Recovery System");
-        
-        return sendEmail(student.getEmail(), subject, body.toString());
+        return deliver(templates.academicReport.render(student.getEmail(), student.getFullName(), reportContent));
+    }
+    
+    public OutboundEmail createMilestoneDigest(Student student, List<Milestone> milestones, LocalDate today) {
+        Templates current = templates;
+        StringBuilder block = new StringBuilder();
+        appendDigestSection(block, current.digestLine, "Overdue:", milestones, today, true);
+        appendDigestSection(block, current.digestLine, "Due soon:", milestones, today, false);
+        return current.milestoneDigest.render(student.getEmail(), student.getFullName(), milestones.size(), today, block);
+    }
+    
+    private void appendDigestSection(StringBuilder block, Template digestLine, String heading,
+                                     List<Milestone> milestones, LocalDate today, boolean overdue) {
+        int start = block.length();
+        for (Milestone m : milestones) {
+            if (m.getDueDate().isBefore(today) == overdue) {
+                digestLine.render(block, m.getDueDate(), m.getTask(), m.getStudyWeek(), m.getPlanId());
+            }
+        }
+        if (block.length() > start) {
+            block.insert(start, heading + "\n").append("\n");
+        }
     }
     
     public boolean sendEligibilityNotificationEmail(Student student, boolean isEligible, double cgpa) {
-        String subject = "Academic Eligibility Status Update";
-        StringBuilder body = new StringBuilder();
-        body.append("Dear ").append(student.getFullName()).append(",\n\n");
-        
+        return deliver(createEligibilityNotification(student, isEligible, cgpa));
+    }
+    
+    public OutboundEmail createEligibilityNotification(Student student, boolean isEligible, double cgpa) {
+        Templates current = templates;
         if (isEligible) {
-            body.append("Congratulations! You are eligible to progress to the next level of study.\n\n");
-        } else {
-            body.append("We regret to inform you that you are currently not eligible to progress.\n\n");
-            body.append("Your current CGPA: ").append(String.format("%.2f", cgpa)).append("\n");
-            body.append("Minimum required CGPA: 2.0\n\n");
-            body.append("Please contact the Academic Office to discuss your options.\n\n");
+            return current.eligible.render(student.getEmail(), student.getFullName());
+        }
+        return current.ineligible.render(student.getEmail(), student.getFullName(), String.format("%.2f", cgpa));
+    }
+    
+    public void reloadTemplates() {
+        templates = new Templates();
+    }
+    
+    private final class Templates {
+        final MessageTemplate accountCreated;
+        final MessageTemplate passwordReset;
+        final MessageTemplate recoveryPlan;
+        final Template milestoneLine;
+        final MessageTemplate academicReport;
+        final MessageTemplate milestoneDigest;
+        final Template digestLine;
+        final MessageTemplate eligible;
+        final MessageTemplate ineligible;
+        
+        Templates() {
+            accountCreated = loadTemplate("account_created",
+                "Welcome to Course Recovery System - Account Created",
+                "Dear {{name}},\n\n"
+                    + "Your account has been created in the Course Recovery System.\n\n"
+                    + "Username: {{username}}\n"
+                    + "Temporary Password: {{password}}\n\n"
+                    + "Please login and change your password immediately.\n\n"
+                    + SIGNATURE,
+                "name", "username", "password");
+            passwordReset = loadTemplate("password_reset",
+                "Course Recovery System - Password Reset",
+                "Dear {{name}},\n\n"
+                    + "Your password has been reset.\n\n"
+                    + "New Password: {{password}}\n\n"
+                    + "Please login and change your password immediately.\n\n"
+                    + SIGNATURE,
+                "name", "password");
+            recoveryPlan = loadTemplate("recovery_plan",
+                "Course Recovery Plan Created - {{courseName}}",
+                "Dear {{name}},\n\n"
+                    + "A recovery plan has been created for you for the following course:\n\n"
+                    + "Course: {{courseName}} ({{courseId}})\n"
+                    + "Start Date: {{startDate}}\n"
+                    + "End Date: {{endDate}}\n\n"
+                    + "Recommendation:\n{{recommendation}}\n\n"
+                    + "{{milestones}}"
+                    + "\nPlease contact your academic advisor if you have any questions.\n\n"
+                    + SIGNATURE,
+                "name", "courseName", "courseId", "startDate", "endDate", "recommendation", "milestones");
+            milestoneLine = Template.parse("{{week}}: {{task}}\n", "week", "task");
+            academicReport = loadTemplate("academic_report",
+                "Academic Performance Report - {{name}}",
+                "Dear {{name}},\n\n"
+                    + "Please find your academic performance report below:\n\n"
+                    + "{{report}}"
+                    + "\nIf you have any questions, please contact the Academic Office.\n\n"
+                    + SIGNATURE,
+                "name", "report");
+            milestoneDigest = loadTemplate("milestone_digest",
+                "Milestone Reminder - {{count}} due or overdue",
+                "Dear {{name}},\n\n"
+                    + "Here is a summary of your recovery plan milestones as of {{date}}:\n\n"
+                    + "{{milestones}}"
+                    + "Please ensure you complete these tasks on time.\n\n"
+                    + SIGNATURE,
+                "name", "count", "date", "milestones");
+            digestLine = Template.parse("  {{dueDate}}  {{task}} ({{week}}, Recovery Plan: {{planId}})\n",
+                "dueDate", "task", "week", "planId");
+            eligible = loadTemplate("eligibility_eligible",
+                "Academic Eligibility Status Update",
+                "Dear {{name}},\n\n"
+                    + "Congratulations! You are eligible to progress to the next level of study.\n\n"
+                    + SIGNATURE,
+                "name");
+            ineligible = loadTemplate("eligibility_ineligible",
+                "Academic Eligibility Status Update",
+                "Dear {{name}},\n\n"
+                    + "We regret to inform you that you are currently not eligible to progress.\n\n"
+                    + "Your current CGPA: {{cgpa}}\n"
+                    + "Minimum required CGPA: 2.0\n\n"
+                    + "Please contact the Academic Office to discuss your options.\n\n"
+                    + SIGNATURE,
+                "name", "cgpa");
+        }
+    }
+    
+    private MessageTemplate loadTemplate(String name, String subject, String body, String... parameters) {
+        MessageTemplate defaults = new MessageTemplate(Template.parse(subject, parameters), Template.parse(body, parameters));
+        File file = FileManager.getFile(TEMPLATE_DIR + name + ".txt");
+        if (!file.exists()) {
+            return defaults;
         }
         
-        body.append("Best regards,\n");
-        body.append("Course Recovery System");
+        try {
+            String source = new String(Files.readAllBytes(file.toPath()), StandardCharsets.UTF_8).replace("\r\n", "\n");
+            Template overrideSubject = defaults.subject;
+            if (source.startsWith(SUBJECT_PREFIX)) {
+                int lineEnd = source.indexOf('\n');
+                String subjectLine = lineEnd < 0 ? source : source.substring(0, lineEnd);
+                overrideSubject = Template.parse(subjectLine.substring(SUBJECT_PREFIX.length()).trim(), parameters);
+                source = lineEnd < 0 ? "" : source.substring(lineEnd + 1);
+                if (source.startsWith("\n")) {
+                    source = source.substring(1);
+                }
+            }
+            return new MessageTemplate(overrideSubject, Template.parse(source, parameters));
+        } catch (IOException | IllegalArgumentException e) {
+            System.err.println("Error loading email template " + file.getName() + ", using default: " + e.getMessage());
+            return defaults;
+        }
+    }
+    
+    private final class MessageTemplate {
+        final Template subject;
+        final Template body;
         
-        return sendEmail(student.getEmail(), subject, body.toString());
+        MessageTemplate(Template subject, Template body) {
+            this.subject = subject;
+            this.body = body;
+        }
+        
+        OutboundEmail render(String to, Object... values) {
+            return new OutboundEmail(generateMessageId(), to, subject.render(values), body.render(values));
+        }
+    }
+    
+    private void logDelivery(OutboundEmail message, boolean success) {
+        logEmail(message.getRecipient(), message.getSubject(), message.getBody(), success);
+    }
+    
+    private String generateMessageId() {
+        return MESSAGE_ID_PREFIX + MESSAGE_SEQUENCE.incrementAndGet();
     }
     
     private void logEmail(String to, String subject, String body, boolean success) {
-        String timestamp = LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss"));
+        String timestamp = LocalDateTime.now().format(LOG_TIMESTAMP);
         String logEntry = String.format("[%s] To: %s | Subject: %s | Status: %s",
             timestamp, to, subject, success ? "SENT" : "FAILED");
-        FileManager.appendToTextFile(EMAIL_LOG_FILE, logEntry);
+        emailLog.append(logEntry);
+    }
+    
+    public List<String> getEmailLogs(int offset, int limit) {
+        return getEmailLogs(null, null, null, null, offset, limit);
     }
     
-    public List<String> getEmailLogs() {
-        return FileManager.readFromTextFile(EMAIL_LOG_FILE);
+    public List<String> getEmailLogs(String recipient, String subjectContains, LocalDate from, LocalDate to,
+                                     int offset, int limit) {
+        if (offset < 0 || limit < 0) {
+            throw new IllegalArgumentException("Offset and limit must not be negative");
+        }
+        
+        boolean filtered = recipient != null || subjectContains != null || from != null || to != null;
+        String subjectNeedle = subjectContains != null ? subjectContains.toLowerCase() : null;
+        List<String> page = new ArrayList<>(Math.min(limit, 1024));
+        int skip = offset;
+        
+        emailLog.drain();
+        try (ReverseLineReader reader = new ReverseLineReader(EMAIL_LOG_FILE)) {
+            String line;
+            while (page.size() < limit && (line = reader.readLine()) != null) {
+                if (filtered) {
+                    int toStart = line.indexOf(TO_FIELD);
+                    int subjectStart = line.indexOf(SUBJECT_FIELD, toStart + 1);
+                    int statusStart = line.lastIndexOf(STATUS_FIELD);
+                    if (!line.startsWith("[") || toStart < 11 || subjectStart < 0 || statusStart < subjectStart) continue;
+                    
+                    if (from != null || to != null) {
+                        LocalDate date = parseLogDate(line);
+                        if (date == null) continue;
+                        if (from != null && date.isBefore(from)) break;
+                        if (to != null && date.isAfter(to)) continue;
+                    }
+                    if (recipient != null && !hasRecipient(line.substring(toStart + TO_FIELD.length(), subjectStart), recipient)) continue;
+                    if (subjectNeedle != null && !line.substring(subjectStart + SUBJECT_FIELD.length(), statusStart)
+                            .toLowerCase().contains(subjectNeedle)) continue;
+                }
+                
+                if (skip > 0) {
+                    skip--;
+                } else {
+                    page.add(line);
+                }
+            }
+        } catch (IOException e) {
+            System.err.println("Error reading email log: " + e.getMessage());
+        }
+        return page;
+    }
+    
+    private static boolean hasRecipient(String recipients, String recipient) {
+        String wanted = recipient.trim();
+        for (String address : recipients.split("[,;]")) {
+            if (address.trim().equalsIgnoreCase(wanted)) {
+                return true;
+            }
+        }
+        return false;
+    }
+    
+    private static LocalDate parseLogDate(String line) {
+        if (line.length() < 11 || line.charAt(0) != '[') return null;
+        try {
+            return LocalDate.parse(line.substring(1, 11));
+        } catch (DateTimeParseException e) {
+            return null;
+        }
     }
 }
@@ -0,0 +1,271 @@
+package crs.service;
+
+import crs.util.ConnectionPool;
+import crs.util.RecordCodec;
+import crs.util.RecordReader;
+import crs.util.RecordWriter;
+
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+class JdbcRepository<T> implements Repository<T> {
+    
+    private static final int BATCH_SIZE = 1000;
+    private static final String SEEDED_TABLE = "crs_seeded_tables";
+    
+    private final ConnectionPool pool;
+    private final String table;
+    private final Function<T, String> keyFunction;
+    private final RecordCodec<T> codec;
+    private final Map<String, Function<T, String>> indexedColumns;
+    private final Supplier<List<T>> seed;
+    
+    private final String selectSql;
+    private final String insertSql;
+    private final String deleteSql;
+    
+    private final AtomicLong sequence = new AtomicLong();
+    private final AtomicLong version = new AtomicLong();
+    private boolean schemaReady;
+    
+    JdbcRepository(ConnectionPool pool, String table, Function<T, String> keyFunction, RecordCodec<T> codec,
+                   Map<String, Function<T, String>> indexedColumns, Supplier<List<T>> seed) {
+        this.pool = pool;
+        this.table = table;
+        this.keyFunction = keyFunction;
+        this.codec = codec;
+        this.indexedColumns = new LinkedHashMap<>(indexedColumns);
+        this.seed = seed;
+        
+        StringBuilder columns = new StringBuilder("record_key, seq");
+        StringBuilder values = new StringBuilder("?, ?");
+        for (String column : this.indexedColumns.keySet()) {
+            columns.append(", ").append(column);
+            values.append(", ?");
+        }
+        columns.append(", record_version, data");
+        values.append(", ?, ?");
+        
+        this.selectSql = "SELECT seq, record_version, data FROM " + table + " ORDER BY seq";
+        this.insertSql = "INSERT INTO " + table + " (" + columns + ") VALUES (" + values + ")";
+        this.deleteSql = "DELETE FROM " + table + " WHERE record_key = ?";
+    }
+    
+    @Override
+    public synchronized List<T> load() {
+        try {
+            ensureSchema();
+            List<T> items = pool.execute(this::selectAll);
+            version.incrementAndGet();
+            if (seed != null && !pool.execute(this::isSeeded)) {
+                List<T> seeded = items.isEmpty() ? seed.get() : Collections.emptyList();
+                List<T> batch = latest(seeded);
+                pool.inTransaction(connection -> {
+                    write(connection, batch);
+                    markSeeded(connection);
+                    return null;
+                });
+                if (!seeded.isEmpty()) {
+                    items = seeded;
+                }
+            }
+            return items;
+        } catch (SQLException e) {
+            throw new IllegalStateException("Cannot load table " + table + ": " + e.getMessage(), e);
+        }
+    }
+    
+    @Override
+    public void setSource(Supplier<List<T>> source) {
+    }
+    
+    @Override
+    public void put(T item) {
+        putAll(Collections.singletonList(item));
+    }
+    
+    @Override
+    public void putAll(Collection<? extends T> items) {
+        if (items.isEmpty()) return;
+        version.incrementAndGet();
+        List<T> batch = latest(items);
+        try {
+            pool.inTransaction(connection -> {
+                write(connection, batch);
+                return null;
+            });
+        } catch (SQLException e) {
+            throw new IllegalStateException("Cannot write table " + table + ": " + e.getMessage(), e);
+        }
+    }
+    
+    @Override
+    public void remove(String key) {
+        version.incrementAndGet();
+        try {
+            pool.execute(connection -> {
+                try (PreparedStatement delete = connection.prepareStatement(deleteSql)) {
+                    delete.setString(1, key);
+                    return delete.executeUpdate();
+                }
+            });
+        } catch (SQLException e) {
+            throw new IllegalStateException("Cannot delete from table " + table + ": " + e.getMessage(), e);
+        }
+    }
+    
+    @Override
+    public void removeAll(Collection<String> keys) {
+        if (keys.isEmpty()) return;
+        version.incrementAndGet();
+        List<String> batch = new ArrayList<>(keys);
+        try {
+            pool.inTransaction(connection -> {
+                try (PreparedStatement delete = connection.prepareStatement(deleteSql)) {
+                    for (int start = 0; start < batch.size(); start += BATCH_SIZE) {
+                        for (String key : batch.subList(start, Math.min(batch.size(), start + BATCH_SIZE))) {
+                            delete.setString(1, key);
+                            delete.addBatch();
+                        }
+                        delete.executeBatch();
+                    }
+                }
+                return null;
+            });
+        } catch (SQLException e) {
+            throw new IllegalStateException("Cannot delete from table " + table + ": " + e.getMessage(), e);
+        }
+    }
+    
+    @Override
+    public long getVersion() {
+        return version.get();
+    }
+    
+    @Override
+    public void checkpoint() {
+    }
+    
+    private void ensureSchema() throws SQLException {
+        if (schemaReady) return;
+        
+        StringBuilder create = new StringBuilder("CREATE TABLE IF NOT EXISTS ").append(table)
+            .append(" (record_key VARCHAR(255) NOT NULL PRIMARY KEY, seq BIGINT NOT NULL");
+        for (String column : indexedColumns.keySet()) {
+            create.append(", ").append(column).append(" VARCHAR(255)");
+        }
+        create.append(", record_version INT NOT NULL, data BLOB NOT NULL)");
+        
+        pool.execute(connection -> {
+            try (Statement statement = connection.createStatement()) {
+                statement.executeUpdate("CREATE TABLE IF NOT EXISTS " + SEEDED_TABLE
+                    + " (table_name VARCHAR(255) NOT NULL PRIMARY KEY)");
+                statement.executeUpdate(create.toString());
+                statement.executeUpdate(createIndex("seq"));
+                for (String column : indexedColumns.keySet()) {
+                    statement.executeUpdate(createIndex(column));
+                }
+            }
+            return null;
+        });
+        schemaReady = true;
+    }
+    
+    private String createIndex(String column) {
+        return "CREATE INDEX IF NOT EXISTS " + table + "_" + column + "_idx ON " + table + " (" + column + ")";
+    }
+    
+    private boolean isSeeded(Connection connection) throws SQLException {
+        try (PreparedStatement select = connection.prepareStatement(
+                "SELECT table_name FROM " + SEEDED_TABLE + " WHERE table_name = ?")) {
+            select.setString(1, table);
+            try (ResultSet rows = select.executeQuery()) {
+                return rows.next();
+            }
+        }
+    }
+    
+    private void markSeeded(Connection connection) throws SQLException {
+        try (PreparedStatement insert = connection.prepareStatement(
+                "INSERT INTO " + SEEDED_TABLE + " (table_name) VALUES (?)")) {
+            insert.setString(1, table);
+            insert.executeUpdate();
+        }
+    }
+    
+    private List<T> latest(Collection<? extends T> items) {
+        Map<String, T> latest = new LinkedHashMap<>();
+        for (T item : items) {
+            String key = keyFunction.apply(item);
+            latest.remove(key);
+            latest.put(key, item);
+        }
+        return new ArrayList<>(latest.values());
+    }
+    
+    private void write(Connection connection, List<T> batch) throws SQLException {
+        try (PreparedStatement delete = connection.prepareStatement(deleteSql);
+             PreparedStatement insert = connection.prepareStatement(insertSql)) {
+            for (int start = 0; start < batch.size(); start += BATCH_SIZE) {
+                List<T> chunk = batch.subList(start, Math.min(batch.size(), start + BATCH_SIZE));
+                for (T item : chunk) {
+                    delete.setString(1, keyFunction.apply(item));
+                    delete.addBatch();
+                    bindInsert(insert, item);
+                    insert.addBatch();
+                }
+                delete.executeBatch();
+                insert.executeBatch();
+            }
+        }
+    }
+    
+    private List<T> selectAll(Connection connection) throws SQLException {
+        List<T> items = new ArrayList<>();
+        long maxSequence = 0;
+        try (PreparedStatement select = connection.prepareStatement(selectSql);
+             ResultSet rows = select.executeQuery()) {
+            while (rows.next()) {
+                maxSequence = Math.max(maxSequence, rows.getLong(1));
+                int recordVersion = rows.getInt(2);
+                if (recordVersion > codec.getVersion()) {
+                    throw new SQLException(table + " has unsupported record version " + recordVersion);
+                }
+                try {
+                    items.add(codec.read(new RecordReader(rows.getBytes(3)), recordVersion));
+                } catch (IOException e) {
+                    throw new SQLException("Corrupt record in " + table + ": " + e.getMessage(), e);
+                }
+            }
+        }
+        sequence.set(maxSequence);
+        return items;
+    }
+    
+    private void bindInsert(PreparedStatement insert, T item) throws SQLException {
+        RecordWriter writer = new RecordWriter();
+        codec.write(writer, item);
+        
+        int index = 1;
+        insert.setString(index++, keyFunction.apply(item));
+        insert.setLong(index++, sequence.incrementAndGet());
+        for (Function<T, String> column : indexedColumns.values()) {
+            insert.setString(index++, column.apply(item));
+        }
+        insert.setInt(index++, codec.getVersion());
+        insert.setBytes(index, writer.toByteArray());
+    }
+}
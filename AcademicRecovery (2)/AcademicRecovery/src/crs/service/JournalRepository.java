@@ -0,0 +1,59 @@
+package crs.service;
+
+import crs.util.JournalStore;
+import crs.util.RecordCodec;
+
+import java.io.Serializable;
+import java.util.Collection;
+import java.util.List;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+class JournalRepository<T extends Serializable> implements Repository<T> {
+    
+    private final JournalStore<T> store;
+    
+    JournalRepository(String snapshotFile, Function<T, String> keyFunction, RecordCodec<T> codec) {
+        this.store = new JournalStore<>(snapshotFile, keyFunction, codec);
+    }
+    
+    @Override
+    public List<T> load() {
+        return store.load();
+    }
+    
+    @Override
+    public void setSource(Supplier<List<T>> source) {
+        store.setSource(source);
+    }
+    
+    @Override
+    public void put(T item) {
+        store.put(item);
+    }
+    
+    @Override
+    public void putAll(Collection<? extends T> items) {
+        store.putAll(items);
+    }
+    
+    @Override
+    public void remove(String key) {
+        store.remove(key);
+    }
+    
+    @Override
+    public void removeAll(Collection<String> keys) {
+        store.removeAll(keys);
+    }
+    
+    @Override
+    public long getVersion() {
+        return store.getVersion();
+    }
+    
+    @Override
+    public void checkpoint() {
+        store.checkpoint();
+    }
+}
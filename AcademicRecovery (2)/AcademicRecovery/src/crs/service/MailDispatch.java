@@ -0,0 +1,72 @@
+package crs.service;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class MailDispatch {
+    
+    public interface Listener {
+        void onProgress(MailDispatch dispatch, boolean complete);
+    }
+    
+    private static final long PROGRESS_INTERVAL_NANOS = 100_000_000L;
+    
+    private final int total;
+    private final Listener listener;
+    private final AtomicInteger sent = new AtomicInteger();
+    private final AtomicInteger failed = new AtomicInteger();
+    private final AtomicBoolean completed = new AtomicBoolean();
+    private long lastReported;
+    
+    MailDispatch(int total, Listener listener) {
+        this.total = total;
+        this.listener = listener;
+    }
+    
+    public int getTotal() { return total; }
+    
+    public int getSent() { return sent.get(); }
+    
+    public int getFailed() { return failed.get(); }
+    
+    public boolean isDone() {
+        return sent.get() + failed.get() >= total;
+    }
+    
+    void recordSent() {
+        sent.incrementAndGet();
+        report();
+    }
+    
+    void recordFailed() {
+        failed.incrementAndGet();
+        report();
+    }
+    
+    void report() {
+        if (listener == null) return;
+        if (isDone()) {
+            if (completed.compareAndSet(false, true)) {
+                listener.onProgress(this, true);
+            }
+            return;
+        }
+        
+        boolean notify;
+        synchronized (this) {
+            long now = System.nanoTime();
+            notify = now - lastReported >= PROGRESS_INTERVAL_NANOS;
+            if (notify) {
+                lastReported = now;
+            }
+        }
+        if (notify && !completed.get()) {
+            listener.onProgress(this, false);
+        }
+    }
+    
+    @Override
+    public String toString() {
+        return String.format("%d/%d sent, %d failed", sent.get(), total, failed.get());
+    }
+}
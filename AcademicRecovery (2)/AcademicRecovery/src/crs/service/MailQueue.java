@@ -0,0 +1,234 @@
+package crs.service;
+
+import crs.model.ModelCodecs;
+import crs.model.OutboundEmail;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.DelayQueue;
+import java.util.concurrent.Delayed;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+class MailQueue {
+    
+    interface DeliveryLog {
+        void record(OutboundEmail message, boolean success);
+    }
+    
+    private static final int BATCH_SIZE = 50;
+    private static final long BASE_BACKOFF_MILLIS = 2000;
+    private static final long MAX_BACKOFF_MILLIS = 10 * 60 * 1000;
+    
+    private final Repository<OutboundEmail> store;
+    private final DeliveryLog deliveryLog;
+    private final int workerCount;
+    private final int maxAttempts;
+    
+    private final Map<String, OutboundEmail> pending = new ConcurrentHashMap<>();
+    private final Map<String, MailDispatch> dispatches = new ConcurrentHashMap<>();
+    private final DelayQueue<Scheduled> ready = new DelayQueue<>();
+    private final AtomicLong sequence = new AtomicLong();
+    private volatile MailTransport transport;
+    private boolean started;
+    
+    private static final class Scheduled implements Delayed {
+        final OutboundEmail message;
+        final long dueNanos;
+        final long order;
+        
+        Scheduled(OutboundEmail message, long order) {
+            this.message = message;
+            this.order = order;
+            LocalDateTime due = message.getNextAttempt();
+            long delayMillis = due != null ? Duration.between(LocalDateTime.now(), due).toMillis() : 0;
+            this.dueNanos = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(Math.max(0, delayMillis));
+        }
+        
+        @Override
+        public long getDelay(TimeUnit unit) {
+            return unit.convert(dueNanos - System.nanoTime(), TimeUnit.NANOSECONDS);
+        }
+        
+        @Override
+        public int compareTo(Delayed other) {
+            Scheduled that = (Scheduled) other;
+            int byDue = Long.compare(dueNanos, that.dueNanos);
+            return byDue != 0 ? byDue : Long.compare(order, that.order);
+        }
+    }
+    
+    MailQueue(String snapshotFile, MailTransport transport, DeliveryLog deliveryLog, int workerCount, int maxAttempts) {
+        this.store = Repositories.create(snapshotFile, "mail_queue", OutboundEmail::getMessageId,
+            ModelCodecs.OUTBOUND_EMAIL, Map.of());
+        this.transport = transport;
+        this.deliveryLog = deliveryLog;
+        this.workerCount = workerCount;
+        this.maxAttempts = maxAttempts;
+        
+        List<OutboundEmail> loaded = store.load();
+        for (OutboundEmail message : loaded) {
+            pending.put(message.getMessageId(), message);
+        }
+        store.setSource(() -> new ArrayList<>(pending.values()));
+        schedule(loaded);
+    }
+    
+    void setTransport(MailTransport transport) {
+        this.transport = transport;
+    }
+    
+    MailTransport getTransport() {
+        return transport;
+    }
+    
+    MailDispatch enqueue(List<OutboundEmail> messages, MailDispatch.Listener listener) {
+        MailDispatch dispatch = new MailDispatch(messages.size(), listener);
+        if (messages.isEmpty()) {
+            dispatch.report();
+            return dispatch;
+        }
+        
+        for (OutboundEmail message : messages) {
+            dispatches.put(message.getMessageId(), dispatch);
+            pending.put(message.getMessageId(), message);
+        }
+        store.putAll(messages);
+        schedule(messages);
+        return dispatch;
+    }
+    
+    int size() {
+        return pending.size();
+    }
+    
+    private void schedule(Collection<OutboundEmail> messages) {
+        if (messages.isEmpty()) return;
+        for (OutboundEmail message : messages) {
+            ready.add(new Scheduled(message, sequence.incrementAndGet()));
+        }
+        startWorkers();
+    }
+    
+    private synchronized void startWorkers() {
+        if (started) return;
+        started = true;
+        for (int i = 1; i <= workerCount; i++) {
+            Thread worker = new Thread(this::work, "mail-worker-" + i);
+            worker.setDaemon(true);
+            worker.start();
+        }
+    }
+    
+    private void work() {
+        MailTransport connectedTo = null;
+        MailTransport.Connection connection = null;
+        List<Scheduled> batch = new ArrayList<>(BATCH_SIZE);
+        try {
+            while (true) {
+                Scheduled first = ready.poll();
+                if (first == null) {
+                    connection = closeQuietly(connection);
+                    first = ready.take();
+                }
+                batch.add(first);
+                ready.drainTo(batch, BATCH_SIZE - 1);
+                
+                List<OutboundEmail> delivered = new ArrayList<>(batch.size());
+                List<OutboundEmail> failed = new ArrayList<>();
+                for (Scheduled scheduled : batch) {
+                    OutboundEmail message = scheduled.message;
+                    try {
+                        MailTransport current = transport;
+                        if (connection == null || connectedTo != current) {
+                            connection = closeQuietly(connection);
+                            connection = current.open();
+                            connectedTo = current;
+                        }
+                        connection.send(message);
+                        delivered.add(message);
+                    } catch (IOException | RuntimeException e) {
+                        connection = closeQuietly(connection);
+                        message.setLastError(e.getMessage());
+                        failed.add(message);
+                    }
+                }
+                complete(delivered, failed);
+                batch.clear();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            closeQuietly(connection);
+        }
+    }
+    
+    private void complete(List<OutboundEmail> delivered, List<OutboundEmail> failed) {
+        List<String> finished = new ArrayList<>(delivered.size() + failed.size());
+        List<OutboundEmail> retries = new ArrayList<>();
+        for (OutboundEmail message : delivered) {
+            finished.add(message.getMessageId());
+        }
+        for (OutboundEmail message : failed) {
+            message.setAttempts(message.getAttempts() + 1);
+            if (message.getAttempts() >= maxAttempts) {
+                finished.add(message.getMessageId());
+            } else {
+                message.setNextAttempt(LocalDateTime.now().plusNanos(
+                    TimeUnit.MILLISECONDS.toNanos(backoffMillis(message.getAttempts()))));
+                retries.add(message);
+            }
+        }
+        
+        for (String messageId : finished) {
+            pending.remove(messageId);
+        }
+        store.removeAll(finished);
+        store.putAll(retries);
+        for (OutboundEmail message : retries) {
+            ready.add(new Scheduled(message, sequence.incrementAndGet()));
+        }
+        
+        for (OutboundEmail message : delivered) {
+            finish(message, true);
+        }
+        for (OutboundEmail message : failed) {
+            if (message.getAttempts() >= maxAttempts) {
+                System.err.println("Giving up on email " + message + ": " + message.getLastError());
+                finish(message, false);
+            }
+        }
+    }
+    
+    private void finish(OutboundEmail message, boolean success) {
+        deliveryLog.record(message, success);
+        MailDispatch dispatch = dispatches.remove(message.getMessageId());
+        if (dispatch == null) return;
+        if (success) {
+            dispatch.recordSent();
+        } else {
+            dispatch.recordFailed();
+        }
+    }
+    
+    private static long backoffMillis(int attempts) {
+        long backoff = BASE_BACKOFF_MILLIS << Math.min(attempts - 1, 20);
+        return Math.min(backoff, MAX_BACKOFF_MILLIS);
+    }
+    
+    private static MailTransport.Connection closeQuietly(MailTransport.Connection connection) {
+        if (connection == null) return null;
+        try {
+            connection.close();
+        } catch (IOException | RuntimeException e) {
+            System.err.println("Error closing mail connection: " + e.getMessage());
+        }
+        return null;
+    }
+}
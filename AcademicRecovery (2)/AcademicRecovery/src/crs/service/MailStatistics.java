@@ -0,0 +1,52 @@
+package crs.service;
+
+public final class MailStatistics {
+    
+    public static final MailStatistics NONE = new MailStatistics(0, 0, 0, 0, 0, 0, 0);
+    
+    private final long sent;
+    private final long failed;
+    private final long recipients;
+    private final long connectionsOpened;
+    private final long connectionsReused;
+    private final long elapsedMillis;
+    private final long sendNanos;
+    
+    MailStatistics(long sent, long failed, long recipients, long connectionsOpened,
+                   long connectionsReused, long elapsedMillis, long sendNanos) {
+        this.sent = sent;
+        this.failed = failed;
+        this.recipients = recipients;
+        this.connectionsOpened = connectionsOpened;
+        this.connectionsReused = connectionsReused;
+        this.elapsedMillis = elapsedMillis;
+        this.sendNanos = sendNanos;
+    }
+    
+    public long getSent() { return sent; }
+    
+    public long getFailed() { return failed; }
+    
+    public long getRecipients() { return recipients; }
+    
+    public long getConnectionsOpened() { return connectionsOpened; }
+    
+    public long getConnectionsReused() { return connectionsReused; }
+    
+    public long getElapsedMillis() { return elapsedMillis; }
+    
+    public double getMessagesPerSecond() {
+        return elapsedMillis > 0 ? sent * 1000.0 / elapsedMillis : 0;
+    }
+    
+    public double getAverageSendMillis() {
+        long attempts = sent + failed;
+        return attempts > 0 ? sendNanos / 1e6 / attempts : 0;
+    }
+    
+    @Override
+    public String toString() {
+        return String.format("%d sent to %d recipients, %d failed, %.1f msg/s, %.1f ms/msg, %d connections opened, %d reused",
+            sent, recipients, failed, getMessagesPerSecond(), getAverageSendMillis(), connectionsOpened, connectionsReused);
+    }
+}
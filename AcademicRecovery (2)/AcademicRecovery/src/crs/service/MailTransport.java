@@ -0,0 +1,25 @@
+package crs.service;
+
+import crs.model.OutboundEmail;
+
+import java.io.Closeable;
+import java.io.IOException;
+
+public interface MailTransport {
+    
+    interface Connection extends Closeable {
+        void send(OutboundEmail message) throws IOException;
+    }
+    
+    Connection open() throws IOException;
+    
+    MailTransport LOG_ONLY = () -> new Connection() {
+        @Override
+        public void send(OutboundEmail message) {
+        }
+        
+        @Override
+        public void close() {
+        }
+    };
+}
@@ -9,7 +9,6 @@ import java.util.List;
 
 public class PDFService {
     
-    private static PDFService instance;
     private StudentService studentService;
     private CourseService courseService;
     
@@ -18,11 +17,12 @@ public class PDFService {
         courseService = CourseService.getInstance();
     }
     
+    private static class Holder {
+        static final PDFService INSTANCE = new PDFService();
+    }
+    
     public static PDFService getInstance() {
-        if (instance == null) {
-            instance = new PDFService();
-        }
-        return instance;
+        return Holder.INSTANCE;
     }
     
     public boolean exportAcademicReportToPDF(String studentId, String outputPath) {
@@ -1,39 +1,61 @@
 package crs.service;
 
 import crs.model.*;
-import crs.util.FileManager;
+import crs.util.DateIndex;
+import crs.util.KeyIndex;
+import crs.util.ReadWriteGuard;
+import crs.util.SnapshotList;
+import crs.util.StripedLock;
 
 import java.time.LocalDate;
 import java.util.*;
+import java.util.function.Predicate;
 
 public class RecoveryPlanService {
     
     private static final String RECOVERY_PLANS_FILE = "recovery_plans.dat";
     
-    private List<RecoveryPlan> recoveryPlans;
+    private final Repository<RecoveryPlan> planStore = Repositories.create(RECOVERY_PLANS_FILE, "recovery_plans",
+        RecoveryPlan::getPlanId, ModelCodecs.RECOVERY_PLAN,
+        Map.of("student_id", RecoveryPlan::getStudentId, "course_id", RecoveryPlan::getCourseId));
     
-    private static RecoveryPlanService instance;
+    private final KeyIndex<RecoveryPlan> planIndex = new KeyIndex<>("recovery_plans.id", RecoveryPlan::getPlanId);
+    private final DateIndex<Milestone> dueDateIndex = new DateIndex<>("milestones.dueDate", Milestone::getDueDate);
+    private final Map<String, List<Milestone>> indexedMilestones = new HashMap<>();
+    
+    private final ReadWriteGuard guard = new ReadWriteGuard();
+    private final StripedLock planLocks = new StripedLock(16);
+    
+    private final SnapshotList<RecoveryPlan> recoveryPlans = new SnapshotList<>();
     
     private RecoveryPlanService() {
         loadRecoveryPlans();
+        planStore.setSource(this::getAllRecoveryPlans);
+    }
+    
+    private static class Holder {
+        static final RecoveryPlanService INSTANCE = new RecoveryPlanService();
     }
     
     public static RecoveryPlanService getInstance() {
-        if (instance == null) {
-            instance = new RecoveryPlanService();
-        }
-        return instance;
+        return Holder.INSTANCE;
     }
     
     private void loadRecoveryPlans() {
-        recoveryPlans = FileManager.loadFromBinaryFile(RECOVERY_PLANS_FILE);
-        if (recoveryPlans == null) {
-            recoveryPlans = new ArrayList<>();
-        }
+        List<RecoveryPlan> loaded = planStore.load();
+        guard.write(() -> {
+            recoveryPlans.reset(loaded);
+            planIndex.rebuild(loaded);
+            dueDateIndex.clear();
+            indexedMilestones.clear();
+            for (RecoveryPlan plan : loaded) {
+                indexMilestones(plan);
+            }
+        });
     }
     
     public void saveRecoveryPlans() {
-        FileManager.saveToBinaryFile(RECOVERY_PLANS_FILE, recoveryPlans);
+        planStore.checkpoint();
     }
     
     public RecoveryPlan createRecoveryPlan(String studentId, String courseId, String recommendation,
@@ -47,42 +69,65 @@ public class RecoveryPlanService {
         plan.setCreatedBy(createdBy);
         plan.setStatus("Active");
         
-        recoveryPlans.add(plan);
-        saveRecoveryPlans();
+        planLocks.run(planId, () -> {
+            guard.write(() -> {
+                recoveryPlans.add(plan);
+                planIndex.put(plan);
+                indexMilestones(plan);
+            });
+            planStore.put(plan);
+        });
         return plan;
     }
     
     public void updateRecoveryPlan(RecoveryPlan plan) {
-        for (int i = 0; i < recoveryPlans.size(); i++) {
-            if (recoveryPlans.get(i).getPlanId().equals(plan.getPlanId())) {
-                recoveryPlans.set(i, plan);
-                saveRecoveryPlans();
-                return;
+        planLocks.run(plan.getPlanId(), () -> {
+            boolean replaced = guard.write(() -> {
+                RecoveryPlan existing = planIndex.get(plan.getPlanId());
+                if (existing == null || !recoveryPlans.replace(existing, plan)) return false;
+                planIndex.put(plan);
+                indexMilestones(plan);
+                return true;
+            });
+            if (replaced) {
+                planStore.put(plan);
             }
-        }
+        });
     }
     
     public void deleteRecoveryPlan(String planId) {
-        recoveryPlans.removeIf(p -> p.getPlanId().equals(planId));
-        saveRecoveryPlans();
+        planLocks.run(planId, () -> {
+            boolean removed = guard.write(() -> {
+                if (!recoveryPlans.removeIf(p -> p.getPlanId().equals(planId))) return false;
+                planIndex.removeKey(planId);
+                unindexMilestones(planId);
+                return true;
+            });
+            if (removed) {
+                planStore.remove(planId);
+            }
+        });
     }
     
     public RecoveryPlan findById(String planId) {
-        for (RecoveryPlan plan : recoveryPlans) {
-            if (plan.getPlanId().equals(planId)) {
-                return plan;
-            }
-        }
-        return null;
+        return guard.read(() -> planIndex.get(planId));
+    }
+    
+    public long getDataVersion() {
+        return planStore.getVersion();
+    }
+    
+    public List<String> getIndexStatistics() {
+        return guard.read(() -> Arrays.asList(planIndex.toString(), dueDateIndex.toString()));
     }
     
     public List<RecoveryPlan> getAllRecoveryPlans() {
-        return new ArrayList<>(recoveryPlans);
+        return recoveryPlans.snapshot();
     }
     
     public List<RecoveryPlan> getRecoveryPlansForStudent(String studentId) {
         List<RecoveryPlan> plans = new ArrayList<>();
-        for (RecoveryPlan plan : recoveryPlans) {
+        for (RecoveryPlan plan : getAllRecoveryPlans()) {
             if (plan.getStudentId().equals(studentId)) {
                 plans.add(plan);
             }
@@ -92,7 +137,7 @@ public class RecoveryPlanService {
     
     public List<RecoveryPlan> getRecoveryPlansForCourse(String courseId) {
         List<RecoveryPlan> plans = new ArrayList<>();
-        for (RecoveryPlan plan : recoveryPlans) {
+        for (RecoveryPlan plan : getAllRecoveryPlans()) {
             if (plan.getCourseId().equals(courseId)) {
                 plans.add(plan);
             }
@@ -102,7 +147,7 @@ public class RecoveryPlanService {
     
     public List<RecoveryPlan> getActivePlans() {
         List<RecoveryPlan> active = new ArrayList<>();
-        for (RecoveryPlan plan : recoveryPlans) {
+        for (RecoveryPlan plan : getAllRecoveryPlans()) {
             if ("Active".equals(plan.getStatus())) {
                 active.add(plan);
             }
@@ -110,47 +155,49 @@ public class RecoveryPlanService {
         return active;
     }
     
+    public List<Milestone> getOpenMilestonesDueBy(LocalDate date) {
+        return guard.read(() -> {
+            List<Milestone> due = dueDateIndex.onOrBefore(date);
+            due.removeIf(m -> "Completed".equals(m.getStatus()));
+            return due;
+        });
+    }
+    
     public Milestone addMilestone(String planId, String studyWeek, String task, 
                                    String description, LocalDate dueDate) {
-        RecoveryPlan plan = findById(planId);
-        if (plan != null) {
-            String milestoneId = generateMilestoneId();
-            Milestone milestone = new Milestone(milestoneId, planId, studyWeek, task);
-            milestone.setDescription(description);
-            milestone.setDueDate(dueDate);
-            
+        Milestone milestone = new Milestone(generateMilestoneId(), planId, studyWeek, task);
+        milestone.setDescription(description);
+        milestone.setDueDate(dueDate);
+        
+        boolean added = modifyPlan(planId, plan -> {
             plan.addMilestone(milestone);
-            saveRecoveryPlans();
-            return milestone;
-        }
-        return null;
+            return true;
+        });
+        return added ? milestone : null;
     }
     
     public void updateMilestone(String planId, Milestone milestone) {
-        RecoveryPlan plan = findById(planId);
-        if (plan != null) {
+        modifyPlan(planId, plan -> {
             List<Milestone> milestones = plan.getMilestones();
             for (int i = 0; i < milestones.size(); i++) {
                 if (milestones.get(i).getMilestoneId().equals(milestone.getMilestoneId())) {
                     milestones.set(i, milestone);
-                    saveRecoveryPlans();
-                    return;
+                    return true;
                 }
             }
-        }
+            return false;
+        });
     }
     
     public void removeMilestone(String planId, String milestoneId) {
-        RecoveryPlan plan = findById(planId);
-        if (plan != null) {
+        modifyPlan(planId, plan -> {
             plan.getMilestones().removeIf(m -> m.getMilestoneId().equals(milestoneId));
-            saveRecoveryPlans();
-        }
+            return true;
+        });
     }
     
     public void gradeMilestone(String planId, String milestoneId, double grade, String feedback) {
-        RecoveryPlan plan = findById(planId);
-        if (plan != null) {
+        modifyPlan(planId, plan -> {
             for (Milestone milestone : plan.getMilestones()) {
                 if (milestone.getMilestoneId().equals(milestoneId)) {
                     milestone.markCompleted(grade, feedback);
@@ -158,45 +205,81 @@ public class RecoveryPlanService {
                     if (plan.isCompleted()) {
                         plan.setStatus("Completed");
                     }
-                    
-                    saveRecoveryPlans();
-                    return;
+                    return true;
                 }
             }
-        }
+            return false;
+        });
     }
     
     public void updateProgress(String planId, String milestoneId, String status) {
-        RecoveryPlan plan = findById(planId);
-        if (plan != null) {
+        modifyPlan(planId, plan -> {
             for (Milestone milestone : plan.getMilestones()) {
                 if (milestone.getMilestoneId().equals(milestoneId)) {
                     milestone.setStatus(status);
-                    saveRecoveryPlans();
-                    return;
+                    return true;
                 }
             }
-        }
+            return false;
+        });
     }
     
     public double getPlanProgress(String planId) {
-        RecoveryPlan plan = findById(planId);
-        return plan != null ? plan.getProgressPercentage() : 0.0;
+        return guard.read(() -> {
+            RecoveryPlan plan = planIndex.get(planId);
+            return plan != null ? plan.getProgressPercentage() : 0.0;
+        });
     }
     
     public void completePlan(String planId) {
-        RecoveryPlan plan = findById(planId);
-        if (plan != null) {
+        modifyPlan(planId, plan -> {
             plan.setStatus("Completed");
-            saveRecoveryPlans();
-        }
+            return true;
+        });
     }
     
     public void cancelPlan(String planId) {
-        RecoveryPlan plan = findById(planId);
-        if (plan != null) {
+        modifyPlan(planId, plan -> {
             plan.setStatus("Cancelled");
-            saveRecoveryPlans();
+            return true;
+        });
+    }
+    
+    private boolean modifyPlan(String planId, Predicate<RecoveryPlan> change) {
+        return planLocks.call(planId, () -> {
+            RecoveryPlan changed = guard.write(() -> {
+                RecoveryPlan plan = planIndex.get(planId);
+                if (plan == null || !change.test(plan)) return null;
+                indexMilestones(plan);
+                return plan;
+            });
+            if (changed == null) return false;
+            planStore.put(changed);
+            return true;
+        });
+    }
+    
+    private void indexMilestones(RecoveryPlan plan) {
+        unindexMilestones(plan.getPlanId());
+        if (!"Active".equals(plan.getStatus())) return;
+        
+        List<Milestone> indexed = new ArrayList<>();
+        for (Milestone milestone : plan.getMilestones()) {
+            if (milestone.getDueDate() != null && !"Completed".equals(milestone.getStatus())) {
+                dueDateIndex.add(milestone);
+                indexed.add(milestone);
+            }
+        }
+        if (!indexed.isEmpty()) {
+            indexedMilestones.put(plan.getPlanId(), indexed);
+        }
+    }
+    
+    private void unindexMilestones(String planId) {
+        List<Milestone> indexed = indexedMilestones.remove(planId);
+        if (indexed == null) return;
+        for (Milestone milestone : indexed) {
+            dueDateIndex.remove(milestone);
         }
     }
     
@@ -0,0 +1,150 @@
+package crs.service;
+
+import crs.model.*;
+import crs.util.FileManager;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.format.DateTimeParseException;
+import java.util.*;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+public class ReminderDigestService {
+    
+    private static final String LAST_RUN_FILE = "reminder_digest.txt";
+    private static final String REMINDED_FILE = "reminder_state.txt";
+    
+    private final RecoveryPlanService planService = RecoveryPlanService.getInstance();
+    private final StudentService studentService = StudentService.getInstance();
+    private final EmailService emailService = EmailService.getInstance();
+    
+    private final int lookaheadDays = Math.max(0, Integer.getInteger("crs.reminders.lookaheadDays", 3));
+    private final int repeatDays = Math.max(1, Integer.getInteger("crs.reminders.repeatDays", 7));
+    private final Map<String, LocalDate> lastReminded = new HashMap<>();
+    private final LocalTime runAt;
+    private ScheduledExecutorService executor;
+    private LocalDate lastRun;
+    
+    private ReminderDigestService() {
+        String time = System.getProperty("crs.reminders.time", "08:00");
+        try {
+            runAt = LocalTime.parse(time);
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("Invalid reminder time: " + time);
+        }
+        
+        List<String> lines = FileManager.readFromTextFile(LAST_RUN_FILE);
+        if (!lines.isEmpty()) {
+            try {
+                lastRun = LocalDate.parse(lines.get(0).trim());
+            } catch (DateTimeParseException e) {
+                System.err.println("Ignoring unreadable reminder digest date: " + lines.get(0));
+            }
+        }
+        
+        for (String line : FileManager.readFromTextFile(REMINDED_FILE)) {
+            int comma = line.indexOf(',');
+            try {
+                lastReminded.put(line.substring(0, comma), LocalDate.parse(line.substring(comma + 1).trim()));
+            } catch (IndexOutOfBoundsException | DateTimeParseException e) {
+                System.err.println("Ignoring unreadable reminder state: " + line);
+            }
+        }
+    }
+    
+    private static class Holder {
+        static final ReminderDigestService INSTANCE = new ReminderDigestService();
+    }
+    
+    public static ReminderDigestService getInstance() {
+        return Holder.INSTANCE;
+    }
+    
+    public synchronized void start() {
+        if (executor != null) return;
+        executor = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "reminder-digest");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduleNext();
+    }
+    
+    public synchronized void stop() {
+        if (executor == null) return;
+        executor.shutdownNow();
+        executor = null;
+    }
+    
+    public synchronized LocalDate getLastRun() {
+        return lastRun;
+    }
+    
+    public synchronized int sendDigests(LocalDate today) {
+        Map<String, List<Milestone>> byStudent = new LinkedHashMap<>();
+        Map<String, LocalDate> stillOpen = new HashMap<>();
+        for (Milestone milestone : planService.getOpenMilestonesDueBy(today.plusDays(lookaheadDays))) {
+            LocalDate reminded = lastReminded.get(milestone.getMilestoneId());
+            if (reminded != null) {
+                stillOpen.put(milestone.getMilestoneId(), reminded);
+                if (today.isBefore(reminded.plusDays(repeatDays))) continue;
+            }
+            RecoveryPlan plan = planService.findById(milestone.getPlanId());
+            if (plan == null) continue;
+            byStudent.computeIfAbsent(plan.getStudentId(), k -> new ArrayList<>(4)).add(milestone);
+        }
+        
+        List<OutboundEmail> messages = new ArrayList<>(byStudent.size());
+        for (Map.Entry<String, List<Milestone>> entry : byStudent.entrySet()) {
+            Student student = studentService.findById(entry.getKey());
+            if (student == null || student.getEmail() == null || student.getEmail().isEmpty()) continue;
+            messages.add(emailService.createMilestoneDigest(student, entry.getValue(), today));
+            for (Milestone milestone : entry.getValue()) {
+                stillOpen.put(milestone.getMilestoneId(), today);
+            }
+        }
+        emailService.queueEmails(messages, null);
+        
+        lastReminded.clear();
+        lastReminded.putAll(stillOpen);
+        List<String> state = new ArrayList<>(lastReminded.size());
+        for (Map.Entry<String, LocalDate> entry : lastReminded.entrySet()) {
+            state.add(entry.getKey() + "," + entry.getValue());
+        }
+        FileManager.saveToTextFile(REMINDED_FILE, state);
+        
+        lastRun = today;
+        FileManager.saveToTextFile(LAST_RUN_FILE, Collections.singletonList(today));
+        return messages.size();
+    }
+    
+    private void scheduleNext() {
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime next = now.toLocalDate().atTime(runAt);
+        if (now.isAfter(next)) {
+            next = now.toLocalDate().equals(lastRun) ? next.plusDays(1) : now;
+        }
+        executor.schedule(this::runScheduled, Duration.between(now, next).toMillis(), TimeUnit.MILLISECONDS);
+    }
+    
+    private void runScheduled() {
+        try {
+            LocalDate today = LocalDate.now();
+            if (!today.equals(getLastRun())) {
+                int sent = sendDigests(today);
+                System.out.println("Queued " + sent + " milestone reminder digests for " + today);
+            }
+        } catch (RuntimeException e) {
+            System.err.println("Error sending milestone reminder digests: " + e.getMessage());
+        }
+        synchronized (this) {
+            if (executor != null) {
+                scheduleNext();
+            }
+        }
+    }
+}
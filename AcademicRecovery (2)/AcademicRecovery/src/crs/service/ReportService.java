@@ -12,18 +12,17 @@ public class ReportService {
     private StudentService studentService;
     private CourseService courseService;
     
-    private static ReportService instance;
-    
     private ReportService() {
         studentService = StudentService.getInstance();
         courseService = CourseService.getInstance();
     }
     
+    private static class Holder {
+        static final ReportService INSTANCE = new ReportService();
+    }
+    
     public static ReportService getInstance() {
-        if (instance == null) {
-            instance = new ReportService();
-        }
-        return instance;
+        return Holder.INSTANCE;
     }
     
     public String generateAcademicReport(String studentId, String semester, int year) {
@@ -192,6 +191,58 @@ public class ReportService {
         return report.toString();
     }
     
+    public String generateGradeDistributionReport() {
+        GradeStatistics statistics = studentService.getGradeStatistics();
+        
+        StringBuilder report = new StringBuilder();
+        report.append("=".repeat(60)).append("\n");
+        report.append("            GRADE DISTRIBUTION REPORT\n");
+        report.append("=".repeat(60)).append("\n");
+        report.append("Generated: ").append(LocalDate.now().format(DateTimeFormatter.ofPattern("dd MMMM yyyy"))).append("\n\n");
+        
+        report.append("Enrolments: ").append(statistics.getEnrolmentCount()).append("\n");
+        report.append("Graded: ").append(statistics.getGradedCount()).append("\n\n");
+        
+        report.append("Grades:\n");
+        report.append("-".repeat(60)).append("\n");
+        for (Map.Entry<String, Integer> entry : statistics.getGradeCounts().entrySet()) {
+            report.append(String.format("%-6s %8d  %5.1f%%%n", entry.getKey(), entry.getValue(),
+                percentage(entry.getValue(), statistics.getGradedCount())));
+        }
+        
+        report.append("\nCGPA Distribution:\n");
+        report.append("-".repeat(60)).append("\n");
+        int[] histogram = statistics.getCgpaHistogram();
+        for (int i = 0; i < histogram.length; i++) {
+            double from = i * GradeStatistics.CGPA_BUCKET_WIDTH;
+            report.append(String.format("%.1f - %.1f %8d  %5.1f%%%n", from, from + GradeStatistics.CGPA_BUCKET_WIDTH,
+                histogram[i], percentage(histogram[i], statistics.getGradedStudents())));
+        }
+        
+        report.append("\nCourses With Most Failures:\n");
+        report.append("-".repeat(60)).append("\n");
+        int shown = 0;
+        for (Map.Entry<String, Integer> entry : statistics.getFailuresByCourse().entrySet()) {
+            if (shown++ == 10) break;
+            Course course = courseService.findById(entry.getKey());
+            String name = course != null ? course.getCourseName() : "";
+            report.append(String.format("%-10s %-35s %8d%n", entry.getKey(), truncate(name, 35), entry.getValue()));
+        }
+        if (shown == 0) {
+            report.append("No failed enrolments\n");
+        }
+        
+        report.append("-".repeat(60)).append("\n");
+        report.append("Students Not Eligible to Progress: ").append(statistics.getIneligibleStudents()).append("\n");
+        report.append("=".repeat(60)).append("\n");
+        
+        return report.toString();
+    }
+    
+    private static double percentage(int count, int total) {
+        return total > 0 ? count * 100.0 / total : 0.0;
+    }
+    
     public String generateRecoveryPlanReport(RecoveryPlan plan) {
         Student student = studentService.findById(plan.getStudentId());
         Course course = courseService.findById(plan.getCourseId());
@@ -0,0 +1,57 @@
+package crs.service;
+
+import crs.util.ConnectionPool;
+import crs.util.FileManager;
+import crs.util.JournalStore;
+import crs.util.PersistenceScheduler;
+import crs.util.RecordCodec;
+
+import java.io.Serializable;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+final class Repositories {
+    
+    private static final String STORAGE = System.getProperty("crs.storage", "journal");
+    
+    private static ConnectionPool pool;
+    
+    private Repositories() {}
+    
+    static boolean isJdbc() {
+        return "jdbc".equalsIgnoreCase(STORAGE);
+    }
+    
+    static <T extends Serializable> Repository<T> create(String snapshotFile, String table, Function<T, String> keyFunction,
+                                                          RecordCodec<T> codec, Map<String, Function<T, String>> indexedColumns) {
+        Repository<T> repository;
+        if (isJdbc()) {
+            repository = new JdbcRepository<>(getPool(), table, keyFunction, codec, indexedColumns, () -> {
+                JournalStore<T> legacy = new JournalStore<>(snapshotFile, keyFunction, codec);
+                List<T> items = legacy.load();
+                legacy.close();
+                return items;
+            });
+        } else {
+            repository = new JournalRepository<>(snapshotFile, keyFunction, codec);
+        }
+        
+        PersistenceScheduler scheduler = PersistenceScheduler.getInstance();
+        return scheduler.isDeferred() ? new DeferredRepository<>(repository, table, keyFunction, codec, scheduler) : repository;
+    }
+    
+    static synchronized ConnectionPool getPool() {
+        if (pool == null) {
+            String url = System.getProperty("crs.jdbc.url", "jdbc:h2:" + FileManager.getFile("crs").getAbsolutePath());
+            pool = new ConnectionPool(url, System.getProperty("crs.jdbc.user"), System.getProperty("crs.jdbc.password", ""),
+                Integer.getInteger("crs.jdbc.poolSize", 4));
+            ConnectionPool created = pool;
+            Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+                PersistenceScheduler.getInstance().flushAll();
+                created.close();
+            }));
+        }
+        return pool;
+    }
+}
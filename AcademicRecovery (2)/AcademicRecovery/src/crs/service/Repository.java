@@ -0,0 +1,24 @@
+package crs.service;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.function.Supplier;
+
+public interface Repository<T> {
+    
+    List<T> load();
+    
+    void setSource(Supplier<List<T>> source);
+    
+    void put(T item);
+    
+    void putAll(Collection<? extends T> items);
+    
+    void remove(String key);
+    
+    void removeAll(Collection<String> keys);
+    
+    long getVersion();
+    
+    void checkpoint();
+}
@@ -0,0 +1,240 @@
+package crs.service;
+
+import crs.model.OutboundEmail;
+
+import javax.mail.Address;
+import javax.mail.Message;
+import javax.mail.MessagingException;
+import javax.mail.SendFailedException;
+import javax.mail.Session;
+import javax.mail.Transport;
+import javax.mail.internet.AddressException;
+import javax.mail.internet.InternetAddress;
+import javax.mail.internet.MimeMessage;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Date;
+import java.util.Properties;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+class SmtpMailTransport implements MailTransport {
+    
+    private static final long VALIDATE_AFTER_NANOS = TimeUnit.SECONDS.toNanos(5);
+    private static final long MAX_IDLE_NANOS = TimeUnit.SECONDS.toNanos(60);
+    
+    private final String host;
+    private final int port;
+    private final String username;
+    private final String password;
+    private final Session session;
+    private final InternetAddress from;
+    private final BlockingQueue<PooledTransport> idle;
+    private final Semaphore permits;
+    private final int timeoutMillis = Math.max(1, Integer.getInteger("crs.smtp.timeoutMillis", 15000));
+    private volatile boolean closed;
+    
+    private final AtomicLong sent = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    private final AtomicLong recipients = new AtomicLong();
+    private final AtomicLong connectionsOpened = new AtomicLong();
+    private final AtomicLong connectionsReused = new AtomicLong();
+    private final AtomicLong sendNanos = new AtomicLong();
+    private final AtomicLong firstSend = new AtomicLong();
+    private final AtomicLong lastSend = new AtomicLong();
+    
+    private static final class PooledTransport {
+        final Transport transport;
+        long lastUsed = System.nanoTime();
+        
+        PooledTransport(Transport transport) {
+            this.transport = transport;
+        }
+    }
+    
+    SmtpMailTransport(String host, int port, String username, String password, String sender, int poolSize) {
+        if (host == null || host.trim().isEmpty()) {
+            throw new IllegalArgumentException("SMTP host is required");
+        }
+        if (poolSize < 1) {
+            throw new IllegalArgumentException("Pool size must be positive: " + poolSize);
+        }
+        this.host = host.trim();
+        this.port = port;
+        this.username = username == null || username.isEmpty() ? null : username;
+        this.password = password;
+        this.idle = new ArrayBlockingQueue<>(poolSize);
+        this.permits = new Semaphore(poolSize, true);
+        
+        Properties properties = new Properties();
+        properties.setProperty("mail.smtp.host", this.host);
+        properties.setProperty("mail.smtp.port", String.valueOf(port));
+        properties.setProperty("mail.smtp.auth", String.valueOf(this.username != null));
+        properties.setProperty("mail.smtp.starttls.enable", "true");
+        properties.setProperty("mail.smtp.connectiontimeout", String.valueOf(timeoutMillis));
+        properties.setProperty("mail.smtp.timeout", String.valueOf(timeoutMillis));
+        properties.setProperty("mail.smtp.writetimeout", String.valueOf(timeoutMillis));
+        properties.setProperty("mail.smtp.userset", "true");
+        properties.setProperty("mail.smtp.quitwait", "false");
+        this.session = Session.getInstance(properties);
+        
+        String address = sender;
+        if (address == null || address.isEmpty()) {
+            address = this.username != null && this.username.contains("@") ? this.username : "noreply@" + this.host;
+        }
+        try {
+            this.from = new InternetAddress(address, true);
+        } catch (AddressException e) {
+            throw new IllegalArgumentException("Invalid sender address: " + address);
+        }
+    }
+    
+    @Override
+    public Connection open() throws IOException {
+        if (closed) {
+            throw new IOException("SMTP transport for " + host + " is closed");
+        }
+        try {
+            if (!permits.tryAcquire(timeoutMillis, TimeUnit.MILLISECONDS)) {
+                throw new IOException("No SMTP connection to " + host + " became available within "
+                    + timeoutMillis + " ms");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted waiting for an SMTP connection to " + host);
+        }
+        try {
+            return new SmtpConnection(borrow());
+        } catch (IOException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+    
+    MailStatistics getStatistics() {
+        return new MailStatistics(sent.get(), failed.get(), recipients.get(), connectionsOpened.get(),
+            connectionsReused.get(), lastSend.get() - firstSend.get(), sendNanos.get());
+    }
+    
+    void close() {
+        closed = true;
+        PooledTransport pooled;
+        while ((pooled = idle.poll()) != null) {
+            closeQuietly(pooled.transport);
+        }
+    }
+    
+    @Override
+    public String toString() {
+        return String.format("smtp://%s:%d: %d idle, %d available", host, port, idle.size(), permits.availablePermits());
+    }
+    
+    private PooledTransport borrow() throws IOException {
+        PooledTransport pooled;
+        while ((pooled = idle.poll()) != null) {
+            long idleNanos = System.nanoTime() - pooled.lastUsed;
+            if (idleNanos < VALIDATE_AFTER_NANOS
+                    || (idleNanos < MAX_IDLE_NANOS && pooled.transport.isConnected())) {
+                connectionsReused.incrementAndGet();
+                return pooled;
+            }
+            closeQuietly(pooled.transport);
+        }
+        
+        try {
+            Transport transport = session.getTransport("smtp");
+            transport.connect(host, port, username, password);
+            connectionsOpened.incrementAndGet();
+            return new PooledTransport(transport);
+        } catch (MessagingException e) {
+            throw new IOException("Could not connect to " + host + ":" + port + ": " + e.getMessage(), e);
+        }
+    }
+    
+    private void release(PooledTransport pooled, boolean healthy) {
+        pooled.lastUsed = System.nanoTime();
+        if (!healthy || closed || !idle.offer(pooled)) {
+            closeQuietly(pooled.transport);
+        }
+    }
+    
+    private MimeMessage toMimeMessage(OutboundEmail message) throws MessagingException {
+        MimeMessage mime = new MimeMessage(session);
+        mime.setFrom(from);
+        mime.setRecipients(Message.RecipientType.TO, InternetAddress.parse(message.getRecipient(), true));
+        mime.setSubject(message.getSubject(), StandardCharsets.UTF_8.name());
+        mime.setText(message.getBody(), StandardCharsets.UTF_8.name());
+        mime.setSentDate(new Date());
+        mime.setHeader("X-CRS-Message-Id", message.getMessageId());
+        mime.saveChanges();
+        return mime;
+    }
+    
+    private void recordSend(long started, boolean success, int recipientCount) {
+        long elapsed = System.nanoTime() - started;
+        sendNanos.addAndGet(elapsed);
+        long now = System.currentTimeMillis();
+        firstSend.compareAndSet(0, now - TimeUnit.NANOSECONDS.toMillis(elapsed));
+        lastSend.accumulateAndGet(now, Math::max);
+        if (success) {
+            sent.incrementAndGet();
+            recipients.addAndGet(recipientCount);
+        } else {
+            failed.incrementAndGet();
+        }
+    }
+    
+    private static void closeQuietly(Transport transport) {
+        try {
+            transport.close();
+        } catch (MessagingException e) {
+            System.err.println("Error closing SMTP connection: " + e.getMessage());
+        }
+    }
+    
+    private final class SmtpConnection implements Connection {
+        private final PooledTransport pooled;
+        private boolean healthy = true;
+        private boolean released;
+        
+        SmtpConnection(PooledTransport pooled) {
+            this.pooled = pooled;
+        }
+        
+        @Override
+        public void send(OutboundEmail message) throws IOException {
+            if (released) {
+                throw new IOException("SMTP connection already closed");
+            }
+            long started = System.nanoTime();
+            try {
+                MimeMessage mime = toMimeMessage(message);
+                Address[] to = mime.getAllRecipients();
+                pooled.transport.sendMessage(mime, to);
+                recordSend(started, true, to.length);
+            } catch (MessagingException e) {
+                if (!(e instanceof AddressException)) {
+                    healthy = e instanceof SendFailedException && pooled.transport.isConnected();
+                }
+                recordSend(started, false, 0);
+                throw new IOException(e.getMessage(), e);
+            } catch (RuntimeException e) {
+                healthy = false;
+                recordSend(started, false, 0);
+                throw e;
+            }
+        }
+        
+        @Override
+        public void close() {
+            if (released) return;
+            released = true;
+            release(pooled, healthy);
+            permits.release();
+        }
+    }
+}
@@ -1,265 +1,544 @@
 package crs.service;
 
 import crs.model.*;
-import crs.util.FileManager;
+import crs.util.CsvImporter;
+import crs.util.GroupIndex;
+import crs.util.ImportReport;
+import crs.util.KeyIndex;
+import crs.util.ReadWriteGuard;
+import crs.util.SearchIndex;
+import crs.util.SnapshotList;
+import crs.util.StripedLock;
+import crs.util.ValidationUtil;
 
-import java.io.*;
 import java.util.*;
+import java.util.concurrent.atomic.AtomicLong;
 
 public class StudentService {
     
     private static final String STUDENTS_FILE = "students.dat";
     private static final String STUDENT_COURSES_FILE = "student_courses.dat";
     
-    private List<Student> students;
-    private List<StudentCourse> studentCourses;
+    private final Repository<Student> studentStore = Repositories.create(STUDENTS_FILE, "students",
+        Student::getStudentId, ModelCodecs.STUDENT, Map.of("email", Student::getEmail));
+    private final Repository<StudentCourse> studentCourseStore = Repositories.create(STUDENT_COURSES_FILE,
+        "student_courses", StudentCourse::getEnrolmentKey, ModelCodecs.STUDENT_COURSE,
+        Map.of("student_id", StudentCourse::getStudentId, "course_id", StudentCourse::getCourseId));
     
-    private static StudentService instance;
+    private final KeyIndex<Student> studentIndex = new KeyIndex<>("students.id", Student::getStudentId);
+    private final SearchIndex<Student> studentSearch = new SearchIndex<>("students.text", Student::getStudentId,
+        s -> new String[] {s.getStudentId(), s.getFirstName(), s.getLastName(), s.getMajor()});
+    private final CsvImporter<Student> studentImporter =
+        new CsvImporter<>(6, StudentService::parseStudent, Student::getStudentId);
+    private final GroupIndex<StudentCourse> enrolmentsByStudent =
+        new GroupIndex<>("student_courses.studentId", StudentCourse::getStudentId);
+    private final GroupIndex<StudentCourse> enrolmentsByCourse =
+        new GroupIndex<>("student_courses.courseId", StudentCourse::getCourseId);
+    private final GroupIndex<StudentCourse> enrolmentsByTerm =
+        new GroupIndex<>("student_courses.term", sc -> termKey(sc.getSemester(), sc.getYear()));
+    
+    private final ReadWriteGuard guard = new ReadWriteGuard();
+    private final StripedLock studentLocks = new StripedLock(64);
+    
+    private final SnapshotList<Student> students = new SnapshotList<>();
+    private final SnapshotList<StudentCourse> studentCourses = new SnapshotList<>();
+    private boolean legacyEnrolments;
+    private final AtomicLong courseRefreshes = new AtomicLong();
     
     private StudentService() {
-        loadStudents();
-        loadStudentCourses();
+        loadAll();
+        studentStore.setSource(this::getAllStudents);
+        studentCourseStore.setSource(this::getAllStudentCourses);
+        if (legacyEnrolments) {
+            saveStudents();
+            saveStudentCourses();
+            legacyEnrolments = false;
+        }
+    }
+    
+    private static class Holder {
+        static final StudentService INSTANCE = new StudentService();
     }
     
     public static StudentService getInstance() {
-        if (instance == null) {
-            instance = new StudentService();
+        return Holder.INSTANCE;
+    }
+    
+    private void loadAll() {
+        List<Student> loadedStudents = studentStore.load();
+        List<StudentCourse> loadedCourses = studentCourseStore.load();
+        resolveCourses(loadedCourses);
+        
+        guard.write(() -> {
+            students.reset(loadedStudents);
+            studentIndex.rebuild(loadedStudents);
+            studentSearch.rebuild(loadedStudents);
+            
+            studentCourses.reset(loadedCourses);
+            enrolmentsByStudent.rebuild(loadedCourses);
+            enrolmentsByCourse.rebuild(loadedCourses);
+            enrolmentsByTerm.rebuild(loadedCourses);
+            
+            for (Student student : students) {
+                linkStudentCourses(student);
+            }
+        });
+    }
+    
+    private void resolveCourses(List<StudentCourse> enrolments) {
+        CourseService courseService = CourseService.getInstance();
+        for (StudentCourse sc : enrolments) {
+            if (sc.getCourse() != null) {
+                legacyEnrolments = true;
+            }
+            Course course = courseService.findById(sc.getCourseId());
+            if (course != null) {
+                sc.setCourse(course);
+            } else if (sc.getCourse() == null) {
+                sc.setCourse(new Course(sc.getCourseId(), sc.getCourseId(), 0, sc.getSemester(), "", 0, 0));
+            }
         }
-        return instance;
     }
     
-    private void loadStudents() {
-        students = FileManager.loadFromBinaryFile(STUDENTS_FILE);
-        if (students == null) {
-            students = new ArrayList<>();
+    private void indexStudentCourse(StudentCourse sc) {
+        enrolmentsByStudent.add(sc);
+        enrolmentsByCourse.add(sc);
+        enrolmentsByTerm.add(sc);
+    }
+    
+    private void unindexStudentCourse(StudentCourse sc) {
+        enrolmentsByStudent.remove(sc);
+        enrolmentsByCourse.remove(sc);
+        enrolmentsByTerm.remove(sc);
+    }
+    
+    private static String termKey(String semester, int year) {
+        return semester + "|" + year;
+    }
+    
+    private StudentCourse findStudentCourse(String studentId, String courseId, String semester, int year) {
+        for (StudentCourse sc : enrolmentsByStudent.get(studentId)) {
+            if (sc.getCourseId().equals(courseId)
+                    && sc.getSemester().equals(semester) && sc.getYear() == year) {
+                return sc;
+            }
         }
+        return null;
     }
     
-    private void loadStudentCourses() {
-        studentCourses = FileManager.loadFromBinaryFile(STUDENT_COURSES_FILE);
-        if (studentCourses == null) {
-            studentCourses = new ArrayList<>();
+    private StudentCourse findStudentCourse(String studentId, String courseId) {
+        for (StudentCourse sc : enrolmentsByStudent.get(studentId)) {
+            if (sc.getCourseId().equals(courseId)) {
+                return sc;
+            }
         }
+        return null;
+    }
+    
+    private boolean isKnownStudent(String studentId) {
+        return guard.read(() -> studentIndex.containsKey(studentId));
     }
     
     public void saveStudents() {
-        FileManager.saveToBinaryFile(STUDENTS_FILE, students);
+        studentStore.checkpoint();
     }
     
     public void saveStudentCourses() {
-        FileManager.saveToBinaryFile(STUDENT_COURSES_FILE, studentCourses);
+        studentCourseStore.checkpoint();
     }
     
-    public void importStudentsFromCSV(String filePath) {
-        try (BufferedReader reader = new BufferedReader(new FileReader(filePath))) {
-            String line;
-            boolean firstLine = true;
-            
-            while ((line = reader.readLine()) != null) {
-                if (firstLine) {
-                    firstLine = false;
-                    continue;
+    public ImportReport importStudentsFromCSV(String filePath) {
+        return studentImporter.importFile(filePath, this::isKnownStudent, imported -> studentLocks.runAll(() -> {
+            List<Student> added = guard.write(() -> {
+                List<Student> fresh = new ArrayList<>(imported.size());
+                for (Student student : imported) {
+                    if (studentIndex.containsKey(student.getStudentId())) continue;
+                    studentIndex.put(student);
+                    studentSearch.put(student);
+                    fresh.add(student);
                 }
-                
-                String[] parts = line.split(",");
-                if (parts.length >= 6) {
-                    Student student = new Student(
-                        parts[0].trim(),
-                        parts[1].trim(),
-                        parts[2].trim(),
-                        parts[5].trim(),
-                        parts[3].trim(),
-                        parts[4].trim()
-                    );
+                students.addAll(fresh);
+                return fresh;
+            });
+            studentStore.putAll(added);
+        }));
+    }
+    
+    private static Student parseStudent(String[] fields) {
+        String studentId = CsvImporter.required(fields, 0, "Student ID");
+        if (!ValidationUtil.isValidId(studentId)) {
+            throw new IllegalArgumentException("invalid student ID '" + studentId + "'");
+        }
+        String email = CsvImporter.field(fields, 5);
+        if (!ValidationUtil.isValidEmail(email)) {
+            throw new IllegalArgumentException("invalid email '" + email + "'");
+        }
+        return new Student(
+            studentId,
+            CsvImporter.required(fields, 1, "First name"),
+            CsvImporter.required(fields, 2, "Last name"),
+            email,
+            CsvImporter.field(fields, 3),
+            CsvImporter.field(fields, 4)
+        );
+    }
+    
+    public ImportReport importEnrolmentsFromCSV(String filePath) {
+        CourseService courseService = CourseService.getInstance();
+        CsvImporter<GradeRecord> importer = new CsvImporter<>(7,
+            fields -> parseGradeRecord(fields, courseService), GradeRecord::getEnrolmentKey);
+        return importer.importFile(filePath, key -> false, this::applyGradeRecords);
+    }
+    
+    private GradeRecord parseGradeRecord(String[] fields, CourseService courseService) {
+        String studentId = CsvImporter.required(fields, 0, "Student ID");
+        if (!isKnownStudent(studentId)) {
+            throw new IllegalArgumentException("unknown student '" + studentId + "'");
+        }
+        String courseId = CsvImporter.required(fields, 1, "Course ID");
+        if (courseService.findById(courseId) == null) {
+            throw new IllegalArgumentException("unknown course '" + courseId + "'");
+        }
+        
+        Double examScore = CsvImporter.parseOptionalDouble(fields, 4, "Exam score");
+        Double assignmentScore = CsvImporter.parseOptionalDouble(fields, 5, "Assignment score");
+        if ((examScore != null && !ValidationUtil.isValidScore(examScore))
+                || (assignmentScore != null && !ValidationUtil.isValidScore(assignmentScore))) {
+            throw new IllegalArgumentException("scores must be between 0 and 100");
+        }
+        String grade = CsvImporter.field(fields, 6).toUpperCase();
+        if (!grade.isEmpty() && !ValidationUtil.isValidGrade(grade)) {
+            throw new IllegalArgumentException("invalid grade '" + grade + "'");
+        }
+        
+        return new GradeRecord(studentId, courseId,
+            CsvImporter.required(fields, 2, "Semester"),
+            CsvImporter.parseInt(fields, 3, "Year"),
+            examScore, assignmentScore, grade);
+    }
+    
+    public int applyGradeRecords(Collection<GradeRecord> records) {
+        CourseService courseService = CourseService.getInstance();
+        List<StudentCourse> changedEnrolments = new ArrayList<>(records.size());
+        
+        return studentLocks.callAll(() -> {
+            guard.write(() -> {
+                for (GradeRecord record : records) {
+                    Course course = courseService.findById(record.getCourseId());
+                    if (course == null) continue;
+                    
+                    Student student = studentIndex.get(record.getStudentId());
+                    StudentCourse sc = findStudentCourse(record.getStudentId(), record.getCourseId(),
+                        record.getSemester(), record.getYear());
+                    if (sc == null) {
+                        sc = new StudentCourse(record.getStudentId(), course, record.getSemester(), record.getYear());
+                        studentCourses.add(sc);
+                        indexStudentCourse(sc);
+                        if (student != null) {
+                            student.addCourse(sc);
+                        }
+                    }
                     
-                    if (findById(student.getStudentId()) == null) {
-                        students.add(student);
+                    if (record.hasGrade()) {
+                        if (student != null) {
+                            student.updateCourseGrade(sc, record.getGrade());
+                        } else {
+                            sc.setGrade(record.getGrade());
+                        }
                     }
+                    if (record.getExamScore() != null) {
+                        sc.setExamScore(record.getExamScore());
+                    }
+                    if (record.getAssignmentScore() != null) {
+                        sc.setAssignmentScore(record.getAssignmentScore());
+                    }
+                    changedEnrolments.add(sc);
                 }
-            }
-            saveStudents();
-        } catch (IOException e) {
-            System.err.println("Error importing students from CSV: " + e.getMessage());
-        }
+            });
+            
+            studentCourseStore.putAll(changedEnrolments);
+            return changedEnrolments.size();
+        });
     }
     
     public Student addStudent(Student student) {
-        if (findById(student.getStudentId()) != null) {
-            throw new IllegalArgumentException("Student ID already exists");
-        }
-        students.add(student);
-        saveStudents();
-        return student;
+        return studentLocks.call(student.getStudentId(), () -> {
+            guard.write(() -> {
+                if (studentIndex.containsKey(student.getStudentId())) {
+                    throw new IllegalArgumentException("Student ID already exists");
+                }
+                linkStudentCourses(student);
+                students.add(student);
+                studentIndex.put(student);
+                studentSearch.put(student);
+            });
+            studentStore.put(student);
+            return student;
+        });
     }
     
     public void updateStudent(Student student) {
-        for (int i = 0; i < students.size(); i++) {
-            if (students.get(i).getStudentId().equals(student.getStudentId())) {
-                students.set(i, student);
-                saveStudents();
-                return;
+        studentLocks.run(student.getStudentId(), () -> {
+            boolean replaced = guard.write(() -> {
+                Student existing = studentIndex.get(student.getStudentId());
+                if (existing == null || !students.replace(existing, student)) return false;
+                linkStudentCourses(student);
+                studentIndex.put(student);
+                studentSearch.put(student);
+                return true;
+            });
+            if (replaced) {
+                studentStore.put(student);
             }
-        }
+        });
     }
     
     public Student findById(String studentId) {
-        for (Student student : students) {
-            if (student.getStudentId().equals(studentId)) {
-                return student;
-            }
-        }
-        return null;
+        return guard.read(() -> studentIndex.get(studentId));
+    }
+    
+    public long getDataVersion() {
+        return studentStore.getVersion() + studentCourseStore.getVersion() + courseRefreshes.get();
+    }
+    
+    public List<String> getIndexStatistics() {
+        return guard.read(() -> Arrays.asList(studentIndex.toString(), studentSearch.toString(),
+            enrolmentsByStudent.toString(), enrolmentsByCourse.toString(), enrolmentsByTerm.toString()));
     }
     
     public List<Student> getAllStudents() {
-        return new ArrayList<>(students);
+        return students.snapshot();
     }
     
     public List<Student> searchStudents(String keyword) {
-        List<Student> results = new ArrayList<>();
-        String lower = keyword.toLowerCase();
-        for (Student student : students) {
-            if (student.getStudentId().toLowerCase().contains(lower) ||
-                student.getFirstName().toLowerCase().contains(lower) ||
-                student.getLastName().toLowerCase().contains(lower) ||
-                student.getMajor().toLowerCase().contains(lower)) {
-                results.add(student);
-            }
-        }
-        return results;
+        return studentSearch.search(keyword);
+    }
+    
+    public List<Student> searchStudents(String keyword, int limit) {
+        return studentSearch.search(keyword, limit);
     }
     
     public void enrollStudentInCourse(String studentId, Course course, String semester, int year) {
         StudentCourse sc = new StudentCourse(studentId, course, semester, year);
-        studentCourses.add(sc);
-        
-        Student student = findById(studentId);
-        if (student != null) {
-            student.addCourse(sc);
-            saveStudents();
-        }
-        saveStudentCourses();
+        studentLocks.run(studentId, () -> {
+            guard.write(() -> {
+                studentCourses.add(sc);
+                indexStudentCourse(sc);
+                
+                Student enrolled = studentIndex.get(studentId);
+                if (enrolled != null) {
+                    enrolled.addCourse(sc);
+                }
+            });
+            studentCourseStore.put(sc);
+        });
     }
     
     public void updateStudentCourse(StudentCourse studentCourse) {
-        for (int i = 0; i < studentCourses.size(); i++) {
-            StudentCourse sc = studentCourses.get(i);
-            if (sc.getStudentId().equals(studentCourse.getStudentId()) &&
-                sc.getCourse().getCourseId().equals(studentCourse.getCourse().getCourseId())) {
-                studentCourses.set(i, studentCourse);
-                saveStudentCourses();
-                return;
+        studentLocks.run(studentCourse.getStudentId(), () -> {
+            boolean updated = guard.write(() -> {
+                StudentCourse existing = findStudentCourse(studentCourse.getStudentId(),
+                    studentCourse.getCourseId());
+                if (existing == null) return false;
+                
+                if (existing != studentCourse) {
+                    studentCourses.replace(existing, studentCourse);
+                    unindexStudentCourse(existing);
+                    indexStudentCourse(studentCourse);
+                }
+                
+                Student student = studentIndex.get(studentCourse.getStudentId());
+                if (student != null) {
+                    if (existing != studentCourse) {
+                        linkStudentCourses(student);
+                    } else {
+                        student.invalidateStanding();
+                    }
+                }
+                return true;
+            });
+            if (updated) {
+                studentCourseStore.put(studentCourse);
             }
-        }
+        });
     }
     
     public List<StudentCourse> getStudentCourses(String studentId) {
-        List<StudentCourse> courses = new ArrayList<>();
-        for (StudentCourse sc : studentCourses) {
-            if (sc.getStudentId().equals(studentId)) {
-                courses.add(sc);
-            }
-        }
-        return courses;
+        return guard.read(() -> new ArrayList<>(enrolmentsByStudent.get(studentId)));
     }
     
     public List<StudentCourse> getStudentCoursesBySemester(String studentId, String semester, int year) {
         List<StudentCourse> courses = new ArrayList<>();
-        for (StudentCourse sc : studentCourses) {
-            if (sc.getStudentId().equals(studentId) &&
-                sc.getSemester().equals(semester) &&
-                sc.getYear() == year) {
+        for (StudentCourse sc : getStudentCourses(studentId)) {
+            if (sc.getSemester().equals(semester) && sc.getYear() == year) {
                 courses.add(sc);
             }
         }
         return courses;
     }
     
+    public List<StudentCourse> getStudentCoursesByTerm(String semester, int year) {
+        return guard.read(() -> new ArrayList<>(enrolmentsByTerm.get(termKey(semester, year))));
+    }
+    
+    public void refreshCourse(Course course) {
+        guard.write(() -> {
+            for (StudentCourse sc : enrolmentsByCourse.get(course.getCourseId())) {
+                sc.setCourse(course);
+                Student student = studentIndex.get(sc.getStudentId());
+                if (student != null) {
+                    student.invalidateStanding();
+                }
+            }
+        });
+        courseRefreshes.incrementAndGet();
+    }
+    
+    public List<StudentCourse> getCourseEnrolments(String courseId) {
+        return guard.read(() -> new ArrayList<>(enrolmentsByCourse.get(courseId)));
+    }
+    
     public List<Student> getIneligibleStudents() {
-        List<Student> ineligible = new ArrayList<>();
-        for (Student student : students) {
-            loadStudentCoursesForStudent(student);
-            if (!student.isEligibleToProgress()) {
-                ineligible.add(student);
+        return guard.read(() -> {
+            List<Student> ineligible = new ArrayList<>();
+            for (Student student : students) {
+                if (!student.isEligibleToProgress()) {
+                    ineligible.add(student);
+                }
             }
-        }
-        return ineligible;
+            return ineligible;
+        });
     }
     
-    public List<Student> getStudentsWithFailedCourses() {
-        List<Student> failed = new ArrayList<>();
-        for (Student student : students) {
-            loadStudentCoursesForStudent(student);
-            if (student.getFailedCoursesCount() > 0) {
-                failed.add(student);
+    public List<EligibilityStatus> getEligibilitySnapshot() {
+        return guard.read(() -> {
+            List<EligibilityStatus> snapshot = new ArrayList<>(students.size());
+            for (Student student : students) {
+                snapshot.add(EligibilityStatus.of(student));
             }
-        }
-        return failed;
+            return Collections.unmodifiableList(snapshot);
+        });
     }
     
-    private void loadStudentCoursesForStudent(Student student) {
-        student.getCourses().clear();
-        for (StudentCourse sc : studentCourses) {
-            if (sc.getStudentId().equals(student.getStudentId())) {
-                student.addCourse(sc);
+    public GradeStatistics getGradeStatistics() {
+        return guard.read(() -> {
+            int[] gradeCounts = new int[GradeStatistics.GRADES.size() + 1];
+            Map<String, Integer> failures = new HashMap<>();
+            for (StudentCourse sc : studentCourses) {
+                int index = GradeStatistics.gradeIndex(sc.getGrade());
+                if (index >= 0) {
+                    gradeCounts[index]++;
+                }
+                if (sc.isFailed()) {
+                    failures.merge(sc.getCourseId(), 1, Integer::sum);
+                }
             }
-        }
+            
+            int[] histogram = new int[GradeStatistics.cgpaBucket(4.0) + 1];
+            int gradedStudents = 0;
+            int ineligible = 0;
+            for (Student student : students) {
+                if (!student.isEligibleToProgress()) {
+                    ineligible++;
+                }
+                if (student.getGradedCredits() > 0) {
+                    histogram[GradeStatistics.cgpaBucket(student.calculateCGPA())]++;
+                    gradedStudents++;
+                }
+            }
+            
+            Map<String, Integer> grades = new LinkedHashMap<>();
+            int graded = 0;
+            for (int index = 0; index < gradeCounts.length; index++) {
+                if (gradeCounts[index] > 0) {
+                    grades.put(GradeStatistics.gradeLabel(index), gradeCounts[index]);
+                    graded += gradeCounts[index];
+                }
+            }
+            
+            List<Map.Entry<String, Integer>> sorted = new ArrayList<>(failures.entrySet());
+            sorted.sort(Map.Entry.<String, Integer>comparingByValue().reversed().thenComparing(Map.Entry.comparingByKey()));
+            Map<String, Integer> failuresByCourse = new LinkedHashMap<>();
+            for (Map.Entry<String, Integer> entry : sorted) {
+                failuresByCourse.put(entry.getKey(), entry.getValue());
+            }
+            return new GradeStatistics(studentCourses.size(), graded, grades, failuresByCourse, histogram,
+                gradedStudents, ineligible);
+        });
+    }
+    
+    public List<Student> getStudentsWithFailedCourses() {
+        return guard.read(() -> {
+            List<Student> failed = new ArrayList<>();
+            for (Student student : students) {
+                if (student.getFailedCoursesCount() > 0) {
+                    failed.add(student);
+                }
+            }
+            return failed;
+        });
+    }
+    
+    private void linkStudentCourses(Student student) {
+        student.setCourses(enrolmentsByStudent.get(student.getStudentId()));
     }
     
     public double calculateCGPA(String studentId) {
-        Student student = findById(studentId);
-        if (student != null) {
-            loadStudentCoursesForStudent(student);
-            return student.calculateCGPA();
-        }
-        return 0.0;
+        return guard.read(() -> {
+            Student student = studentIndex.get(studentId);
+            return student != null ? student.calculateCGPA() : 0.0;
+        });
     }
     
     public boolean isEligibleToProgress(String studentId) {
-        Student student = findById(studentId);
-        if (student != null) {
-            loadStudentCoursesForStudent(student);
-            return student.isEligibleToProgress();
-        }
-        return false;
+        return guard.read(() -> {
+            Student student = studentIndex.get(studentId);
+            return student != null && student.isEligibleToProgress();
+        });
     }
     
     public void confirmEnrolment(String studentId) {
-        Student student = findById(studentId);
-        if (student != null) {
-            student.setEnrolled(true);
-            saveStudents();
-        }
+        studentLocks.run(studentId, () -> {
+            Student student = guard.write(() -> {
+                Student enrolled = studentIndex.get(studentId);
+                if (enrolled != null) {
+                    enrolled.setEnrolled(true);
+                }
+                return enrolled;
+            });
+            if (student != null) {
+                studentStore.put(student);
+            }
+        });
     }
     
     public List<StudentCourse> getAllStudentCourses() {
-        return new ArrayList<>(studentCourses);
+        return studentCourses.snapshot();
     }
     
     public void assignGrade(String studentId, String courseId, String grade, double examScore, double assignmentScore) {
-        for (StudentCourse sc : studentCourses) {
-            if (sc.getStudentId().equals(studentId) && 
-                sc.getCourse().getCourseId().equals(courseId)) {
-                sc.setGrade(grade);
-                sc.setExamScore(examScore);
-                sc.setAssignmentScore(assignmentScore);
-                saveStudentCourses();
+        studentLocks.run(studentId, () -> {
+            StudentCourse graded = guard.write(() -> {
+                StudentCourse sc = findStudentCourse(studentId, courseId);
+                if (sc == null) return null;
                 
-                Student student = findById(studentId);
+                Student student = studentIndex.get(studentId);
                 if (student != null) {
-                    loadStudentCoursesForStudent(student);
-                    saveStudents();
+                    student.updateCourseGrade(sc, grade);
+                } else {
+                    sc.setGrade(grade);
                 }
-                return;
+                sc.setExamScore(examScore);
+                sc.setAssignmentScore(assignmentScore);
+                return sc;
+            });
+            if (graded != null) {
+                studentCourseStore.put(graded);
             }
-        }
+        });
     }
     
     public void reloadData() {
-        loadStudents();
-        loadStudentCourses();
-        for (Student student : students) {
-            loadStudentCoursesForStudent(student);
-        }
+        studentLocks.runAll(this::loadAll);
     }
 }
@@ -2,91 +2,127 @@ package crs.service;
 
 import crs.model.*;
 import crs.util.FileManager;
+import crs.util.JournalStore;
+import crs.util.KeyIndex;
 import crs.util.PasswordUtil;
+import crs.util.PersistenceScheduler;
+import crs.util.ReadWriteGuard;
+import crs.util.SegmentedLog;
+import crs.util.SnapshotList;
+import crs.util.StripedLock;
 import crs.util.ValidationUtil;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
+import java.util.function.Predicate;
 
 public class UserService {
     
     private static final String USERS_FILE = "users.dat";
-    private static final String LOGIN_LOGS_FILE = "login_logs.dat";
+    private static final String LEGACY_LOGIN_LOGS_FILE = "login_logs.dat";
+    private static final String LOGIN_LOG_DIR = "login_logs";
     
-    private List<User> users;
-    private List<LoginLog> loginLogs;
-    private User currentUser;
+    private final Repository<User> userStore = Repositories.create(USERS_FILE, "users", User::getUserId,
+        ModelCodecs.USER, Map.of("username", User::getUsername));
+    private final SegmentedLog<LoginLog> loginLog = new SegmentedLog<>(LOGIN_LOG_DIR, ModelCodecs.LOGIN_LOG,
+        LoginLog::getUserId, LoginLog::getTimestamp,
+        Long.getLong("crs.loginLog.segmentBytes", 1024 * 1024),
+        Duration.ofHours(Long.getLong("crs.loginLog.segmentHours", 24)),
+        Integer.getInteger("crs.loginLog.maxSegments", 0));
     
-    private static UserService instance;
+    private final KeyIndex<User> userIdIndex = new KeyIndex<>("users.id", User::getUserId);
+    private final KeyIndex<User> usernameIndex = new KeyIndex<>("users.username", User::getUsername);
+    private final KeyIndex<User> emailIndex = new KeyIndex<>("users.email", User::getEmail);
+    
+    private final ReadWriteGuard guard = new ReadWriteGuard();
+    private final StripedLock userLocks = new StripedLock(16);
+    
+    private final SnapshotList<User> users = new SnapshotList<>();
+    private volatile User currentUser;
     
     private UserService() {
         loadUsers();
-        loadLoginLogs();
+        migrateLoginLogs();
+        userStore.setSource(this::getAllUsers);
         initializeDefaultUsers();
     }
     
+    private static class Holder {
+        static final UserService INSTANCE = new UserService();
+    }
+    
     public static UserService getInstance() {
-        if (instance == null) {
-            instance = new UserService();
-        }
-        return instance;
+        return Holder.INSTANCE;
     }
     
     private void loadUsers() {
-        users = FileManager.loadFromBinaryFile(USERS_FILE);
-        if (users == null) {
-            users = new ArrayList<>();
-        }
+        List<User> loaded = userStore.load();
+        guard.write(() -> {
+            users.reset(loaded);
+            rebuildIndexes(loaded);
+        });
     }
     
-    private void loadLoginLogs() {
-        loginLogs = FileManager.loadFromBinaryFile(LOGIN_LOGS_FILE);
-        if (loginLogs == null) {
-            loginLogs = new ArrayList<>();
+    private void migrateLoginLogs() {
+        String legacyJournal = LEGACY_LOGIN_LOGS_FILE.replace(".dat", ".wal");
+        if (!FileManager.fileExists(LEGACY_LOGIN_LOGS_FILE) && !FileManager.fileExists(legacyJournal)) return;
+        
+        JournalStore<LoginLog> legacy = new JournalStore<>(LEGACY_LOGIN_LOGS_FILE, LoginLog::getLogId, ModelCodecs.LOGIN_LOG);
+        List<LoginLog> loaded = new ArrayList<>(legacy.load());
+        legacy.close();
+        loaded.sort(Comparator.comparing(LoginLog::getTimestamp, Comparator.nullsFirst(Comparator.naturalOrder())));
+        loginLog.appendAll(loaded);
+        loginLog.flush();
+        
+        for (String file : Arrays.asList(LEGACY_LOGIN_LOGS_FILE, LEGACY_LOGIN_LOGS_FILE + ".bak",
+                legacyJournal, legacyJournal + ".old")) {
+            FileManager.deleteFile(file);
         }
     }
     
-    private void saveUsers() {
-        FileManager.saveToBinaryFile(USERS_FILE, users);
-    }
-    
-    private void saveLoginLogs() {
-        FileManager.saveToBinaryFile(LOGIN_LOGS_FILE, loginLogs);
-    }
-    
     private void initializeDefaultUsers() {
-        if (users.isEmpty()) {
-            AcademicOfficer admin = new AcademicOfficer(
-                "U001", "admin", PasswordUtil.hashPassword("admin123"),
-                "admin@university.edu", "System Administrator"
-            );
-            admin.setDepartment("Administration");
-            users.add(admin);
-            
-            CourseAdministrator courseAdmin = new CourseAdministrator(
-                "U002", "courseadmin", PasswordUtil.hashPassword("course123"),
-                "courseadmin@university.edu", "Course Administrator"
-            );
-            courseAdmin.setAssignedProgram("Computer Science");
-            users.add(courseAdmin);
-            
-            saveUsers();
-        }
+        if (!getAllUsers().isEmpty()) return;
+        
+        AcademicOfficer admin = new AcademicOfficer(
+            "U001", "admin", PasswordUtil.hashPassword("admin123"),
+            "admin@university.edu", "System Administrator"
+        );
+        admin.setDepartment("Administration");
+        
+        CourseAdministrator courseAdmin = new CourseAdministrator(
+            "U002", "courseadmin", PasswordUtil.hashPassword("course123"),
+            "courseadmin@university.edu", "Course Administrator"
+        );
+        courseAdmin.setAssignedProgram("Computer Science");
+        
+        List<User> defaults = Arrays.asList(admin, courseAdmin);
+        guard.write(() -> {
+            for (User user : defaults) {
+                users.add(user);
+                indexUser(user);
+            }
+        });
+        userStore.putAll(defaults);
     }
     
     public User authenticate(String username, String password) {
-        for (User user : users) {
-            if (user.getUsername().equals(username) && user.isActive()) {
-                String hashedPassword = PasswordUtil.hashPassword(password);
-                if (user.getPassword().equals(hashedPassword)) {
-                    user.setLastLogin(LocalDateTime.now());
-                    currentUser = user;
-                    logLogin(user, "LOGIN", true);
-                    saveUsers();
-                    return user;
-                }
+        User user = findByUsername(username);
+        if (user != null && user.isActive()) {
+            String hashedPassword = PasswordUtil.hashPassword(password);
+            if (user.getPassword().equals(hashedPassword)) {
+                modifyUser(user.getUserId(), u -> {
+                    u.setLastLogin(LocalDateTime.now());
+                    return true;
+                });
+                currentUser = user;
+                logLogin(user, "LOGIN", true);
+                return user;
             }
         }
         logLogin(null, "LOGIN", false);
@@ -94,11 +130,15 @@ public class UserService {
     }
     
     public void logout() {
-        if (currentUser != null) {
-            currentUser.setLastLogout(LocalDateTime.now());
-            logLogin(currentUser, "LOGOUT", true);
-            saveUsers();
+        User user = currentUser;
+        if (user != null) {
+            modifyUser(user.getUserId(), u -> {
+                u.setLastLogout(LocalDateTime.now());
+                return true;
+            });
+            logLogin(user, "LOGOUT", true);
             currentUser = null;
+            PersistenceScheduler.getInstance().flushAll();
         }
     }
     
@@ -110,8 +150,7 @@ public class UserService {
             action,
             success
         );
-        loginLogs.add(log);
-        saveLoginLogs();
+        loginLog.append(log);
     }
     
     public User createUser(String username, String password, String email, String fullName, String role) {
@@ -125,10 +164,6 @@ public class UserService {
             throw new IllegalArgumentException("Invalid email format");
         }
         
-        if (findByUsername(username) != null) {
-            throw new IllegalArgumentException("Username already exists");
-        }
-        
         User user;
         String userId = generateId();
         String hashedPassword = PasswordUtil.hashPassword(password);
@@ -139,95 +174,122 @@ public class UserService {
             user = new CourseAdministrator(userId, username, hashedPassword, email, fullName);
         }
         
-        users.add(user);
-        saveUsers();
-        return user;
+        return userLocks.call(userId, () -> {
+            guard.write(() -> {
+                if (usernameIndex.containsKey(username)) {
+                    throw new IllegalArgumentException("Username already exists");
+                }
+                users.add(user);
+                indexUser(user);
+            });
+            userStore.put(user);
+            return user;
+        });
     }
     
     public void updateUser(User user) {
-        for (int i = 0; i < users.size(); i++) {
-            if (users.get(i).getUserId().equals(user.getUserId())) {
-                users.set(i, user);
-                saveUsers();
-                return;
+        userLocks.run(user.getUserId(), () -> {
+            boolean replaced = guard.write(() -> {
+                User existing = userIdIndex.get(user.getUserId());
+                if (existing == null || !users.replace(existing, user)) return false;
+                if (existing != user) {
+                    usernameIndex.remove(existing);
+                    emailIndex.remove(existing);
+                }
+                indexUser(user);
+                return true;
+            });
+            if (replaced) {
+                userStore.put(user);
             }
-        }
+        });
     }
     
     public void deactivateUser(String userId) {
-        User user = findById(userId);
-        if (user != null) {
+        modifyUser(userId, user -> {
             user.setActive(false);
-            saveUsers();
-        }
+            return true;
+        });
     }
     
     public void activateUser(String userId) {
-        User user = findById(userId);
-        if (user != null) {
+        modifyUser(userId, user -> {
             user.setActive(true);
-            saveUsers();
-        }
+            return true;
+        });
     }
     
     public String resetPassword(String userId) {
-        User user = findById(userId);
-        if (user != null) {
-            String newPassword = PasswordUtil.generateTemporaryPassword();
-            user.setPassword(PasswordUtil.hashPassword(newPassword));
-            saveUsers();
-            return newPassword;
-        }
-        return null;
+        String newPassword = PasswordUtil.generateTemporaryPassword();
+        String hashedPassword = PasswordUtil.hashPassword(newPassword);
+        boolean reset = modifyUser(userId, user -> {
+            user.setPassword(hashedPassword);
+            return true;
+        });
+        return reset ? newPassword : null;
     }
     
     public boolean changePassword(String userId, String oldPassword, String newPassword) {
-        User user = findById(userId);
-        if (user != null) {
-            String hashedOld = PasswordUtil.hashPassword(oldPassword);
-            if (user.getPassword().equals(hashedOld)) {
-                user.setPassword(PasswordUtil.hashPassword(newPassword));
-                saveUsers();
-                return true;
-            }
-        }
-        return false;
+        String hashedOld = PasswordUtil.hashPassword(oldPassword);
+        String hashedNew = PasswordUtil.hashPassword(newPassword);
+        return modifyUser(userId, user -> {
+            if (!user.getPassword().equals(hashedOld)) return false;
+            user.setPassword(hashedNew);
+            return true;
+        });
+    }
+    
+    private boolean modifyUser(String userId, Predicate<User> change) {
+        return userLocks.call(userId, () -> {
+            User changed = guard.write(() -> {
+                User user = userIdIndex.get(userId);
+                return user != null && change.test(user) ? user : null;
+            });
+            if (changed == null) return false;
+            userStore.put(changed);
+            return true;
+        });
     }
     
     public User findById(String userId) {
-        for (User user : users) {
-            if (user.getUserId().equals(userId)) {
-                return user;
-            }
-        }
-        return null;
+        return guard.read(() -> userIdIndex.get(userId));
     }
     
     public User findByUsername(String username) {
-        for (User user : users) {
-            if (user.getUsername().equals(username)) {
-                return user;
-            }
-        }
-        return null;
+        return guard.read(() -> usernameIndex.get(username));
     }
     
     public User findByEmail(String email) {
-        for (User user : users) {
-            if (user.getEmail().equals(email)) {
-                return user;
-            }
-        }
-        return null;
+        return guard.read(() -> emailIndex.get(email));
+    }
+    
+    public long getDataVersion() {
+        return userStore.getVersion();
+    }
+    
+    public List<String> getIndexStatistics() {
+        return guard.read(() -> Arrays.asList(userIdIndex.toString(), usernameIndex.toString(), emailIndex.toString()));
+    }
+    
+    private void rebuildIndexes(List<User> loaded) {
+        userIdIndex.rebuild(loaded);
+        usernameIndex.rebuild(loaded);
+        emailIndex.rebuild(loaded);
+    }
+    
+    private void indexUser(User user) {
+        userIdIndex.put(user);
+        usernameIndex.put(user);
+        emailIndex.put(user);
     }
     
     public List<User> getAllUsers() {
-        return new ArrayList<>(users);
+        return users.snapshot();
     }
     
     public List<User> getActiveUsers() {
         List<User> active = new ArrayList<>();
-        for (User user : users) {
+        for (User user : getAllUsers()) {
             if (user.isActive()) {
                 active.add(user);
             }
@@ -239,18 +301,20 @@ public class UserService {
         return currentUser;
     }
     
-    public List<LoginLog> getLoginLogs() {
-        return new ArrayList<>(loginLogs);
+    public List<LoginLog> getLoginLogs(int offset, int limit) {
+        return loginLog.page(offset, limit);
     }
     
-    public List<LoginLog> getLoginLogsForUser(String userId) {
-        List<LoginLog> userLogs = new ArrayList<>();
-        for (LoginLog log : loginLogs) {
-            if (log.getUserId().equals(userId)) {
-                userLogs.add(log);
-            }
-        }
-        return userLogs;
+    public List<LoginLog> getLoginLogsForUser(String userId, int offset, int limit) {
+        return loginLog.pageForKey(userId, offset, limit);
+    }
+    
+    public List<LoginLog> getLoginLogsBetween(LocalDateTime from, LocalDateTime to, int offset, int limit) {
+        return loginLog.pageBetween(from, to, offset, limit);
+    }
+    
+    public long getLoginLogCount() {
+        return loginLog.size();
     }
     
     private String generateId() {
@@ -0,0 +1,108 @@
+package crs.util;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Semaphore;
+
+public class ConnectionPool {
+    
+    public interface SqlWork<R> {
+        R run(Connection connection) throws SQLException;
+    }
+    
+    private static final int VALIDATION_TIMEOUT_SECONDS = 2;
+    
+    private final String url;
+    private final String user;
+    private final String password;
+    private final BlockingQueue<Connection> idle;
+    private final Semaphore permits;
+    private volatile boolean closed;
+    
+    public ConnectionPool(String url, String user, String password, int size) {
+        if (size < 1) {
+            throw new IllegalArgumentException("Pool size must be positive: " + size);
+        }
+        this.url = url;
+        this.user = user;
+        this.password = password;
+        this.idle = new ArrayBlockingQueue<>(size);
+        this.permits = new Semaphore(size, true);
+    }
+    
+    public <R> R execute(SqlWork<R> work) throws SQLException {
+        if (closed) {
+            throw new SQLException("Connection pool for " + url + " is closed");
+        }
+        permits.acquireUninterruptibly();
+        Connection connection = null;
+        boolean healthy = false;
+        try {
+            connection = borrow();
+            R result = work.run(connection);
+            healthy = true;
+            return result;
+        } finally {
+            release(connection, healthy);
+            permits.release();
+        }
+    }
+    
+    public <R> R inTransaction(SqlWork<R> work) throws SQLException {
+        return execute(connection -> {
+            connection.setAutoCommit(false);
+            try {
+                R result = work.run(connection);
+                connection.commit();
+                return result;
+            } catch (SQLException | RuntimeException e) {
+                connection.rollback();
+                throw e;
+            } finally {
+                connection.setAutoCommit(true);
+            }
+        });
+    }
+    
+    public void close() {
+        closed = true;
+        Connection connection;
+        while ((connection = idle.poll()) != null) {
+            closeQuietly(connection);
+        }
+    }
+    
+    @Override
+    public String toString() {
+        return String.format("%s: %d idle, %d available", url, idle.size(), permits.availablePermits());
+    }
+    
+    private Connection borrow() throws SQLException {
+        Connection connection;
+        while ((connection = idle.poll()) != null) {
+            if (connection.isValid(VALIDATION_TIMEOUT_SECONDS)) {
+                return connection;
+            }
+            closeQuietly(connection);
+        }
+        return user != null ? DriverManager.getConnection(url, user, password) : DriverManager.getConnection(url);
+    }
+    
+    private void release(Connection connection, boolean healthy) {
+        if (connection == null) return;
+        if (!healthy || closed || !idle.offer(connection)) {
+            closeQuietly(connection);
+        }
+    }
+    
+    private static void closeQuietly(Connection connection) {
+        try {
+            connection.close();
+        } catch (SQLException e) {
+            System.err.println("Error closing connection: " + e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,187 @@
+package crs.util;
+
+import java.io.IOException;
+import java.util.*;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+public class CsvImporter<T> {
+    
+    public interface RowParser<T> {
+        T parse(String[] fields);
+    }
+    
+    private static final int BATCH_SIZE = 4096;
+    private static final int THREADS = Math.max(1, Runtime.getRuntime().availableProcessors());
+    private static final int MAX_IN_FLIGHT = THREADS * 2;
+    
+    private static final ExecutorService workers = Executors.newFixedThreadPool(THREADS, r -> {
+        Thread thread = new Thread(r, "csv-import");
+        thread.setDaemon(true);
+        return thread;
+    });
+    
+    private final int minFields;
+    private final RowParser<T> parser;
+    private final Function<T, String> keyFunction;
+    
+    public CsvImporter(int minFields, RowParser<T> parser, Function<T, String> keyFunction) {
+        this.minFields = minFields;
+        this.parser = parser;
+        this.keyFunction = keyFunction;
+    }
+    
+    public ImportReport importFile(String filePath, Predicate<String> exists, Consumer<List<T>> commit) {
+        long start = System.currentTimeMillis();
+        ImportReport report = new ImportReport(filePath);
+        List<T> accepted = new ArrayList<>();
+        Set<String> seen = new HashSet<>();
+        Deque<Future<Batch<T>>> inFlight = new ArrayDeque<>();
+        
+        try (CsvReader reader = CsvReader.open(filePath)) {
+            reader.readRecord();
+            
+            Batch<T> batch = new Batch<>();
+            String[] record;
+            while ((record = reader.readRecord()) != null) {
+                if (record.length == 1 && record[0].trim().isEmpty()) continue;
+                
+                batch.add(record, reader.getRecordLine());
+                if (batch.size == BATCH_SIZE) {
+                    submit(batch, inFlight);
+                    batch = new Batch<>();
+                    if (inFlight.size() >= MAX_IN_FLIGHT) {
+                        merge(inFlight.poll(), report, accepted, seen, exists);
+                    }
+                }
+            }
+            if (batch.size > 0) {
+                submit(batch, inFlight);
+            }
+            while (!inFlight.isEmpty()) {
+                merge(inFlight.poll(), report, accepted, seen, exists);
+            }
+        } catch (IOException e) {
+            cancelAll(inFlight);
+            report.fail(e.getMessage());
+            return report;
+        }
+        
+        if (!accepted.isEmpty()) {
+            commit.accept(accepted);
+        }
+        report.setImported(accepted.size());
+        report.setElapsedMillis(System.currentTimeMillis() - start);
+        return report;
+    }
+    
+    private void submit(Batch<T> batch, Deque<Future<Batch<T>>> inFlight) {
+        inFlight.add(workers.submit(() -> parse(batch)));
+    }
+    
+    private Batch<T> parse(Batch<T> batch) {
+        for (int i = 0; i < batch.size; i++) {
+            String[] fields = batch.records[i];
+            batch.records[i] = null;
+            if (fields.length < minFields) {
+                batch.errors[i] = "expected " + minFields + " fields but found " + fields.length;
+                continue;
+            }
+            try {
+                batch.items[i] = parser.parse(fields);
+            } catch (IllegalArgumentException e) {
+                batch.errors[i] = e.getMessage();
+            }
+        }
+        return batch;
+    }
+    
+    private void merge(Future<Batch<T>> future, ImportReport report, List<T> accepted,
+                       Set<String> seen, Predicate<String> exists) throws IOException {
+        Batch<T> batch;
+        try {
+            batch = future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Import interrupted");
+        } catch (ExecutionException e) {
+            throw new IOException("Error parsing rows: " + e.getCause(), e.getCause());
+        }
+        
+        for (int i = 0; i < batch.size; i++) {
+            report.addRow();
+            T item = batch.items[i];
+            if (item == null) {
+                report.addInvalid(batch.lines[i], batch.errors[i]);
+                continue;
+            }
+            
+            String key = keyFunction.apply(item);
+            if (exists.test(key) || !seen.add(key)) {
+                report.addDuplicate(batch.lines[i], key);
+            } else {
+                accepted.add(item);
+            }
+        }
+    }
+    
+    private static void cancelAll(Deque<? extends Future<?>> inFlight) {
+        for (Future<?> future : inFlight) {
+            future.cancel(true);
+        }
+        inFlight.clear();
+    }
+    
+    public static String field(String[] fields, int index) {
+        return fields[index].trim();
+    }
+    
+    public static String required(String[] fields, int index, String name) {
+        String value = field(fields, index);
+        if (value.isEmpty()) {
+            throw new IllegalArgumentException(name + " is empty");
+        }
+        return value;
+    }
+    
+    public static int parseInt(String[] fields, int index, String name) {
+        String value = field(fields, index);
+        try {
+            return Integer.parseInt(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException(name + " '" + value + "' is not a whole number");
+        }
+    }
+    
+    public static Double parseOptionalDouble(String[] fields, int index, String name) {
+        String value = field(fields, index);
+        if (value.isEmpty()) {
+            return null;
+        }
+        try {
+            return Double.parseDouble(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException(name + " '" + value + "' is not a number");
+        }
+    }
+    
+    private static class Batch<T> {
+        final String[][] records = new String[BATCH_SIZE][];
+        final int[] lines = new int[BATCH_SIZE];
+        @SuppressWarnings("unchecked")
+        final T[] items = (T[]) new Object[BATCH_SIZE];
+        final String[] errors = new String[BATCH_SIZE];
+        int size;
+        
+        void add(String[] record, int line) {
+            records[size] = record;
+            lines[size] = line;
+            size++;
+        }
+    }
+}
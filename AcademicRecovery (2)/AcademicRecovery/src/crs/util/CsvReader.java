@@ -0,0 +1,122 @@
+package crs.util;
+
+import java.io.*;
+import java.util.ArrayList;
+import java.util.List;
+
+public class CsvReader implements Closeable {
+    
+    private static final int BUFFER_SIZE = 64 * 1024;
+    
+    private final Reader reader;
+    private final char[] buffer = new char[BUFFER_SIZE];
+    private int position;
+    private int limit;
+    
+    private final StringBuilder field = new StringBuilder();
+    private final List<String> record = new ArrayList<>();
+    private int lineNumber = 1;
+    private int recordLine;
+    
+    public CsvReader(Reader reader) {
+        this.reader = reader;
+    }
+    
+    public static CsvReader open(String filePath) throws IOException {
+        return new CsvReader(new InputStreamReader(new FileInputStream(filePath), "UTF-8"));
+    }
+    
+    public String[] readRecord() throws IOException {
+        int c = read();
+        if (c == '\uFEFF' && lineNumber == 1 && recordLine == 0) {
+            c = read();
+        }
+        if (c < 0) {
+            return null;
+        }
+        
+        recordLine = lineNumber;
+        record.clear();
+        field.setLength(0);
+        boolean quoted = false;
+        boolean inQuotes = false;
+        
+        while (true) {
+            if (inQuotes) {
+                if (c < 0) {
+                    throw new IOException("Unterminated quoted field starting on line " + recordLine);
+                } else if (c == '"') {
+                    int next = read();
+                    if (next == '"') {
+                        field.append('"');
+                    } else {
+                        inQuotes = false;
+                        c = next;
+                        continue;
+                    }
+                } else {
+                    if (c == '\n') {
+                        lineNumber++;
+                    }
+                    field.append((char) c);
+                }
+            } else if (c == ',') {
+                endField();
+                quoted = false;
+            } else if (c == '\r' || c == '\n' || c < 0) {
+                if (c == '\r' && peek() == '\n') {
+                    read();
+                }
+                if (c >= 0) {
+                    lineNumber++;
+                }
+                endField();
+                return record.toArray(new String[0]);
+            } else if (c == '"' && !quoted && field.length() == 0) {
+                quoted = true;
+                inQuotes = true;
+            } else {
+                field.append((char) c);
+            }
+            c = read();
+        }
+    }
+    
+    public int getRecordLine() {
+        return recordLine;
+    }
+    
+    private void endField() {
+        record.add(field.toString());
+        field.setLength(0);
+    }
+    
+    private int read() throws IOException {
+        if (position == limit && !fill()) {
+            return -1;
+        }
+        return buffer[position++];
+    }
+    
+    private int peek() throws IOException {
+        if (position == limit && !fill()) {
+            return -1;
+        }
+        return buffer[position];
+    }
+    
+    private boolean fill() throws IOException {
+        limit = reader.read(buffer, 0, buffer.length);
+        position = 0;
+        if (limit < 0) {
+            limit = 0;
+            return false;
+        }
+        return true;
+    }
+    
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+}
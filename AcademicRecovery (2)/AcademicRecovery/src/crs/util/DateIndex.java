@@ -0,0 +1,79 @@
+package crs.util;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.Function;
+
+public class DateIndex<T> {
+    
+    private final String name;
+    private final Function<T, LocalDate> dateFunction;
+    private final TreeMap<LocalDate, List<T>> byDate = new TreeMap<>();
+    private final Map<T, LocalDate> dateOf = new IdentityHashMap<>();
+    
+    public DateIndex(String name, Function<T, LocalDate> dateFunction) {
+        this.name = name;
+        this.dateFunction = dateFunction;
+    }
+    
+    public void rebuild(Collection<? extends T> items) {
+        clear();
+        for (T item : items) {
+            add(item);
+        }
+    }
+    
+    public void clear() {
+        byDate.clear();
+        dateOf.clear();
+    }
+    
+    public void add(T item) {
+        remove(item);
+        LocalDate date = dateFunction.apply(item);
+        if (date == null) return;
+        
+        byDate.computeIfAbsent(date, d -> new ArrayList<>(4)).add(item);
+        dateOf.put(item, date);
+    }
+    
+    public void remove(T item) {
+        LocalDate date = dateOf.remove(item);
+        if (date == null) return;
+        
+        List<T> group = byDate.get(date);
+        for (int i = 0; i < group.size(); i++) {
+            if (group.get(i) == item) {
+                group.remove(i);
+                break;
+            }
+        }
+        if (group.isEmpty()) {
+            byDate.remove(date);
+        }
+    }
+    
+    public List<T> onOrBefore(LocalDate date) {
+        List<T> items = new ArrayList<>();
+        for (List<T> group : byDate.headMap(date, true).values()) {
+            items.addAll(group);
+        }
+        return items;
+    }
+    
+    public int size() {
+        return dateOf.size();
+    }
+    
+    public String getName() { return name; }
+    
+    @Override
+    public String toString() {
+        return String.format("%s: %d items over %d dates", name, dateOf.size(), byDate.size());
+    }
+}
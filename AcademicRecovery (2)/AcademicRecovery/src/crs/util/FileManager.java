@@ -1,12 +1,35 @@
 package crs.util;
 
 import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedOutputStream;
 
 public class FileManager {
     
+    public interface ContentWriter {
+        void write(OutputStream out) throws IOException;
+    }
+    
     private static final String DATA_DIR = "data/";
+    private static final String TEMP_SUFFIX = ".tmp";
+    private static final String BACKUP_SUFFIX = ".bak";
+    private static final String CORRUPT_SUFFIX = ".corrupt";
+    
+    private static final byte[] FRAME_MAGIC = {'C', 'R', 'S', 'F'};
+    private static final int FRAME_VERSION = 1;
+    private static final int FRAME_HEADER_SIZE = FRAME_MAGIC.length + 4 + 8 + 4;
+    private static final int WRITE_BUFFER_SIZE = 64 * 1024;
     
     static {
         File dir = new File(DATA_DIR);
@@ -16,10 +39,14 @@ public class FileManager {
     }
     
     public static <T> void saveToTextFile(String filename, List<T> items) {
-        try (PrintWriter writer = new PrintWriter(new FileWriter(DATA_DIR + filename))) {
-            for (T item : items) {
-                writer.println(item.toString());
-            }
+        try {
+            writeAtomically(filename, false, out -> {
+                PrintWriter writer = new PrintWriter(new OutputStreamWriter(out));
+                for (T item : items) {
+                    writer.println(item.toString());
+                }
+                writer.flush();
+            });
         } catch (IOException e) {
             System.err.println("Error saving to text file: " + e.getMessage());
         }
@@ -53,19 +80,16 @@ public class FileManager {
             return items;
         }
         
-        try (ObjectInputStream ois = new ObjectInputStream(new FileInputStream(file))) {
-            items = (List<T>) ois.readObject();
-        } catch (IOException | ClassNotFoundException e) {
-            System.err.println("Error loading from binary file: " + e.getMessage());
-        }
-        return items;
+        return (List<T>) readObject(filename);
     }
     
-    public static <T> void saveToBinaryFile(String filename, List<T> items) {
-        try (ObjectOutputStream oos = new ObjectOutputStream(new FileOutputStream(DATA_DIR + filename))) {
-            oos.writeObject(items);
+    public static <T> boolean saveToBinaryFile(String filename, List<T> items) {
+        try {
+            writeObject(filename, items);
+            return true;
         } catch (IOException e) {
             System.err.println("Error saving to binary file: " + e.getMessage());
+            return false;
         }
     }
     
@@ -77,22 +101,57 @@ public class FileManager {
             return null;
         }
         
-        try (ObjectInputStream ois = new ObjectInputStream(new FileInputStream(file))) {
-            return (T) ois.readObject();
-        } catch (IOException | ClassNotFoundException e) {
-            System.err.println("Error loading object from binary file: " + e.getMessage());
-        }
-        return null;
+        return (T) readObject(filename);
     }
     
     public static <T> void saveObjectToBinaryFile(String filename, T item) {
-        try (ObjectOutputStream oos = new ObjectOutputStream(new FileOutputStream(DATA_DIR + filename))) {
-            oos.writeObject(item);
+        try {
+            writeObject(filename, item);
         } catch (IOException e) {
             System.err.println("Error saving object to binary file: " + e.getMessage());
         }
     }
     
+    public static void writeChecked(String filename, ContentWriter content) throws IOException {
+        writeAtomically(filename, true, content);
+    }
+    
+    public static byte[] readChecked(String filename) throws IOException {
+        File file = getFile(filename);
+        try {
+            return readFrame(file);
+        } catch (IOException e) {
+            File backup = getFile(filename + BACKUP_SUFFIX);
+            if (!backup.exists()) {
+                throw e;
+            }
+            
+            byte[] payload;
+            try {
+                payload = readFrame(backup);
+            } catch (IOException backupError) {
+                e.addSuppressed(backupError);
+                throw e;
+            }
+            System.err.println(filename + " is damaged (" + e.getMessage() + "), restoring previous generation");
+            restoreBackup(file, backup);
+            return payload;
+        }
+    }
+    
+    public static byte[] peekChecked(String filename, int length) throws IOException {
+        byte[] header = new byte[FRAME_HEADER_SIZE + length];
+        int read = 0;
+        try (InputStream in = Files.newInputStream(getFile(filename).toPath())) {
+            int n;
+            while (read < header.length && (n = in.read(header, read, header.length - read)) > 0) {
+                read += n;
+            }
+        }
+        int offset = startsWith(header, read, FRAME_MAGIC) ? FRAME_HEADER_SIZE : 0;
+        return Arrays.copyOfRange(header, offset, Math.max(offset, Math.min(read, offset + length)));
+    }
+    
     public static void appendToTextFile(String filename, String content) {
         try (PrintWriter writer = new PrintWriter(new FileWriter(DATA_DIR + filename, true))) {
             writer.println(content);
@@ -101,6 +160,167 @@ public class FileManager {
         }
     }
     
+    public static File getFile(String filename) {
+        return new File(DATA_DIR + filename);
+    }
+    
+    private static Object readObject(String filename) {
+        try (ObjectInputStream ois = new ObjectInputStream(new ByteArrayInputStream(readChecked(filename)))) {
+            return ois.readObject();
+        } catch (IOException | ClassNotFoundException e) {
+            throw new IllegalStateException("Cannot load " + filename + ": " + e.getMessage(), e);
+        }
+    }
+    
+    private static void writeObject(String filename, Object item) throws IOException {
+        writeChecked(filename, out -> {
+            ObjectOutputStream oos = new ObjectOutputStream(out);
+            oos.writeObject(item);
+            oos.flush();
+        });
+    }
+    
+    private static void writeAtomically(String filename, boolean framed, ContentWriter content) throws IOException {
+        Path target = getFile(filename).toPath();
+        Path temp = getFile(filename + TEMP_SUFFIX).toPath();
+        
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            int headerSize = framed ? FRAME_HEADER_SIZE : 0;
+            channel.position(headerSize);
+            CRC32 crc = new CRC32();
+            OutputStream out = new CheckedOutputStream(
+                new BufferedOutputStream(Channels.newOutputStream(channel), WRITE_BUFFER_SIZE), crc);
+            content.write(out);
+            out.flush();
+            
+            if (framed) {
+                ByteBuffer header = ByteBuffer.allocate(FRAME_HEADER_SIZE);
+                header.put(FRAME_MAGIC);
+                header.putInt(FRAME_VERSION);
+                header.putLong(channel.position() - headerSize);
+                header.putInt((int) crc.getValue());
+                header.flip();
+                while (header.hasRemaining()) {
+                    channel.write(header, header.position());
+                }
+            }
+            channel.force(true);
+        }
+        
+        if (Files.exists(target)) {
+            keepBackup(target, getFile(filename + BACKUP_SUFFIX).toPath());
+        }
+        moveAtomically(temp, target);
+        syncDirectory(target.getParent());
+    }
+    
+    private static byte[] readFrame(File file) throws IOException {
+        byte[] bytes = Files.readAllBytes(file.toPath());
+        if (!startsWith(bytes, bytes.length, FRAME_MAGIC)) {
+            if (bytes.length == 0) {
+                throw new IOException(file.getName() + " is empty");
+            }
+            return bytes;
+        }
+        if (bytes.length < FRAME_HEADER_SIZE) {
+            throw new IOException(file.getName() + " has a truncated header");
+        }
+        
+        ByteBuffer header = ByteBuffer.wrap(bytes, FRAME_MAGIC.length, FRAME_HEADER_SIZE - FRAME_MAGIC.length);
+        int version = header.getInt();
+        long length = header.getLong();
+        int checksum = header.getInt();
+        if (version != FRAME_VERSION) {
+            throw new IOException(file.getName() + " has unsupported frame version " + version);
+        }
+        if (length != bytes.length - FRAME_HEADER_SIZE) {
+            throw new IOException(file.getName() + " is truncated: expected " + length + " bytes, found "
+                + (bytes.length - FRAME_HEADER_SIZE));
+        }
+        
+        CRC32 crc = new CRC32();
+        crc.update(bytes, FRAME_HEADER_SIZE, (int) length);
+        if ((int) crc.getValue() != checksum) {
+            throw new IOException(file.getName() + " failed its checksum");
+        }
+        return Arrays.copyOfRange(bytes, FRAME_HEADER_SIZE, bytes.length);
+    }
+    
+    private static void restoreBackup(File file, File backup) {
+        try {
+            if (file.exists()) {
+                Files.move(file.toPath(), new File(file.getPath() + CORRUPT_SUFFIX).toPath(),
+                    StandardCopyOption.REPLACE_EXISTING);
+            }
+            Path temp = new File(file.getPath() + TEMP_SUFFIX).toPath();
+            Files.copy(backup.toPath(), temp, StandardCopyOption.REPLACE_EXISTING);
+            try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.WRITE)) {
+                channel.force(true);
+            }
+            moveAtomically(temp, file.toPath());
+            syncDirectory(file.toPath().getParent());
+        } catch (IOException e) {
+            System.err.println("Error restoring " + file.getName() + " from backup: " + e.getMessage());
+        }
+    }
+    
+    private static void keepBackup(Path target, Path backup) throws IOException {
+        Files.deleteIfExists(backup);
+        try {
+            Files.createLink(backup, target);
+        } catch (IOException | UnsupportedOperationException e) {
+            Files.copy(target, backup, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+    
+    private static void moveAtomically(Path source, Path target) throws IOException {
+        try {
+            Files.move(source, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(source, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+    
+    private static boolean syncDirectory(Path directory) {
+        if (directory == null) return false;
+        try (FileChannel channel = FileChannel.open(directory, StandardOpenOption.READ)) {
+            channel.force(true);
+            return true;
+        } catch (IOException e) {
+            return false;
+        }
+    }
+    
+    private static boolean startsWith(byte[] bytes, int length, byte[] prefix) {
+        if (length < prefix.length) return false;
+        for (int i = 0; i < prefix.length; i++) {
+            if (bytes[i] != prefix[i]) return false;
+        }
+        return true;
+    }
+    
+    public static boolean replaceFile(String sourceFilename, String targetFilename) {
+        File source = new File(DATA_DIR + sourceFilename);
+        if (!source.exists()) {
+            return false;
+        }
+        
+        File target = new File(DATA_DIR + targetFilename);
+        try {
+            try {
+                Files.move(source.toPath(), target.toPath(),
+                    StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(source.toPath(), target.toPath(), StandardCopyOption.REPLACE_EXISTING);
+            }
+            return true;
+        } catch (IOException e) {
+            System.err.println("Error replacing file: " + e.getMessage());
+            return false;
+        }
+    }
+    
     public static boolean fileExists(String filename) {
         return new File(DATA_DIR + filename).exists();
     }
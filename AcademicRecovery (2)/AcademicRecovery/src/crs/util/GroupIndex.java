@@ -0,0 +1,69 @@
+package crs.util;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+public class GroupIndex<T> {
+    
+    private final String name;
+    private final Function<T, String> keyFunction;
+    private final Map<String, List<T>> groups = new HashMap<>();
+    
+    public GroupIndex(String name, Function<T, String> keyFunction) {
+        this.name = name;
+        this.keyFunction = keyFunction;
+    }
+    
+    public void rebuild(Collection<? extends T> items) {
+        groups.clear();
+        for (T item : items) {
+            add(item);
+        }
+    }
+    
+    public void add(T item) {
+        groups.computeIfAbsent(keyFunction.apply(item), k -> new ArrayList<>(4)).add(item);
+    }
+    
+    public void remove(T item) {
+        String key = keyFunction.apply(item);
+        List<T> group = groups.get(key);
+        if (group == null) return;
+        
+        for (int i = 0; i < group.size(); i++) {
+            if (group.get(i) == item) {
+                group.remove(i);
+                break;
+            }
+        }
+        if (group.isEmpty()) {
+            groups.remove(key);
+        }
+    }
+    
+    public void replace(T oldItem, T newItem) {
+        remove(oldItem);
+        add(newItem);
+    }
+    
+    public List<T> get(String key) {
+        List<T> group = groups.get(key);
+        return group != null ? Collections.unmodifiableList(group) : Collections.emptyList();
+    }
+    
+    public int groupCount() {
+        return groups.size();
+    }
+    
+    public String getName() { return name; }
+    
+    @Override
+    public String toString() {
+        return String.format("%s: %d groups", name, groups.size());
+    }
+}
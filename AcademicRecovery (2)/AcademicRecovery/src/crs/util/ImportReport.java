@@ -0,0 +1,98 @@
+package crs.util;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+public class ImportReport {
+    
+    private static final int MAX_MESSAGES = 200;
+    
+    private final String source;
+    private final List<String> messages = new ArrayList<>();
+    private int rowsRead;
+    private int imported;
+    private int invalid;
+    private int duplicates;
+    private String failure;
+    private long elapsedMillis;
+    
+    public ImportReport(String filePath) {
+        this.source = new File(filePath).getName();
+    }
+    
+    void addRow() {
+        rowsRead++;
+    }
+    
+    void addInvalid(int line, String message) {
+        invalid++;
+        addMessage(line, message);
+    }
+    
+    void addDuplicate(int line, String key) {
+        duplicates++;
+        addMessage(line, "duplicate ID " + key);
+    }
+    
+    void setImported(int imported) {
+        this.imported = imported;
+    }
+    
+    void setElapsedMillis(long elapsedMillis) {
+        this.elapsedMillis = elapsedMillis;
+    }
+    
+    void fail(String failure) {
+        this.failure = failure;
+        this.imported = 0;
+    }
+    
+    private void addMessage(int line, String message) {
+        if (messages.size() < MAX_MESSAGES) {
+            messages.add("Line " + line + ": " + message);
+        }
+    }
+    
+    public String getSource() { return source; }
+    
+    public int getRowsRead() { return rowsRead; }
+    
+    public int getImported() { return imported; }
+    
+    public int getInvalid() { return invalid; }
+    
+    public int getDuplicates() { return duplicates; }
+    
+    public long getElapsedMillis() { return elapsedMillis; }
+    
+    public boolean isFailed() { return failure != null; }
+    
+    public String getFailure() { return failure; }
+    
+    public boolean hasProblems() {
+        return failure != null || invalid > 0 || duplicates > 0;
+    }
+    
+    public List<String> getMessages() {
+        return Collections.unmodifiableList(messages);
+    }
+    
+    public int getOmittedMessages() {
+        return invalid + duplicates - messages.size();
+    }
+    
+    public String getSummary() {
+        if (failure != null) {
+            return "Import of " + source + " failed: " + failure;
+        }
+        return String.format("Imported %d of %d rows from %s (%d duplicates, %d invalid) in %d ms",
+            imported, rowsRead, source, duplicates, invalid, elapsedMillis);
+    }
+    
+    @Override
+    public String toString() {
+        return getSummary();
+    }
+}
@@ -0,0 +1,463 @@
+package crs.util;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.zip.CRC32;
+
+public class JournalStore<T extends Serializable> {
+    
+    private static final byte OP_PUT = 1;
+    private static final byte OP_REMOVE = 2;
+    private static final byte OP_PUT_RECORD = 3;
+    
+    private static final int COMPACT_RECORD_THRESHOLD = 5000;
+    private static final long COMPACT_SIZE_THRESHOLD = 8L * 1024 * 1024;
+    
+    private static final ExecutorService compactor = Executors.newSingleThreadExecutor(r -> {
+        Thread thread = new Thread(r, "journal-compactor");
+        thread.setDaemon(true);
+        return thread;
+    });
+    
+    private final String snapshotFile;
+    private final String journalFile;
+    private final String rotatedJournalFile;
+    private final Function<T, String> keyFunction;
+    private final RecordCodec<T> codec;
+    
+    private Supplier<List<T>> source;
+    private FileChannel channel;
+    private Future<?> compaction;
+    
+    private final List<byte[]> pending = new ArrayList<>();
+    private long appendedCount;
+    private long durableCount;
+    private long failedCount;
+    private Exception writeFailure;
+    private boolean flushing;
+    private int recordsSinceCompaction;
+    private int legacyRecords;
+    private final AtomicLong version = new AtomicLong();
+    
+    public JournalStore(String snapshotFile, Function<T, String> keyFunction) {
+        this(snapshotFile, keyFunction, null);
+    }
+    
+    public JournalStore(String snapshotFile, Function<T, String> keyFunction, RecordCodec<T> codec) {
+        this.snapshotFile = snapshotFile;
+        this.journalFile = baseName(snapshotFile) + ".wal";
+        this.rotatedJournalFile = journalFile + ".old";
+        this.keyFunction = keyFunction;
+        this.codec = codec;
+    }
+    
+    public synchronized List<T> load() {
+        awaitCompaction();
+        closeChannel();
+        
+        Map<String, T> state = new LinkedHashMap<>();
+        boolean legacy = false;
+        List<T> snapshot;
+        if (codec != null && RecordFile.isRecordFile(snapshotFile)) {
+            try {
+                snapshot = RecordFile.load(snapshotFile, codec);
+            } catch (IOException e) {
+                throw new IllegalStateException("Cannot load " + snapshotFile + ": " + e.getMessage(), e);
+            }
+        } else {
+            snapshot = FileManager.loadFromBinaryFile(snapshotFile);
+            legacy = codec != null && FileManager.getFile(snapshotFile).exists();
+        }
+        if (snapshot != null) {
+            for (T item : snapshot) {
+                state.put(keyFunction.apply(item), item);
+            }
+        }
+        
+        legacyRecords = 0;
+        recordsSinceCompaction = replay(rotatedJournalFile, state, false);
+        recordsSinceCompaction += replay(journalFile, state, true);
+        if (legacy || legacyRecords > 0) {
+            migrate(state.values());
+        }
+        openChannel();
+        version.incrementAndGet();
+        
+        return new ArrayList<>(state.values());
+    }
+    
+    public void setSource(Supplier<List<T>> source) {
+        this.source = source;
+    }
+    
+    public void put(T item) {
+        version.incrementAndGet();
+        commit(Collections.singletonList(encode(OP_PUT, keyFunction.apply(item), item)));
+    }
+    
+    public void putAll(Collection<? extends T> items) {
+        if (items.isEmpty()) return;
+        version.incrementAndGet();
+        if (items.size() >= COMPACT_RECORD_THRESHOLD && source != null) {
+            checkpoint();
+            return;
+        }
+        List<byte[]> records = new ArrayList<>(items.size());
+        for (T item : items) {
+            records.add(encode(OP_PUT, keyFunction.apply(item), item));
+        }
+        commit(records);
+    }
+    
+    public void remove(String key) {
+        version.incrementAndGet();
+        commit(Collections.singletonList(encode(OP_REMOVE, key, null)));
+    }
+    
+    public void removeAll(Collection<String> keys) {
+        if (keys.isEmpty()) return;
+        version.incrementAndGet();
+        List<byte[]> records = new ArrayList<>(keys.size());
+        for (String key : keys) {
+            records.add(encode(OP_REMOVE, key, null));
+        }
+        commit(records);
+    }
+    
+    public long getVersion() {
+        return version.get();
+    }
+    
+    public void checkpoint() {
+        synchronized (this) {
+            while (flushing) {
+                awaitFlush();
+            }
+            flushing = true;
+        }
+        try {
+            rotateAndCompact();
+        } finally {
+            synchronized (this) {
+                flushing = false;
+                notifyAll();
+            }
+        }
+        awaitCompaction();
+    }
+    
+    public synchronized void close() {
+        awaitCompaction();
+        closeChannel();
+    }
+    
+    private void commit(List<byte[]> records) {
+        List<byte[]> batch;
+        long target;
+        synchronized (this) {
+            pending.addAll(records);
+            appendedCount += records.size();
+            target = appendedCount;
+            
+            while (flushing && durableCount < target) {
+                awaitFlush();
+                if (durableCount < target && failedCount >= target) {
+                    throw new IllegalStateException("Cannot write journal " + journalFile + ": " + writeFailure,
+                        writeFailure);
+                }
+            }
+            if (durableCount >= target) {
+                return;
+            }
+            
+            flushing = true;
+            batch = new ArrayList<>(pending);
+            pending.clear();
+            target = appendedCount;
+        }
+        
+        boolean written = false;
+        Exception failure = null;
+        try {
+            writeBatch(batch);
+            written = true;
+            recordsSinceCompaction += batch.size();
+            if (recordsSinceCompaction >= COMPACT_RECORD_THRESHOLD || channel.size() >= COMPACT_SIZE_THRESHOLD) {
+                rotateAndCompact();
+            }
+        } catch (IOException | RuntimeException e) {
+            if (written) {
+                System.err.println("Error compacting journal " + journalFile + ": " + e.getMessage());
+            } else {
+                failure = e;
+                throw new IllegalStateException("Cannot write journal " + journalFile + ": " + e.getMessage(), e);
+            }
+        } finally {
+            synchronized (this) {
+                if (written) {
+                    durableCount = target;
+                } else {
+                    pending.addAll(0, batch);
+                    failedCount = target;
+                    writeFailure = failure;
+                }
+                flushing = false;
+                notifyAll();
+            }
+        }
+    }
+    
+    private void writeBatch(List<byte[]> batch) throws IOException {
+        if (channel == null) {
+            openChannel();
+        }
+        
+        int size = 0;
+        for (byte[] record : batch) {
+            size += 8 + record.length;
+        }
+        
+        ByteBuffer buffer = ByteBuffer.allocate(size);
+        CRC32 crc = new CRC32();
+        for (byte[] record : batch) {
+            crc.reset();
+            crc.update(record);
+            buffer.putInt(record.length);
+            buffer.putInt((int) crc.getValue());
+            buffer.put(record);
+        }
+        buffer.flip();
+        
+        long start = channel.size();
+        try {
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            channel.force(false);
+        } catch (IOException e) {
+            try {
+                channel.truncate(start);
+            } catch (IOException truncateFailure) {
+                e.addSuppressed(truncateFailure);
+            }
+            throw e;
+        }
+    }
+    
+    private void rotateAndCompact() {
+        if (source == null) return;
+        awaitCompaction();
+        
+        byte[] image = encodeSnapshot(source.get());
+        closeChannel();
+        rotateJournal();
+        recordsSinceCompaction = 0;
+        
+        compaction = compactor.submit(() -> {
+            if (saveSnapshot(image)) {
+                FileManager.deleteFile(rotatedJournalFile);
+            }
+        });
+        openChannel();
+    }
+    
+    private byte[] encodeSnapshot(List<T> items) {
+        if (codec != null) {
+            return RecordFile.encode(items, codec);
+        }
+        try {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            ObjectOutputStream oos = new ObjectOutputStream(bytes);
+            oos.writeObject(new ArrayList<>(items));
+            oos.flush();
+            return bytes.toByteArray();
+        } catch (IOException e) {
+            throw new IllegalStateException("Cannot encode snapshot " + snapshotFile, e);
+        }
+    }
+    
+    private boolean saveSnapshot(byte[] image) {
+        try {
+            FileManager.writeChecked(snapshotFile, out -> out.write(image));
+            return true;
+        } catch (IOException e) {
+            System.err.println("Error saving snapshot " + snapshotFile + ": " + e.getMessage());
+            return false;
+        }
+    }
+    
+    private void migrate(Collection<T> items) {
+        if (saveSnapshot(encodeSnapshot(new ArrayList<>(items)))) {
+            FileManager.deleteFile(rotatedJournalFile);
+            FileManager.deleteFile(journalFile);
+            recordsSinceCompaction = 0;
+        }
+    }
+    
+    private void rotateJournal() {
+        File rotated = FileManager.getFile(rotatedJournalFile);
+        if (!rotated.exists()) {
+            FileManager.replaceFile(journalFile, rotatedJournalFile);
+            return;
+        }
+        
+        try {
+            byte[] tail = Files.readAllBytes(FileManager.getFile(journalFile).toPath());
+            Files.write(rotated.toPath(), tail, StandardOpenOption.APPEND);
+            FileManager.deleteFile(journalFile);
+        } catch (IOException e) {
+            System.err.println("Error rotating journal " + journalFile + ": " + e.getMessage());
+        }
+    }
+    
+    private void awaitCompaction() {
+        Future<?> running = compaction;
+        if (running == null) return;
+        try {
+            running.get();
+        } catch (Exception e) {
+            System.err.println("Error compacting " + snapshotFile + ": " + e.getMessage());
+        }
+    }
+    
+    private int replay(String filename, Map<String, T> state, boolean truncateTornTail) {
+        File file = FileManager.getFile(filename);
+        if (!file.exists()) {
+            return 0;
+        }
+        
+        int count = 0;
+        long validLength = 0;
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+            CRC32 crc = new CRC32();
+            while (true) {
+                int length;
+                try {
+                    length = in.readInt();
+                } catch (EOFException e) {
+                    break;
+                }
+                int checksum = in.readInt();
+                if (length < 0 || length > file.length()) break;
+                byte[] record = new byte[length];
+                in.readFully(record);
+                
+                crc.reset();
+                crc.update(record);
+                if ((int) crc.getValue() != checksum) break;
+                
+                try {
+                    apply(record, state);
+                } catch (IOException | ClassNotFoundException | RuntimeException e) {
+                    throw new IllegalStateException("Cannot decode record " + (count + 1) + " at offset "
+                        + validLength + " of journal " + filename + ": " + e, e);
+                }
+                validLength += 8 + length;
+                count++;
+            }
+        } catch (IOException e) {
+            System.err.println("Journal " + filename + " ends with an incomplete record: " + e.getMessage());
+        }
+        
+        if (truncateTornTail && validLength < file.length()) {
+            try (FileChannel ch = FileChannel.open(file.toPath(), StandardOpenOption.WRITE)) {
+                ch.truncate(validLength);
+            } catch (IOException e) {
+                System.err.println("Error truncating journal " + filename + ": " + e.getMessage());
+            }
+        }
+        return count;
+    }
+    
+    @SuppressWarnings("unchecked")
+    private void apply(byte[] record, Map<String, T> state) throws IOException, ClassNotFoundException {
+        DataInputStream recordIn = new DataInputStream(new ByteArrayInputStream(record));
+        byte op = recordIn.readByte();
+        String key = recordIn.readUTF();
+        if (op == OP_PUT) {
+            try (ObjectInputStream ois = new ObjectInputStream(recordIn)) {
+                T item = (T) ois.readObject();
+                state.remove(key);
+                state.put(key, item);
+            }
+            legacyRecords++;
+        } else if (op == OP_PUT_RECORD && codec != null) {
+            RecordReader reader = new RecordReader(record, record.length - recordIn.available(), recordIn.available());
+            T item = codec.read(reader, reader.readVarInt());
+            state.remove(key);
+            state.put(key, item);
+        } else if (op == OP_REMOVE) {
+            state.remove(key);
+        }
+    }
+    
+    private byte[] encode(byte op, String key, T item) {
+        try {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream(256);
+            DataOutputStream out = new DataOutputStream(bytes);
+            if (item != null && codec != null) {
+                RecordWriter writer = new RecordWriter();
+                writer.writeVarInt(codec.getVersion());
+                codec.write(writer, item);
+                out.writeByte(OP_PUT_RECORD);
+                out.writeUTF(key);
+                out.write(writer.buffer(), 0, writer.size());
+                return bytes.toByteArray();
+            }
+            out.writeByte(op);
+            out.writeUTF(key);
+            if (item != null) {
+                ObjectOutputStream oos = new ObjectOutputStream(out);
+                oos.writeObject(item);
+                oos.flush();
+            }
+            out.flush();
+            return bytes.toByteArray();
+        } catch (IOException e) {
+            throw new IllegalStateException("Cannot encode journal record for " + key, e);
+        }
+    }
+    
+    private void openChannel() {
+        try {
+            channel = FileChannel.open(FileManager.getFile(journalFile).toPath(),
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        } catch (IOException e) {
+            throw new IllegalStateException("Cannot open journal " + journalFile + ": " + e.getMessage(), e);
+        }
+    }
+    
+    private void closeChannel() {
+        if (channel == null) return;
+        try {
+            channel.close();
+        } catch (IOException e) {
+            System.err.println("Error closing journal " + journalFile + ": " + e.getMessage());
+        }
+        channel = null;
+    }
+    
+    private void awaitFlush() {
+        try {
+            wait();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted waiting for journal " + journalFile, e);
+        }
+    }
+    
+    private static String baseName(String filename) {
+        int dot = filename.lastIndexOf('.');
+        return dot > 0 ? filename.substring(0, dot) : filename;
+    }
+}
@@ -0,0 +1,94 @@
+package crs.util;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+public class KeyIndex<T> {
+    
+    private final String name;
+    private final Function<T, String> keyFunction;
+    private final Map<String, T> byKey = new HashMap<>();
+    private final Map<T, String> keyOf = new IdentityHashMap<>();
+    
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    
+    public KeyIndex(String name, Function<T, String> keyFunction) {
+        this.name = name;
+        this.keyFunction = keyFunction;
+    }
+    
+    public void rebuild(Collection<? extends T> items) {
+        byKey.clear();
+        keyOf.clear();
+        for (T item : items) {
+            String key = keyFunction.apply(item);
+            if (key != null && !byKey.containsKey(key)) {
+                byKey.put(key, item);
+                keyOf.put(item, key);
+            }
+        }
+    }
+    
+    public void put(T item) {
+        String key = keyFunction.apply(item);
+        String oldKey = keyOf.remove(item);
+        if (oldKey != null && byKey.get(oldKey) == item) {
+            byKey.remove(oldKey);
+        }
+        if (key == null) return;
+        
+        T previous = byKey.put(key, item);
+        if (previous != null && previous != item) {
+            keyOf.remove(previous);
+        }
+        keyOf.put(item, key);
+    }
+    
+    public void remove(T item) {
+        String key = keyOf.remove(item);
+        if (key != null && byKey.get(key) == item) {
+            byKey.remove(key);
+        }
+    }
+    
+    public void removeKey(String key) {
+        T item = byKey.remove(key);
+        if (item != null) {
+            keyOf.remove(item);
+        }
+    }
+    
+    public T get(String key) {
+        T item = key != null ? byKey.get(key) : null;
+        if (item != null) {
+            hits.incrementAndGet();
+        } else {
+            misses.incrementAndGet();
+        }
+        return item;
+    }
+    
+    public boolean containsKey(String key) {
+        return key != null && byKey.containsKey(key);
+    }
+    
+    public int size() {
+        return byKey.size();
+    }
+    
+    public String getName() { return name; }
+    
+    public long getHitCount() { return hits.get(); }
+    
+    public long getMissCount() { return misses.get(); }
+    
+    @Override
+    public String toString() {
+        return String.format("%s: %d keys, %d hits, %d misses", name, byKey.size(), hits.get(), misses.get());
+    }
+}
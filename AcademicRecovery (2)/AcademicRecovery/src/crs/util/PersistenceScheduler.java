@@ -0,0 +1,104 @@
+package crs.util;
+
+import java.io.Flushable;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+public class PersistenceScheduler {
+    
+    private static final int MAX_DELAY_FACTOR = 4;
+    
+    private final long delayNanos;
+    private final ScheduledExecutorService executor;
+    private final Map<Flushable, Pending> pending = new HashMap<>();
+    private final Object flushing = new Object();
+    
+    private static class Pending {
+        final long firstMarked;
+        ScheduledFuture<?> future;
+        
+        Pending(long firstMarked) {
+            this.firstMarked = firstMarked;
+        }
+    }
+    
+    private PersistenceScheduler() {
+        delayNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(0, Long.getLong("crs.flushDelayMillis", 200)));
+        executor = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "persistence-flush");
+            thread.setDaemon(true);
+            return thread;
+        });
+        Runtime.getRuntime().addShutdownHook(new Thread(this::flushAll, "persistence-shutdown"));
+    }
+    
+    private static class Holder {
+        static final PersistenceScheduler INSTANCE = new PersistenceScheduler();
+    }
+    
+    public static PersistenceScheduler getInstance() {
+        return Holder.INSTANCE;
+    }
+    
+    public boolean isDeferred() {
+        return delayNanos > 0;
+    }
+    
+    public long getDelayMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(delayNanos);
+    }
+    
+    public synchronized void markDirty(Flushable target) {
+        long now = System.nanoTime();
+        Pending entry = pending.get(target);
+        if (entry == null) {
+            entry = new Pending(now);
+            pending.put(target, entry);
+        } else {
+            entry.future.cancel(false);
+        }
+        
+        long deadline = Math.min(now + delayNanos, entry.firstMarked + delayNanos * MAX_DELAY_FACTOR);
+        entry.future = executor.schedule(() -> flush(target), Math.max(0, deadline - now), TimeUnit.NANOSECONDS);
+    }
+    
+    public void flushAll() {
+        synchronized (flushing) {
+            List<Flushable> targets;
+            synchronized (this) {
+                targets = new ArrayList<>(pending.keySet());
+                for (Pending entry : pending.values()) {
+                    entry.future.cancel(false);
+                }
+                pending.clear();
+            }
+            for (Flushable target : targets) {
+                flushQuietly(target);
+            }
+        }
+    }
+    
+    private void flush(Flushable target) {
+        synchronized (flushing) {
+            synchronized (this) {
+                pending.remove(target);
+            }
+            flushQuietly(target);
+        }
+    }
+    
+    private static void flushQuietly(Flushable target) {
+        try {
+            target.flush();
+        } catch (IOException | RuntimeException e) {
+            System.err.println("Error flushing " + target + ": " + e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,233 @@
+package crs.util;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.RandomAccess;
+import java.util.function.Predicate;
+
+public final class PersistentVector<T> extends AbstractList<T> implements RandomAccess {
+    
+    private static final int BITS = 5;
+    private static final int WIDTH = 1 << BITS;
+    private static final int MASK = WIDTH - 1;
+    private static final Object[] EMPTY_NODE = new Object[0];
+    
+    private static final PersistentVector<?> EMPTY = new PersistentVector<>(0, BITS, EMPTY_NODE, EMPTY_NODE);
+    
+    private final int size;
+    private final int shift;
+    private final Object[] root;
+    private final Object[] tail;
+    
+    private PersistentVector(int size, int shift, Object[] root, Object[] tail) {
+        this.size = size;
+        this.shift = shift;
+        this.root = root;
+        this.tail = tail;
+    }
+    
+    @SuppressWarnings("unchecked")
+    public static <T> PersistentVector<T> empty() {
+        return (PersistentVector<T>) EMPTY;
+    }
+    
+    public static <T> PersistentVector<T> of(Collection<? extends T> items) {
+        PersistentVector<T> vector = empty();
+        return vector.appendAll(items);
+    }
+    
+    @Override
+    public int size() {
+        return size;
+    }
+    
+    @Override
+    @SuppressWarnings("unchecked")
+    public T get(int index) {
+        return (T) leafFor(index)[index & MASK];
+    }
+    
+    public PersistentVector<T> append(T item) {
+        int tailLength = size - tailOffset();
+        if (tailLength < WIDTH) {
+            Object[] newTail = new Object[tailLength + 1];
+            System.arraycopy(tail, 0, newTail, 0, tailLength);
+            newTail[tailLength] = item;
+            return new PersistentVector<>(size + 1, shift, root, newTail);
+        }
+        
+        Object[] newRoot;
+        int newShift = shift;
+        if ((size >>> BITS) > (1 << shift)) {
+            newRoot = new Object[] {root, newPath(shift, tail)};
+            newShift += BITS;
+        } else {
+            newRoot = pushTail(size, shift, root, tail);
+        }
+        return new PersistentVector<>(size + 1, newShift, newRoot, new Object[] {item});
+    }
+    
+    public PersistentVector<T> appendAll(Collection<? extends T> items) {
+        if (items.isEmpty()) return this;
+        
+        Builder builder = new Builder(this);
+        for (T item : items) {
+            builder.append(item);
+        }
+        return builder.build();
+    }
+    
+    public PersistentVector<T> update(int index, T item) {
+        checkIndex(index);
+        if (index >= tailOffset()) {
+            Object[] newTail = tail.clone();
+            newTail[index & MASK] = item;
+            return new PersistentVector<>(size, shift, root, newTail);
+        }
+        return new PersistentVector<>(size, shift, assoc(shift, root, index, item), tail);
+    }
+    
+    public PersistentVector<T> without(Predicate<? super T> filter) {
+        List<T> kept = new ArrayList<>(size);
+        for (T item : this) {
+            if (!filter.test(item)) {
+                kept.add(item);
+            }
+        }
+        return kept.size() == size ? this : of(kept);
+    }
+    
+    @Override
+    public Iterator<T> iterator() {
+        return new Iterator<T>() {
+            private int index;
+            private Object[] leaf = size > 0 ? leafFor(0) : EMPTY_NODE;
+            
+            @Override
+            public boolean hasNext() {
+                return index < size;
+            }
+            
+            @Override
+            @SuppressWarnings("unchecked")
+            public T next() {
+                if (index >= size) {
+                    throw new NoSuchElementException();
+                }
+                if (index > 0 && (index & MASK) == 0) {
+                    leaf = leafFor(index);
+                }
+                return (T) leaf[index++ & MASK];
+            }
+        };
+    }
+    
+    private int tailOffset() {
+        return size < WIDTH ? 0 : ((size - 1) >>> BITS) << BITS;
+    }
+    
+    private Object[] leafFor(int index) {
+        checkIndex(index);
+        if (index >= tailOffset()) {
+            return tail;
+        }
+        Object[] node = root;
+        for (int level = shift; level > 0; level -= BITS) {
+            node = (Object[]) node[(index >>> level) & MASK];
+        }
+        return node;
+    }
+    
+    private void checkIndex(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index " + index + " out of bounds for size " + size);
+        }
+    }
+    
+    private static Object[] pushTail(int size, int level, Object[] parent, Object[] tailNode) {
+        int subIndex = ((size - 1) >>> level) & MASK;
+        Object[] node = new Object[Math.max(parent.length, subIndex + 1)];
+        System.arraycopy(parent, 0, node, 0, parent.length);
+        
+        Object[] inserted;
+        if (level == BITS) {
+            inserted = tailNode;
+        } else {
+            Object[] child = subIndex < parent.length ? (Object[]) parent[subIndex] : null;
+            inserted = child != null ? pushTail(size, level - BITS, child, tailNode) : newPath(level - BITS, tailNode);
+        }
+        node[subIndex] = inserted;
+        return node;
+    }
+    
+    private static Object[] newPath(int level, Object[] node) {
+        Object[] path = node;
+        for (int l = level; l > 0; l -= BITS) {
+            path = new Object[] {path};
+        }
+        return path;
+    }
+    
+    private static Object[] assoc(int level, Object[] node, int index, Object item) {
+        Object[] copy = node.clone();
+        if (level == 0) {
+            copy[index & MASK] = item;
+        } else {
+            int subIndex = (index >>> level) & MASK;
+            copy[subIndex] = assoc(level - BITS, (Object[]) node[subIndex], index, item);
+        }
+        return copy;
+    }
+    
+    private final class Builder {
+        private PersistentVector<T> vector;
+        private Object[] pendingTail;
+        private int pendingCount;
+        
+        Builder(PersistentVector<T> vector) {
+            this.vector = vector;
+        }
+        
+        void append(T item) {
+            if (vector.size - vector.tailOffset() < WIDTH && pendingTail == null) {
+                vector = vector.append(item);
+                return;
+            }
+            if (pendingTail == null) {
+                pendingTail = new Object[WIDTH];
+            }
+            pendingTail[pendingCount++] = item;
+            if (pendingCount == WIDTH) {
+                flush();
+            }
+        }
+        
+        PersistentVector<T> build() {
+            if (pendingCount > 0) {
+                flush();
+            }
+            return vector;
+        }
+        
+        private void flush() {
+            Object[] chunk = new Object[pendingCount];
+            System.arraycopy(pendingTail, 0, chunk, 0, pendingCount);
+            pendingTail = null;
+            pendingCount = 0;
+            
+            Object[] newRoot;
+            int newShift = vector.shift;
+            if ((vector.size >>> BITS) > (1 << vector.shift)) {
+                newRoot = new Object[] {vector.root, newPath(vector.shift, vector.tail)};
+                newShift += BITS;
+            } else {
+                newRoot = pushTail(vector.size, vector.shift, vector.root, vector.tail);
+            }
+            vector = new PersistentVector<>(vector.size + chunk.length, newShift, newRoot, chunk);
+        }
+    }
+}
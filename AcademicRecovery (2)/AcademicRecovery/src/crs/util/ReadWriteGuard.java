@@ -0,0 +1,34 @@
+package crs.util;
+
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Supplier;
+
+public class ReadWriteGuard {
+    
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    
+    public <R> R read(Supplier<R> action) {
+        return call(lock.readLock(), action);
+    }
+    
+    public <R> R write(Supplier<R> action) {
+        return call(lock.writeLock(), action);
+    }
+    
+    public void write(Runnable action) {
+        call(lock.writeLock(), () -> {
+            action.run();
+            return null;
+        });
+    }
+    
+    private static <R> R call(Lock held, Supplier<R> action) {
+        held.lock();
+        try {
+            return action.get();
+        } finally {
+            held.unlock();
+        }
+    }
+}
@@ -0,0 +1,12 @@
+package crs.util;
+
+import java.io.IOException;
+
+public interface RecordCodec<T> {
+    
+    int getVersion();
+    
+    void write(RecordWriter out, T item);
+    
+    T read(RecordReader in, int version) throws IOException;
+}
@@ -0,0 +1,77 @@
+package crs.util;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+public class RecordFile {
+    
+    private static final byte[] MAGIC = {'C', 'R', 'S', 'B'};
+    private static final int FORMAT_VERSION = 1;
+    
+    public static boolean isRecordFile(String filename) {
+        File file = FileManager.getFile(filename);
+        if (!file.exists() || file.length() < MAGIC.length) {
+            return false;
+        }
+        
+        try {
+            return hasMagic(FileManager.peekChecked(filename, MAGIC.length));
+        } catch (IOException e) {
+            return false;
+        }
+    }
+    
+    public static <T> List<T> load(String filename, RecordCodec<T> codec) throws IOException {
+        byte[] bytes = FileManager.readChecked(filename);
+        if (!hasMagic(bytes)) {
+            throw new IOException(filename + " is not a record file");
+        }
+        
+        RecordReader in = new RecordReader(bytes, MAGIC.length, bytes.length - MAGIC.length);
+        int format = in.readVarInt();
+        int version = in.readVarInt();
+        if (format != FORMAT_VERSION || version > codec.getVersion()) {
+            throw new IOException(filename + " has unsupported format " + format + "/" + version);
+        }
+        
+        int count = in.readVarInt();
+        List<T> items = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            items.add(codec.read(in, version));
+        }
+        return items;
+    }
+    
+    public static <T> byte[] encode(List<T> items, RecordCodec<T> codec) {
+        RecordWriter out = new RecordWriter(64 + items.size() * 64);
+        out.writeBytes(MAGIC, 0, MAGIC.length);
+        out.writeVarInt(FORMAT_VERSION);
+        out.writeVarInt(codec.getVersion());
+        out.writeVarInt(items.size());
+        for (T item : items) {
+            codec.write(out, item);
+        }
+        return out.toByteArray();
+    }
+    
+    public static <T> boolean save(String filename, List<T> items, RecordCodec<T> codec) {
+        byte[] encoded = encode(items, codec);
+        try {
+            FileManager.writeChecked(filename, os -> os.write(encoded));
+            return true;
+        } catch (IOException e) {
+            System.err.println("Error saving record file " + filename + ": " + e.getMessage());
+            return false;
+        }
+    }
+    
+    private static boolean hasMagic(byte[] bytes) {
+        if (bytes.length < MAGIC.length) return false;
+        for (int i = 0; i < MAGIC.length; i++) {
+            if (bytes[i] != MAGIC[i]) return false;
+        }
+        return true;
+    }
+}
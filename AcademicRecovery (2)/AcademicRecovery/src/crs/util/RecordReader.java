@@ -0,0 +1,128 @@
+package crs.util;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+
+public class RecordReader {
+    
+    private final byte[] buffer;
+    private final int limit;
+    private int position;
+    private final List<String> symbols = new ArrayList<>();
+    
+    public RecordReader(byte[] buffer) {
+        this(buffer, 0, buffer.length);
+    }
+    
+    public RecordReader(byte[] buffer, int offset, int length) {
+        this.buffer = buffer;
+        this.position = offset;
+        this.limit = offset + length;
+    }
+    
+    public int readByte() throws IOException {
+        if (position >= limit) {
+            throw new EOFException("Record ends after " + position + " bytes");
+        }
+        return buffer[position++] & 0xFF;
+    }
+    
+    public boolean readBoolean() throws IOException {
+        return readByte() != 0;
+    }
+    
+    public int readInt() throws IOException {
+        int value = readVarInt();
+        return (value >>> 1) ^ -(value & 1);
+    }
+    
+    public long readLong() throws IOException {
+        return unzigzag(readVarLong());
+    }
+    
+    public int readVarInt() throws IOException {
+        return (int) readVarLong();
+    }
+    
+    public long readVarLong() throws IOException {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            int b = readByte();
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IOException("Malformed varint at byte " + position);
+    }
+    
+    public double readDouble() throws IOException {
+        long bits = 0;
+        for (int i = 0; i < 8; i++) {
+            bits = (bits << 8) | readByte();
+        }
+        return Double.longBitsToDouble(bits);
+    }
+    
+    public String readString() throws IOException {
+        int length = readVarInt();
+        return length == 0 ? null : readUtf8(length - 1);
+    }
+    
+    public String readSymbol() throws IOException {
+        int tag = readVarInt();
+        if (tag == 0) {
+            return null;
+        }
+        if ((tag & 1) == 1) {
+            int index = tag >>> 1;
+            if (index >= symbols.size()) {
+                throw new IOException("Unknown symbol " + index);
+            }
+            return symbols.get(index);
+        }
+        String value = readUtf8((tag >>> 1) - 1);
+        symbols.add(value);
+        return value;
+    }
+    
+    public LocalDate readDate() throws IOException {
+        long value = readVarLong();
+        return value == 0 ? null : LocalDate.ofEpochDay(unzigzag(value - 1));
+    }
+    
+    public LocalDateTime readDateTime() throws IOException {
+        long value = readVarLong();
+        if (value == 0) {
+            return null;
+        }
+        return LocalDateTime.ofEpochSecond(unzigzag(value - 1), readVarInt(), ZoneOffset.UTC);
+    }
+    
+    public boolean hasRemaining() {
+        return position < limit;
+    }
+    
+    public int position() {
+        return position;
+    }
+    
+    private String readUtf8(int length) throws IOException {
+        if (length < 0 || length > limit - position) {
+            throw new EOFException("String of " + length + " bytes overruns record");
+        }
+        String value = new String(buffer, position, length, StandardCharsets.UTF_8);
+        position += length;
+        return value;
+    }
+    
+    private static long unzigzag(long value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+}
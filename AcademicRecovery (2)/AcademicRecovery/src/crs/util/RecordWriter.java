@@ -0,0 +1,133 @@
+package crs.util;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+public class RecordWriter {
+    
+    private byte[] buffer;
+    private int size;
+    private final Map<String, Integer> symbols = new HashMap<>();
+    
+    public RecordWriter() {
+        this(256);
+    }
+    
+    public RecordWriter(int capacity) {
+        buffer = new byte[Math.max(16, capacity)];
+    }
+    
+    public void writeByte(int value) {
+        ensure(1);
+        buffer[size++] = (byte) value;
+    }
+    
+    public void writeBoolean(boolean value) {
+        writeByte(value ? 1 : 0);
+    }
+    
+    public void writeInt(int value) {
+        writeVarInt((value << 1) ^ (value >> 31));
+    }
+    
+    public void writeLong(long value) {
+        writeVarLong(zigzag(value));
+    }
+    
+    public void writeVarInt(int value) {
+        writeVarLong(value & 0xFFFFFFFFL);
+    }
+    
+    public void writeVarLong(long value) {
+        ensure(10);
+        while ((value & ~0x7FL) != 0) {
+            buffer[size++] = (byte) ((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        buffer[size++] = (byte) value;
+    }
+    
+    public void writeDouble(double value) {
+        long bits = Double.doubleToLongBits(value);
+        ensure(8);
+        for (int shift = 56; shift >= 0; shift -= 8) {
+            buffer[size++] = (byte) (bits >>> shift);
+        }
+    }
+    
+    public void writeString(String value) {
+        if (value == null) {
+            writeVarInt(0);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        writeVarInt(bytes.length + 1);
+        ensure(bytes.length);
+        System.arraycopy(bytes, 0, buffer, size, bytes.length);
+        size += bytes.length;
+    }
+    
+    public void writeSymbol(String value) {
+        if (value == null) {
+            writeVarInt(0);
+            return;
+        }
+        Integer index = symbols.get(value);
+        if (index != null) {
+            writeVarInt((index << 1) | 1);
+            return;
+        }
+        symbols.put(value, symbols.size());
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        writeVarInt((bytes.length + 1) << 1);
+        ensure(bytes.length);
+        System.arraycopy(bytes, 0, buffer, size, bytes.length);
+        size += bytes.length;
+    }
+    
+    public void writeDate(LocalDate value) {
+        writeVarLong(value == null ? 0 : zigzag(value.toEpochDay()) + 1);
+    }
+    
+    public void writeDateTime(LocalDateTime value) {
+        if (value == null) {
+            writeVarLong(0);
+            return;
+        }
+        writeVarLong(zigzag(value.toEpochSecond(ZoneOffset.UTC)) + 1);
+        writeVarInt(value.getNano());
+    }
+    
+    public void writeBytes(byte[] bytes, int offset, int length) {
+        ensure(length);
+        System.arraycopy(bytes, offset, buffer, size, length);
+        size += length;
+    }
+    
+    public int size() {
+        return size;
+    }
+    
+    public byte[] toByteArray() {
+        return Arrays.copyOf(buffer, size);
+    }
+    
+    public byte[] buffer() {
+        return buffer;
+    }
+    
+    private static long zigzag(long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+    
+    private void ensure(int extra) {
+        if (size + extra > buffer.length) {
+            buffer = Arrays.copyOf(buffer, Math.max(buffer.length * 2, size + extra));
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package crs.util;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.StandardOpenOption;
+
+public class ReverseLineReader implements Closeable {
+    
+    private static final int BLOCK_SIZE = 64 * 1024;
+    
+    private final FileChannel channel;
+    private final ByteBuffer block = ByteBuffer.allocate(BLOCK_SIZE);
+    private long position;
+    private byte[] carry = new byte[0];
+    private int blockEnd;
+    
+    public ReverseLineReader(String filename) throws IOException {
+        FileChannel opened;
+        try {
+            opened = FileChannel.open(FileManager.getFile(filename).toPath(), StandardOpenOption.READ);
+        } catch (NoSuchFileException e) {
+            opened = null;
+        }
+        this.channel = opened;
+        this.position = opened != null ? opened.size() : 0;
+    }
+    
+    public String readLine() throws IOException {
+        while (true) {
+            byte[] bytes = block.array();
+            for (int i = blockEnd - 1; i >= 0; i--) {
+                if (bytes[i] == '\n') {
+                    String line = decode(i + 1, blockEnd);
+                    blockEnd = i;
+                    if (!line.isEmpty()) return line;
+                }
+            }
+            
+            if (position == 0) {
+                String line = blockEnd > 0 || carry.length > 0 ? decode(0, blockEnd) : null;
+                blockEnd = 0;
+                return line == null || !line.isEmpty() ? line : readLine();
+            }
+            
+            byte[] pending = new byte[blockEnd + carry.length];
+            System.arraycopy(block.array(), 0, pending, 0, blockEnd);
+            System.arraycopy(carry, 0, pending, blockEnd, carry.length);
+            carry = pending;
+            fill();
+        }
+    }
+    
+    @Override
+    public void close() throws IOException {
+        if (channel != null) {
+            channel.close();
+        }
+    }
+    
+    private void fill() throws IOException {
+        int length = (int) Math.min(BLOCK_SIZE, position);
+        position -= length;
+        block.clear();
+        block.limit(length);
+        while (block.hasRemaining()) {
+            if (channel.read(block, position + block.position()) < 0) break;
+        }
+        blockEnd = block.position();
+    }
+    
+    private String decode(int from, int to) {
+        byte[] bytes = new byte[to - from + carry.length];
+        System.arraycopy(block.array(), from, bytes, 0, to - from);
+        System.arraycopy(carry, 0, bytes, to - from, carry.length);
+        carry = new byte[0];
+        
+        int length = bytes.length;
+        if (length > 0 && bytes[length - 1] == '\r') {
+            length--;
+        }
+        return new String(bytes, 0, length, StandardCharsets.UTF_8);
+    }
+}
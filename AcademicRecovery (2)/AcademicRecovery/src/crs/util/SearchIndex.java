@@ -0,0 +1,360 @@
+package crs.util;
+
+import java.util.*;
+import java.util.function.Function;
+
+public class SearchIndex<T> {
+    
+    private static final int MIN_COMPACT_DEAD = 1024;
+    
+    private static final int EXACT = 3;
+    private static final int PREFIX = 2;
+    private static final int SUBSTRING = 1;
+    private static final int ANY = 0;
+    
+    private final String name;
+    private final Function<T, String> keyFunction;
+    private final Function<T, String[]> fieldsFunction;
+    
+    private final List<T> docs = new ArrayList<>();
+    private final List<String[]> docFields = new ArrayList<>();
+    private final Map<String, Integer> docByKey = new HashMap<>();
+    private final GramTable grams = new GramTable();
+    private final TreeMap<String, IntList> tokens = new TreeMap<>();
+    private final Map<String, IntList> exactFields = new HashMap<>();
+    private int deadCount;
+    private Map<String, T> pending;
+    
+    public SearchIndex(String name, Function<T, String> keyFunction, Function<T, String[]> fieldsFunction) {
+        this.name = name;
+        this.keyFunction = keyFunction;
+        this.fieldsFunction = fieldsFunction;
+    }
+    
+    public synchronized void rebuild(Collection<? extends T> items) {
+        docs.clear();
+        docFields.clear();
+        docByKey.clear();
+        grams.clear();
+        tokens.clear();
+        exactFields.clear();
+        deadCount = 0;
+        pending = new LinkedHashMap<>();
+        for (T item : items) {
+            String key = keyFunction.apply(item);
+            if (key != null) {
+                pending.putIfAbsent(key, item);
+            }
+        }
+    }
+    
+    public synchronized void put(T item) {
+        String key = keyFunction.apply(item);
+        if (pending != null) {
+            if (key != null) {
+                pending.put(key, item);
+            }
+            return;
+        }
+        remove(key);
+        add(item);
+        if (deadCount >= MIN_COMPACT_DEAD && deadCount > docByKey.size()) {
+            compact();
+        }
+    }
+    
+    public synchronized void remove(String key) {
+        if (pending != null) {
+            pending.remove(key);
+            return;
+        }
+        Integer doc = key != null ? docByKey.remove(key) : null;
+        if (doc != null) {
+            docs.set(doc, null);
+            docFields.set(doc, null);
+            deadCount++;
+        }
+    }
+    
+    public List<T> search(String query) {
+        return search(query, Integer.MAX_VALUE);
+    }
+    
+    public synchronized List<T> search(String query, int limit) {
+        ensureBuilt();
+        String q = query == null ? "" : query.trim().toLowerCase();
+        if (q.isEmpty()) {
+            return liveDocs(limit);
+        }
+        if (limit <= 0) {
+            return Collections.emptyList();
+        }
+        
+        List<T> results = new ArrayList<>(Math.min(limit, 64));
+        BitSet seen = new BitSet(docs.size());
+        
+        IntList exact = exactFields.get(q);
+        if (exact != null) {
+            for (int i = 0; i < exact.size && results.size() < limit; i++) {
+                collect(results, seen, exact.data[i], q, EXACT);
+            }
+        }
+        
+        int wordEnd = 0;
+        while (wordEnd < q.length() && Character.isLetterOrDigit(q.charAt(wordEnd))) {
+            wordEnd++;
+        }
+        if (wordEnd > 0) {
+            IntList word = tokens.get(q.substring(0, wordEnd));
+            Collection<IntList> prefixed = wordEnd == q.length()
+                ? tokens.subMap(q, true, q + Character.MAX_VALUE, true).values()
+                : word != null ? Collections.singletonList(word) : Collections.emptyList();
+            for (IntList posting : prefixed) {
+                if (results.size() >= limit) break;
+                for (int i = 0; i < posting.size && results.size() < limit; i++) {
+                    collect(results, seen, posting.data[i], q, PREFIX);
+                }
+            }
+        }
+        
+        if (q.length() >= 2 && results.size() < limit) {
+            IntList[] postings = postingsFor(q);
+            if (postings != null) {
+                IntList smallest = postings[0];
+                for (int i = 0; i < smallest.size && results.size() < limit; i++) {
+                    int doc = smallest.data[i];
+                    if (containsAll(postings, doc)) {
+                        collect(results, seen, doc, q, ANY);
+                    }
+                }
+            }
+        }
+        return results;
+    }
+    
+    public synchronized int size() {
+        return pending != null ? pending.size() : docByKey.size();
+    }
+    
+    public String getName() { return name; }
+    
+    @Override
+    public synchronized String toString() {
+        return String.format("%s: %d docs, %d grams, %d tokens", name, size(), grams.size(), tokens.size());
+    }
+    
+    private void ensureBuilt() {
+        if (pending == null) return;
+        
+        Collection<T> items = pending.values();
+        pending = null;
+        for (T item : items) {
+            add(item);
+        }
+    }
+    
+    private void add(T item) {
+        String key = keyFunction.apply(item);
+        if (key == null || docByKey.containsKey(key)) return;
+        
+        String[] raw = fieldsFunction.apply(item);
+        String[] fields = new String[raw.length];
+        for (int i = 0; i < raw.length; i++) {
+            fields[i] = raw[i] != null ? raw[i].toLowerCase() : "";
+        }
+        
+        int doc = docs.size();
+        docs.add(item);
+        docFields.add(fields);
+        docByKey.put(key, doc);
+        
+        for (String field : fields) {
+            if (!field.isEmpty()) {
+                exactFields.computeIfAbsent(field, f -> new IntList()).addOnce(doc);
+            }
+            for (int n = 2; n <= 3; n++) {
+                for (int i = 0; i + n <= field.length(); i++) {
+                    grams.getOrCreate(gramKey(field, i, n)).addOnce(doc);
+                }
+            }
+            int start = -1;
+            for (int i = 0; i <= field.length(); i++) {
+                boolean tokenChar = i < field.length() && Character.isLetterOrDigit(field.charAt(i));
+                if (tokenChar && start < 0) {
+                    start = i;
+                } else if (!tokenChar && start >= 0) {
+                    tokens.computeIfAbsent(field.substring(start, i), t -> new IntList()).addOnce(doc);
+                    start = -1;
+                }
+            }
+        }
+    }
+    
+    private void collect(List<T> results, BitSet seen, int doc, String q, int tier) {
+        if (seen.get(doc)) return;
+        String[] fields = docFields.get(doc);
+        if (fields == null) return;
+        int score = score(fields, q);
+        if (score == 0 || (tier != ANY && score != tier)) return;
+        
+        seen.set(doc);
+        results.add(docs.get(doc));
+    }
+    
+    private IntList[] postingsFor(String q) {
+        int n = Math.min(3, q.length());
+        IntList[] postings = new IntList[q.length() - n + 1];
+        for (int i = 0; i < postings.length; i++) {
+            IntList posting = grams.get(gramKey(q, i, n));
+            if (posting == null) {
+                return null;
+            }
+            postings[i] = posting;
+        }
+        Arrays.sort(postings, Comparator.comparingInt(p -> p.size));
+        return postings;
+    }
+    
+    private static boolean containsAll(IntList[] postings, int doc) {
+        for (int i = 1; i < postings.length; i++) {
+            if (!postings[i].contains(doc)) return false;
+        }
+        return true;
+    }
+    
+    private static int score(String[] fields, String q) {
+        int score = 0;
+        for (String field : fields) {
+            int index = field.indexOf(q);
+            if (index < 0) continue;
+            
+            if (field.length() == q.length()) {
+                return EXACT;
+            } else if (index == 0 || isTokenStart(field, index) || hasTokenStart(field, q, index)) {
+                score = PREFIX;
+            } else if (score == 0) {
+                score = SUBSTRING;
+            }
+        }
+        return score;
+    }
+    
+    private static boolean hasTokenStart(String field, String q, int from) {
+        for (int index = field.indexOf(q, from + 1); index >= 0; index = field.indexOf(q, index + 1)) {
+            if (isTokenStart(field, index)) return true;
+        }
+        return false;
+    }
+    
+    private static boolean isTokenStart(String field, int index) {
+        return index == 0 || !Character.isLetterOrDigit(field.charAt(index - 1));
+    }
+    
+    private static long gramKey(String s, int offset, int n) {
+        long key = n;
+        for (int i = 0; i < n; i++) {
+            key = (key << 16) | s.charAt(offset + i);
+        }
+        return key;
+    }
+    
+    private List<T> liveDocs(int limit) {
+        List<T> results = new ArrayList<>(Math.min(limit, docByKey.size()));
+        for (T item : docs) {
+            if (results.size() >= limit) break;
+            if (item != null) {
+                results.add(item);
+            }
+        }
+        return results;
+    }
+    
+    private void compact() {
+        List<T> live = new ArrayList<>(docByKey.size());
+        for (T item : docs) {
+            if (item != null) {
+                live.add(item);
+            }
+        }
+        rebuild(live);
+        ensureBuilt();
+    }
+    
+    private static class GramTable {
+        long[] keys = new long[1024];
+        IntList[] values = new IntList[1024];
+        int size;
+        
+        IntList get(long key) {
+            int mask = keys.length - 1;
+            for (int slot = hash(key) & mask; values[slot] != null; slot = (slot + 1) & mask) {
+                if (keys[slot] == key) return values[slot];
+            }
+            return null;
+        }
+        
+        IntList getOrCreate(long key) {
+            int mask = keys.length - 1;
+            int slot = hash(key) & mask;
+            for (; values[slot] != null; slot = (slot + 1) & mask) {
+                if (keys[slot] == key) return values[slot];
+            }
+            IntList list = new IntList();
+            keys[slot] = key;
+            values[slot] = list;
+            if (++size * 2 > keys.length) {
+                resize();
+            }
+            return list;
+        }
+        
+        int size() {
+            return size;
+        }
+        
+        void clear() {
+            Arrays.fill(keys, 0L);
+            Arrays.fill(values, null);
+            size = 0;
+        }
+        
+        private void resize() {
+            long[] oldKeys = keys;
+            IntList[] oldValues = values;
+            keys = new long[oldKeys.length * 2];
+            values = new IntList[oldValues.length * 2];
+            int mask = keys.length - 1;
+            for (int i = 0; i < oldKeys.length; i++) {
+                if (oldValues[i] == null) continue;
+                int slot = hash(oldKeys[i]) & mask;
+                while (values[slot] != null) {
+                    slot = (slot + 1) & mask;
+                }
+                keys[slot] = oldKeys[i];
+                values[slot] = oldValues[i];
+            }
+        }
+        
+        private static int hash(long key) {
+            long h = key * 0x9E3779B97F4A7C15L;
+            return (int) (h ^ (h >>> 32));
+        }
+    }
+    
+    private static class IntList {
+        int[] data = new int[4];
+        int size;
+        
+        void addOnce(int value) {
+            if (size > 0 && data[size - 1] == value) return;
+            if (size == data.length) {
+                data = Arrays.copyOf(data, size * 2);
+            }
+            data[size++] = value;
+        }
+        
+        boolean contains(int value) {
+            return Arrays.binarySearch(data, 0, size, value) >= 0;
+        }
+    }
+}
@@ -0,0 +1,496 @@
+package crs.util;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.zip.CRC32;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+public class SegmentedLog<T> implements Flushable {
+    
+    private static final String SEGMENT_PREFIX = "segment-";
+    private static final String LOG_SUFFIX = ".log";
+    private static final String COMPRESSED_SUFFIX = ".log.gz";
+    private static final String INDEX_SUFFIX = ".idx";
+    private static final Pattern SEGMENT_FILE = Pattern.compile("segment-(\\d+)\\.(log|log\\.gz|idx)");
+    
+    private static final ExecutorService compressor = Executors.newSingleThreadExecutor(r -> {
+        Thread thread = new Thread(r, "log-compressor");
+        thread.setDaemon(true);
+        return thread;
+    });
+    
+    private final String name;
+    private final RecordCodec<T> codec;
+    private final Function<T, String> keyFunction;
+    private final Function<T, LocalDateTime> timeFunction;
+    private final long maxSegmentBytes;
+    private final Duration maxSegmentAge;
+    private final int maxSegments;
+    
+    private final List<Segment> sealed = new ArrayList<>();
+    private Segment active;
+    private volatile PersistentVector<T> activeRecords = PersistentVector.empty();
+    private long activeBytes;
+    private FileChannel channel;
+    private boolean dirty;
+    
+    private static final class Segment {
+        final int sequence;
+        int count;
+        LocalDateTime earliest;
+        LocalDateTime latest;
+        final Set<String> keys = new HashSet<>();
+        boolean deleted;
+        
+        Segment(int sequence) {
+            this.sequence = sequence;
+        }
+        
+        void add(String key, LocalDateTime time) {
+            count++;
+            keys.add(key);
+            if (time != null) {
+                if (earliest == null || time.isBefore(earliest)) earliest = time;
+                if (latest == null || time.isAfter(latest)) latest = time;
+            }
+        }
+        
+        boolean mayContain(String key, LocalDateTime from, LocalDateTime to) {
+            if (count == 0) return false;
+            if (key != null && !keys.contains(key)) return false;
+            if (from != null && latest != null && latest.isBefore(from)) return false;
+            return to == null || earliest == null || earliest.isBefore(to);
+        }
+    }
+    
+    public SegmentedLog(String name, RecordCodec<T> codec, Function<T, String> keyFunction,
+                        Function<T, LocalDateTime> timeFunction, long maxSegmentBytes,
+                        Duration maxSegmentAge, int maxSegments) {
+        this.name = name;
+        this.codec = codec;
+        this.keyFunction = keyFunction;
+        this.timeFunction = timeFunction;
+        this.maxSegmentBytes = maxSegmentBytes;
+        this.maxSegmentAge = maxSegmentAge;
+        this.maxSegments = maxSegments;
+        open();
+    }
+    
+    public void append(T item) {
+        appendAll(Collections.singletonList(item));
+    }
+    
+    public void appendAll(Collection<? extends T> items) {
+        if (items.isEmpty()) return;
+        
+        synchronized (this) {
+            try {
+                for (T item : items) {
+                    byte[] record = encode(item);
+                    LocalDateTime time = timeFunction.apply(item);
+                    if (shouldRoll(record.length, time)) {
+                        roll();
+                    }
+                    writeFrame(record);
+                    active.add(keyFunction.apply(item), time);
+                    activeRecords = activeRecords.append(item);
+                    activeBytes += 8 + record.length;
+                }
+                dirty = true;
+            } catch (IOException e) {
+                System.err.println("Error appending to " + name + ": " + e.getMessage());
+                return;
+            }
+        }
+        
+        PersistenceScheduler scheduler = PersistenceScheduler.getInstance();
+        if (scheduler.isDeferred()) {
+            scheduler.markDirty(this);
+        } else {
+            flush();
+        }
+    }
+    
+    @Override
+    public synchronized void flush() {
+        if (!dirty || channel == null) return;
+        try {
+            channel.force(false);
+            dirty = false;
+        } catch (IOException e) {
+            System.err.println("Error flushing " + name + ": " + e.getMessage());
+        }
+    }
+    
+    public List<T> page(int offset, int limit) {
+        return query(null, null, null, offset, limit);
+    }
+    
+    public List<T> pageForKey(String key, int offset, int limit) {
+        return query(key, null, null, offset, limit);
+    }
+    
+    public List<T> pageBetween(LocalDateTime from, LocalDateTime to, int offset, int limit) {
+        return query(null, from, to, offset, limit);
+    }
+    
+    public synchronized long size() {
+        long total = active.count;
+        for (Segment segment : sealed) {
+            total += segment.count;
+        }
+        return total;
+    }
+    
+    public synchronized int getSegmentCount() {
+        return sealed.size() + 1;
+    }
+    
+    public synchronized void close() {
+        flush();
+        closeChannel();
+    }
+    
+    @Override
+    public String toString() {
+        return name;
+    }
+    
+    private List<T> query(String key, LocalDateTime from, LocalDateTime to, int offset, int limit) {
+        if (offset < 0 || limit < 0) {
+            throw new IllegalArgumentException("Offset and limit must not be negative");
+        }
+        
+        List<T> page = new ArrayList<>(Math.min(limit, 1024));
+        List<Segment> older;
+        PersistentVector<T> recent;
+        synchronized (this) {
+            older = new ArrayList<>(sealed);
+            recent = activeRecords;
+        }
+        
+        int skip = collect(recent, key, from, to, offset, limit, page);
+        boolean unfiltered = key == null && from == null && to == null;
+        for (int i = older.size() - 1; i >= 0 && page.size() < limit; i--) {
+            Segment segment = older.get(i);
+            if (!segment.mayContain(key, from, to)) continue;
+            if (unfiltered && skip >= segment.count) {
+                skip -= segment.count;
+                continue;
+            }
+            skip = collect(readSegment(segment), key, from, to, skip, limit, page);
+        }
+        return page;
+    }
+    
+    private int collect(List<T> records, String key, LocalDateTime from, LocalDateTime to,
+                        int skip, int limit, List<T> page) {
+        for (int i = records.size() - 1; i >= 0 && page.size() < limit; i--) {
+            T item = records.get(i);
+            if (key != null && !key.equals(keyFunction.apply(item))) continue;
+            LocalDateTime time = timeFunction.apply(item);
+            if (from != null && (time == null || time.isBefore(from))) continue;
+            if (to != null && (time == null || !time.isBefore(to))) continue;
+            if (skip > 0) {
+                skip--;
+            } else {
+                page.add(item);
+            }
+        }
+        return skip;
+    }
+    
+    private void open() {
+        FileManager.getFile(name).mkdirs();
+        
+        SortedMap<Integer, Set<String>> files = new TreeMap<>();
+        String[] names = FileManager.getFile(name).list();
+        for (String file : names != null ? names : new String[0]) {
+            Matcher matcher = SEGMENT_FILE.matcher(file);
+            if (matcher.matches()) {
+                files.computeIfAbsent(Integer.parseInt(matcher.group(1)), k -> new HashSet<>()).add(matcher.group(2));
+            }
+        }
+        
+        for (Map.Entry<Integer, Set<String>> entry : files.entrySet()) {
+            int sequence = entry.getKey();
+            Set<String> kinds = entry.getValue();
+            boolean last = sequence == files.lastKey();
+            if (last && kinds.contains("log") && !kinds.contains("idx")) {
+                openActive(sequence);
+            } else {
+                sealed.add(openSealed(sequence, kinds));
+            }
+        }
+        
+        if (active == null) {
+            startSegment(files.isEmpty() ? 1 : files.lastKey() + 1);
+        }
+        enforceRetention();
+    }
+    
+    private void openActive(int sequence) {
+        Segment segment = new Segment(sequence);
+        List<T> records = new ArrayList<>();
+        File file = segmentFile(sequence, LOG_SUFFIX);
+        long validLength = 0;
+        try (InputStream in = new BufferedInputStream(new FileInputStream(file))) {
+            validLength = readFrames(in, record -> {
+                records.add(record);
+                segment.add(keyFunction.apply(record), timeFunction.apply(record));
+            });
+        } catch (IOException e) {
+            System.err.println("Error reading " + file.getName() + ": " + e.getMessage());
+            validLength = file.length();
+        }
+        
+        if (validLength < file.length()) {
+            try (FileChannel ch = FileChannel.open(file.toPath(), StandardOpenOption.WRITE)) {
+                ch.truncate(validLength);
+            } catch (IOException e) {
+                System.err.println("Error truncating " + file.getName() + ": " + e.getMessage());
+            }
+        }
+        
+        active = segment;
+        activeRecords = PersistentVector.of(records);
+        activeBytes = validLength;
+        openChannel();
+    }
+    
+    private Segment openSealed(int sequence, Set<String> kinds) {
+        if (kinds.contains("log") && kinds.contains("log.gz")) {
+            segmentFile(sequence, LOG_SUFFIX).delete();
+            kinds.remove("log");
+        }
+        
+        Segment segment = new Segment(sequence);
+        if (!kinds.contains("idx") || !readIndex(segment)) {
+            for (T record : readSegment(segment)) {
+                segment.add(keyFunction.apply(record), timeFunction.apply(record));
+            }
+            writeIndex(segment);
+        }
+        if (!kinds.contains("log.gz")) {
+            compressor.submit(() -> compress(segment));
+        }
+        return segment;
+    }
+    
+    private boolean shouldRoll(int recordLength, LocalDateTime time) {
+        if (active.count == 0) return false;
+        if (activeBytes + 8 + recordLength > maxSegmentBytes) return true;
+        return time != null && active.earliest != null
+            && Duration.between(active.earliest, time).compareTo(maxSegmentAge) >= 0;
+    }
+    
+    private void roll() throws IOException {
+        channel.force(false);
+        closeChannel();
+        
+        Segment finished = active;
+        writeIndex(finished);
+        sealed.add(finished);
+        compressor.submit(() -> compress(finished));
+        
+        startSegment(finished.sequence + 1);
+        enforceRetention();
+    }
+    
+    private void startSegment(int sequence) {
+        active = new Segment(sequence);
+        activeRecords = PersistentVector.empty();
+        activeBytes = 0;
+        openChannel();
+    }
+    
+    private void enforceRetention() {
+        while (maxSegments > 0 && sealed.size() >= maxSegments) {
+            Segment oldest = sealed.remove(0);
+            synchronized (oldest) {
+                oldest.deleted = true;
+                segmentFile(oldest.sequence, LOG_SUFFIX).delete();
+                segmentFile(oldest.sequence, COMPRESSED_SUFFIX).delete();
+                segmentFile(oldest.sequence, INDEX_SUFFIX).delete();
+            }
+        }
+    }
+    
+    private void compress(Segment segment) {
+        File source = segmentFile(segment.sequence, LOG_SUFFIX);
+        File target = segmentFile(segment.sequence, COMPRESSED_SUFFIX);
+        File temp = new File(target.getPath() + ".tmp");
+        try {
+            try (InputStream in = new FileInputStream(source);
+                 OutputStream out = new GZIPOutputStream(new FileOutputStream(temp), 64 * 1024)) {
+                in.transferTo(out);
+            }
+            synchronized (segment) {
+                if (segment.deleted) {
+                    temp.delete();
+                    return;
+                }
+                Files.move(temp.toPath(), target.toPath(), StandardCopyOption.ATOMIC_MOVE);
+                source.delete();
+            }
+        } catch (IOException e) {
+            System.err.println("Error compressing " + source.getName() + ": " + e.getMessage());
+            temp.delete();
+        }
+    }
+    
+    private List<T> readSegment(Segment segment) {
+        List<T> records = new ArrayList<>(segment.count);
+        synchronized (segment) {
+            if (segment.deleted) return records;
+            
+            File compressed = segmentFile(segment.sequence, COMPRESSED_SUFFIX);
+            File file = compressed.exists() ? compressed : segmentFile(segment.sequence, LOG_SUFFIX);
+            try (InputStream in = file == compressed
+                    ? new GZIPInputStream(new FileInputStream(file), 64 * 1024)
+                    : new BufferedInputStream(new FileInputStream(file))) {
+                readFrames(in, records::add);
+            } catch (IOException e) {
+                System.err.println("Error reading " + file.getName() + ": " + e.getMessage());
+            }
+        }
+        return records;
+    }
+    
+    private long readFrames(InputStream input, Consumer<T> consumer) throws IOException {
+        DataInputStream in = new DataInputStream(input);
+        CRC32 crc = new CRC32();
+        long validLength = 0;
+        while (true) {
+            int length;
+            try {
+                length = in.readInt();
+            } catch (EOFException e) {
+                break;
+            }
+            byte[] record;
+            int checksum;
+            try {
+                checksum = in.readInt();
+                if (length < 0 || length > maxSegmentBytes) break;
+                record = new byte[length];
+                in.readFully(record);
+            } catch (EOFException e) {
+                break;
+            }
+            
+            crc.reset();
+            crc.update(record);
+            if ((int) crc.getValue() != checksum) break;
+            
+            T item;
+            try {
+                RecordReader reader = new RecordReader(record);
+                item = codec.read(reader, reader.readVarInt());
+            } catch (IOException e) {
+                break;
+            }
+            consumer.accept(item);
+            validLength += 8 + length;
+        }
+        return validLength;
+    }
+    
+    private void writeFrame(byte[] record) throws IOException {
+        CRC32 crc = new CRC32();
+        crc.update(record);
+        ByteBuffer buffer = ByteBuffer.allocate(8 + record.length);
+        buffer.putInt(record.length);
+        buffer.putInt((int) crc.getValue());
+        buffer.put(record);
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+    }
+    
+    private byte[] encode(T item) {
+        RecordWriter out = new RecordWriter();
+        out.writeVarInt(codec.getVersion());
+        codec.write(out, item);
+        return out.toByteArray();
+    }
+    
+    private boolean readIndex(Segment segment) {
+        try {
+            RecordReader in = new RecordReader(FileManager.readChecked(segmentName(segment.sequence, INDEX_SUFFIX)));
+            segment.count = in.readVarInt();
+            segment.earliest = in.readDateTime();
+            segment.latest = in.readDateTime();
+            int keyCount = in.readVarInt();
+            for (int i = 0; i < keyCount; i++) {
+                segment.keys.add(in.readString());
+            }
+            return true;
+        } catch (IOException e) {
+            System.err.println("Rebuilding index for " + name + " segment " + segment.sequence + ": " + e.getMessage());
+            segment.count = 0;
+            segment.earliest = null;
+            segment.latest = null;
+            segment.keys.clear();
+            return false;
+        }
+    }
+    
+    private void writeIndex(Segment segment) {
+        RecordWriter out = new RecordWriter();
+        out.writeVarInt(segment.count);
+        out.writeDateTime(segment.earliest);
+        out.writeDateTime(segment.latest);
+        out.writeVarInt(segment.keys.size());
+        for (String key : segment.keys) {
+            out.writeString(key);
+        }
+        try {
+            FileManager.writeChecked(segmentName(segment.sequence, INDEX_SUFFIX), os -> os.write(out.buffer(), 0, out.size()));
+        } catch (IOException e) {
+            System.err.println("Error writing index for " + name + " segment " + segment.sequence + ": " + e.getMessage());
+        }
+    }
+    
+    private void openChannel() {
+        try {
+            channel = FileChannel.open(segmentFile(active.sequence, LOG_SUFFIX).toPath(),
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        } catch (IOException e) {
+            System.err.println("Error opening " + name + " segment " + active.sequence + ": " + e.getMessage());
+        }
+    }
+    
+    private void closeChannel() {
+        if (channel == null) return;
+        try {
+            channel.close();
+        } catch (IOException e) {
+            System.err.println("Error closing " + name + " segment " + active.sequence + ": " + e.getMessage());
+        }
+        channel = null;
+    }
+    
+    private String segmentName(int sequence, String suffix) {
+        return name + "/" + SEGMENT_PREFIX + String.format("%06d", sequence) + suffix;
+    }
+    
+    private File segmentFile(int sequence, String suffix) {
+        return FileManager.getFile(segmentName(sequence, suffix));
+    }
+}
@@ -0,0 +1,87 @@
+package crs.util;
+
+import java.util.Collection;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.function.Predicate;
+
+public class SnapshotList<T> implements Iterable<T> {
+    
+    private volatile PersistentVector<T> items = PersistentVector.empty();
+    private volatile long version;
+    private final Map<T, Integer> positions = new IdentityHashMap<>();
+    
+    public PersistentVector<T> snapshot() {
+        return items;
+    }
+    
+    public long getVersion() {
+        return version;
+    }
+    
+    public synchronized void reset(Collection<? extends T> loaded) {
+        publish(PersistentVector.of(loaded));
+        reindex();
+    }
+    
+    public synchronized void add(T item) {
+        positions.putIfAbsent(item, items.size());
+        publish(items.append(item));
+    }
+    
+    public synchronized void addAll(Collection<? extends T> added) {
+        if (added.isEmpty()) return;
+        int index = items.size();
+        for (T item : added) {
+            positions.putIfAbsent(item, index++);
+        }
+        publish(items.appendAll(added));
+    }
+    
+    public synchronized boolean replace(T existing, T item) {
+        Integer index = positions.get(existing);
+        if (index == null) return false;
+        
+        if (existing != item) {
+            positions.remove(existing);
+            positions.putIfAbsent(item, index);
+        }
+        publish(items.update(index, item));
+        return true;
+    }
+    
+    public synchronized boolean removeIf(Predicate<? super T> filter) {
+        PersistentVector<T> remaining = items.without(filter);
+        if (remaining == items) return false;
+        publish(remaining);
+        reindex();
+        return true;
+    }
+    
+    public int size() {
+        return items.size();
+    }
+    
+    public boolean isEmpty() {
+        return items.isEmpty();
+    }
+    
+    @Override
+    public Iterator<T> iterator() {
+        return items.iterator();
+    }
+    
+    private void reindex() {
+        positions.clear();
+        int index = 0;
+        for (T item : items) {
+            positions.putIfAbsent(item, index++);
+        }
+    }
+    
+    private void publish(PersistentVector<T> next) {
+        items = next;
+        version++;
+    }
+}
@@ -0,0 +1,70 @@
+package crs.util;
+
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+public class StripedLock {
+    
+    private final ReentrantLock[] stripes;
+    private final int mask;
+    
+    public StripedLock(int concurrency) {
+        if (concurrency < 1) {
+            throw new IllegalArgumentException("Concurrency must be positive: " + concurrency);
+        }
+        int size = Integer.highestOneBit(concurrency - 1) << 1;
+        stripes = new ReentrantLock[Math.max(1, size)];
+        for (int i = 0; i < stripes.length; i++) {
+            stripes[i] = new ReentrantLock();
+        }
+        mask = stripes.length - 1;
+    }
+    
+    public void run(String key, Runnable action) {
+        call(key, () -> {
+            action.run();
+            return null;
+        });
+    }
+    
+    public <R> R call(String key, Supplier<R> action) {
+        ReentrantLock stripe = stripeFor(key);
+        stripe.lock();
+        try {
+            return action.get();
+        } finally {
+            stripe.unlock();
+        }
+    }
+    
+    public void runAll(Runnable action) {
+        callAll(() -> {
+            action.run();
+            return null;
+        });
+    }
+    
+    public <R> R callAll(Supplier<R> action) {
+        int locked = 0;
+        try {
+            for (ReentrantLock stripe : stripes) {
+                stripe.lock();
+                locked++;
+            }
+            return action.get();
+        } finally {
+            for (int i = locked - 1; i >= 0; i--) {
+                stripes[i].unlock();
+            }
+        }
+    }
+    
+    public int getStripeCount() {
+        return stripes.length;
+    }
+    
+    private ReentrantLock stripeFor(String key) {
+        int hash = key != null ? key.hashCode() : 0;
+        return stripes[(hash ^ (hash >>> 16)) & mask];
+    }
+}
@@ -0,0 +1,101 @@
+package crs.util;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+public final class Template {
+    
+    private static final String OPEN = "{{";
+    private static final String CLOSE = "}}";
+    private static final int MAX_RETAINED_BUFFER = 64 * 1024;
+    
+    private static final ThreadLocal<StringBuilder> BUFFER = ThreadLocal.withInitial(() -> new StringBuilder(1024));
+    
+    private final String[] literals;
+    private final int[] slots;
+    private final String[] parameters;
+    private final int literalLength;
+    
+    private Template(String[] literals, int[] slots, String[] parameters) {
+        this.literals = literals;
+        this.slots = slots;
+        this.parameters = parameters;
+        int length = 0;
+        for (String literal : literals) {
+            length += literal.length();
+        }
+        this.literalLength = length;
+    }
+    
+    public static Template parse(String source, String... parameters) {
+        List<String> literals = new ArrayList<>();
+        List<Integer> slots = new ArrayList<>();
+        List<String> names = Arrays.asList(parameters);
+        
+        int position = 0;
+        StringBuilder literal = new StringBuilder();
+        while (position < source.length()) {
+            int open = source.indexOf(OPEN, position);
+            int close = open < 0 ? -1 : source.indexOf(CLOSE, open + OPEN.length());
+            if (close < 0) {
+                literal.append(source, position, source.length());
+                break;
+            }
+            
+            String name = source.substring(open + OPEN.length(), close).trim();
+            int slot = names.indexOf(name);
+            if (slot < 0) {
+                throw new IllegalArgumentException("Unknown template parameter: " + name);
+            }
+            literal.append(source, position, open);
+            literals.add(literal.toString());
+            literal.setLength(0);
+            slots.add(slot);
+            position = close + CLOSE.length();
+        }
+        literals.add(literal.toString());
+        
+        int[] slotArray = new int[slots.size()];
+        for (int i = 0; i < slotArray.length; i++) {
+            slotArray[i] = slots.get(i);
+        }
+        return new Template(literals.toArray(new String[0]), slotArray, parameters.clone());
+    }
+    
+    public String render(Object... values) {
+        StringBuilder buffer = BUFFER.get();
+        buffer.setLength(0);
+        render(buffer, values);
+        String result = buffer.toString();
+        if (buffer.capacity() > MAX_RETAINED_BUFFER) {
+            BUFFER.remove();
+        }
+        return result;
+    }
+    
+    public void render(StringBuilder out, Object... values) {
+        if (values.length != parameters.length) {
+            throw new IllegalArgumentException("Expected " + parameters.length + " template values but got " + values.length);
+        }
+        out.ensureCapacity(out.length() + literalLength + 16 * slots.length);
+        for (int i = 0; i < slots.length; i++) {
+            out.append(literals[i]);
+            out.append(values[slots[i]]);
+        }
+        out.append(literals[slots.length]);
+    }
+    
+    public String[] getParameters() {
+        return parameters.clone();
+    }
+    
+    @Override
+    public String toString() {
+        StringBuilder source = new StringBuilder();
+        for (int i = 0; i < slots.length; i++) {
+            source.append(literals[i]).append(OPEN).append(parameters[slots[i]]).append(CLOSE);
+        }
+        return source.append(literals[slots.length]).toString();
+    }
+}
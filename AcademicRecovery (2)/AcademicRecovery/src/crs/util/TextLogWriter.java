@@ -0,0 +1,90 @@
+package crs.util;
+
+import java.io.*;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+
+public class TextLogWriter implements Flushable, Closeable {
+    
+    private static final int BUFFER_SIZE = 64 * 1024;
+    
+    private final String filename;
+    private FileChannel channel;
+    private Writer writer;
+    private boolean dirty;
+    
+    public TextLogWriter(String filename) {
+        this.filename = filename;
+    }
+    
+    public void append(String line) {
+        synchronized (this) {
+            try {
+                if (writer == null) {
+                    open();
+                }
+                writer.write(line);
+                writer.write('\n');
+                dirty = true;
+            } catch (IOException e) {
+                System.err.println("Error appending to " + filename + ": " + e.getMessage());
+                return;
+            }
+        }
+        
+        PersistenceScheduler scheduler = PersistenceScheduler.getInstance();
+        if (scheduler.isDeferred()) {
+            scheduler.markDirty(this);
+        } else {
+            flush();
+        }
+    }
+    
+    public synchronized void drain() {
+        if (writer == null) return;
+        try {
+            writer.flush();
+        } catch (IOException e) {
+            System.err.println("Error writing " + filename + ": " + e.getMessage());
+        }
+    }
+    
+    @Override
+    public synchronized void flush() {
+        if (!dirty) return;
+        try {
+            writer.flush();
+            channel.force(false);
+            dirty = false;
+        } catch (IOException e) {
+            System.err.println("Error flushing " + filename + ": " + e.getMessage());
+        }
+    }
+    
+    @Override
+    public synchronized void close() {
+        if (writer == null) return;
+        flush();
+        try {
+            writer.close();
+        } catch (IOException e) {
+            System.err.println("Error closing " + filename + ": " + e.getMessage());
+        }
+        writer = null;
+        channel = null;
+    }
+    
+    @Override
+    public String toString() {
+        return filename;
+    }
+    
+    private void open() throws IOException {
+        channel = FileChannel.open(FileManager.getFile(filename).toPath(),
+            StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        writer = new BufferedWriter(new OutputStreamWriter(Channels.newOutputStream(channel), StandardCharsets.UTF_8),
+            BUFFER_SIZE);
+    }
+}
@@ -0,0 +1,43 @@
+#!/bin/bash
+
+# Course Recovery System - Test Script
+# Usage: ./test.sh              run every *Test class under test/
+#        ./test.sh <class> ...  run the named classes (e.g. crs.util.RecordCodecBenchmark)
+
+cd "$(dirname "$0")"
+ROOT="$(pwd)"
+
+echo "Compiling source and test files..."
+rm -rf build/test/classes
+mkdir -p build/test/classes
+javac -cp "lib/*" -d build/test/classes $(find src test -name "*.java")
+if [ $? -ne 0 ]; then
+    echo "Compilation failed!"
+    exit 1
+fi
+
+if [ $# -gt 0 ]; then
+    CLASSES="$*"
+else
+    CLASSES=$(cd test && find . -name "*Test.java" | sed -e 's|^\./||' -e 's|\.java$||' -e 's|/|.|g' | sort)
+fi
+
+FAILED=0
+for CLASS in $CLASSES; do
+    echo ""
+    echo "Running $CLASS"
+    WORK=$(mktemp -d)
+    (cd "$WORK" && java -cp "$ROOT/lib/*:$ROOT/build/test/classes" "$CLASS")
+    if [ $? -ne 0 ]; then
+        echo "FAILED: $CLASS"
+        FAILED=1
+    fi
+    rm -rf "$WORK"
+done
+
+echo ""
+if [ $FAILED -ne 0 ]; then
+    echo "Some tests failed!"
+    exit 1
+fi
+echo "All tests passed."
@@ -0,0 +1,20 @@
+package crs;
+
+public final class Check {
+    
+    private Check() {}
+    
+    public static void that(boolean condition, String message) {
+        if (!condition) {
+            throw new AssertionError(message);
+        }
+        System.out.println("  ok: " + message);
+    }
+    
+    public static void equal(Object expected, Object actual, String message) {
+        if (expected == null ? actual != null : !expected.equals(actual)) {
+            throw new AssertionError(message + ": expected " + expected + " but was " + actual);
+        }
+        System.out.println("  ok: " + message);
+    }
+}
@@ -0,0 +1,65 @@
+package crs.model;
+
+import crs.Check;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class StudentStandingTest {
+    
+    private static final String[] GRADES = {"A", "B", "C", "D", "F"};
+    
+    public static void main(String[] args) throws InterruptedException {
+        Student student = new Student("S1", "Ada", "Lovelace", "ada@example.com", "Computer Science", "Junior");
+        List<StudentCourse> courses = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            StudentCourse sc = new StudentCourse("S1", new Course("C" + i, "Course " + i, 3, "Fall", "Dr Smith", 60, 40),
+                "Fall", 2026);
+            sc.setGrade("A");
+            courses.add(sc);
+        }
+        student.setCourses(courses);
+        
+        AtomicBoolean running = new AtomicBoolean(true);
+        AtomicInteger tornReads = new AtomicInteger();
+        List<Thread> readers = new ArrayList<>();
+        for (int r = 0; r < 4; r++) {
+            Thread reader = new Thread(() -> {
+                while (running.get()) {
+                    if (student.getGradedCredits() != 60) {
+                        tornReads.incrementAndGet();
+                    }
+                    student.calculateCGPA();
+                    student.isEligibleToProgress();
+                }
+            });
+            reader.start();
+            readers.add(reader);
+        }
+        
+        for (int i = 0; i < 200000; i++) {
+            student.updateCourseGrade(courses.get(i % courses.size()), GRADES[(i * 7) % GRADES.length]);
+            if (i % 1000 == 0) {
+                student.invalidateStanding();
+            }
+        }
+        running.set(false);
+        for (Thread reader : readers) {
+            reader.join();
+        }
+        
+        double expected = 0;
+        int failed = 0;
+        for (StudentCourse sc : courses) {
+            expected += sc.getGradePoint();
+            if (sc.isFailed()) failed++;
+        }
+        expected /= courses.size();
+        Check.equal(0, tornReads.get(), "readers never see a half-applied grade update");
+        Check.that(Math.abs(student.calculateCGPA() - expected) < 1e-9, "CGPA matches the grades after concurrent reads");
+        Check.equal(failed, student.getFailedCoursesCount(), "failed count matches the grades after concurrent reads");
+        System.out.println("StudentStandingTest passed");
+    }
+}
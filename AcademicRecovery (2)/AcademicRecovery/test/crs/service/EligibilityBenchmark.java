@@ -0,0 +1,88 @@
+package crs.service;
+
+import crs.model.*;
+import crs.util.RecordFile;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+public class EligibilityBenchmark {
+    
+    private static final int STUDENTS = Integer.getInteger("crs.bench.students", 20000);
+    private static final int ENROLMENTS_PER_STUDENT = 15;
+    private static final int LEGACY_ROWS = Integer.getInteger("crs.bench.legacyRows", 10);
+    private static final int ROUNDS = Integer.getInteger("crs.bench.rounds", 3);
+    
+    public static void main(String[] args) {
+        generateData();
+        StudentService studentService = StudentService.getInstance();
+        List<Student> students = studentService.getAllStudents();
+        System.out.println("students: " + students.size() + ", enrolments: " + studentService.getAllStudentCourses().size());
+        
+        long started = System.nanoTime();
+        List<EligibilityStatus> legacy = perRowWithReload(studentService,
+            students.subList(0, Math.min(LEGACY_ROWS, students.size())));
+        double legacyRowMillis = (System.nanoTime() - started) / 1e6 / legacy.size();
+        System.out.printf("before: per-row reloadData     %8.2f ms/row, about %.0f s for all rows%n",
+            legacyRowMillis, legacyRowMillis * students.size() / 1000);
+        
+        long snapshotNanos = Long.MAX_VALUE;
+        List<EligibilityStatus> snapshot = null;
+        for (int round = 0; round < ROUNDS; round++) {
+            started = System.nanoTime();
+            snapshot = studentService.getEligibilitySnapshot();
+            snapshotNanos = Math.min(snapshotNanos, System.nanoTime() - started);
+        }
+        System.out.printf("after:  getEligibilitySnapshot %8.2f ms for all rows%n", snapshotNanos / 1e6);
+        
+        for (int i = 0; i < legacy.size(); i++) {
+            EligibilityStatus expected = legacy.get(i);
+            EligibilityStatus actual = snapshot.get(i);
+            if (!expected.getStudentId().equals(actual.getStudentId())
+                    || Math.abs(expected.getCgpa() - actual.getCgpa()) > 1e-9
+                    || expected.getFailedCoursesCount() != actual.getFailedCoursesCount()
+                    || expected.isEligible() != actual.isEligible()) {
+                throw new IllegalStateException("Snapshot differs from per-row result for " + expected.getStudentId());
+            }
+        }
+    }
+    
+    private static List<EligibilityStatus> perRowWithReload(StudentService studentService, List<Student> students) {
+        List<EligibilityStatus> rows = new ArrayList<>(students.size());
+        for (Student student : students) {
+            double cgpa = studentService.calculateCGPA(student.getStudentId());
+            
+            studentService.reloadData();
+            Student reloaded = studentService.findById(student.getStudentId());
+            int failedCount = reloaded != null ? reloaded.getFailedCoursesCount() : 0;
+            
+            boolean eligible = cgpa >= 2.0 && failedCount <= 3;
+            rows.add(new EligibilityStatus(student.getStudentId(), student.getFullName(), student.getMajor(),
+                cgpa, failedCount, eligible));
+        }
+        return rows;
+    }
+    
+    private static void generateData() {
+        String[] grades = {"A", "B", "C", "D", "F"};
+        Random random = new Random(1);
+        List<Course> courses = new ArrayList<>();
+        for (int i = 0; i < 60; i++) {
+            courses.add(new Course("C" + i, "Course " + i, 1 + i % 4, "Fall", "Dr Smith", 50, 50));
+        }
+        List<Student> students = new ArrayList<>(STUDENTS);
+        List<StudentCourse> enrolments = new ArrayList<>(STUDENTS * ENROLMENTS_PER_STUDENT);
+        for (int i = 0; i < STUDENTS; i++) {
+            students.add(new Student("S" + i, "First" + i, "Last" + i, "s" + i + "@example.com", "Computer Science", "Junior"));
+            for (int k = 0; k < ENROLMENTS_PER_STUDENT; k++) {
+                StudentCourse enrolment = new StudentCourse("S" + i, courses.get(random.nextInt(courses.size())), "Fall", 2000 + k);
+                enrolment.setGrade(grades[random.nextInt(grades.length)]);
+                enrolments.add(enrolment);
+            }
+        }
+        RecordFile.save("courses.dat", courses, ModelCodecs.COURSE);
+        RecordFile.save("students.dat", students, ModelCodecs.STUDENT);
+        RecordFile.save("student_courses.dat", enrolments, ModelCodecs.STUDENT_COURSE);
+    }
+}
@@ -0,0 +1,40 @@
+package crs.service;
+
+import crs.Check;
+import crs.util.FileManager;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.List;
+
+public class EmailLogTest {
+    
+    public static void main(String[] args) {
+        FileManager.saveToTextFile("email_log.txt", Arrays.asList(
+            "[2026-01-05 09:00:00] To: a@example.com | Subject: Plan | Status: SENT",
+            "[2026-13-45 09:00:00] To: b@example.com | Subject: Plan | Status: SENT",
+            "[bad]",
+            "[garbage-x] To: c@example.com | Subject: Plan | Status: SENT",
+            "",
+            "[2026-01-07 09:00:00] To: d@example.com | Subject: Report | Status: FAILED",
+            "[2026-02-02 09:00:00] To: e@example.com, F@example.com; g@example.com | Subject: Digest | Status: SENT"));
+        
+        EmailService emailService = EmailService.getInstance();
+        List<String> logs = emailService.getEmailLogs(null, null, LocalDate.of(2026, 1, 1), LocalDate.of(2026, 1, 31), 0, 10);
+        Check.equal(2, logs.size(), "date filter skips unparseable lines");
+        Check.that(logs.get(0).contains("d@example.com") && logs.get(1).contains("a@example.com"),
+            "valid lines returned newest first");
+        
+        logs = emailService.getEmailLogs(null, "plan", null, LocalDate.of(2026, 1, 6), 0, 10);
+        Check.equal(1, logs.size(), "subject and date filters combine");
+        Check.equal(6, emailService.getEmailLogs(0, 10).size(), "unfiltered view returns every non-empty line");
+        
+        Check.equal(1, emailService.getEmailLogs("f@example.com", null, null, null, 0, 10).size(),
+            "recipient filter matches one address of several");
+        Check.equal(1, emailService.getEmailLogs("g@example.com", null, null, null, 0, 10).size(),
+            "recipient filter accepts semicolon separated addresses");
+        Check.equal(0, emailService.getEmailLogs("example.com", null, null, null, 0, 10).size(),
+            "recipient filter matches whole addresses only");
+        System.out.println("EmailLogTest passed");
+    }
+}
@@ -0,0 +1,164 @@
+package crs.service;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+class FakeSmtpServer implements Closeable {
+    
+    private static final String ID_HEADER = "X-CRS-Message-Id: ";
+    
+    private final ServerSocket server;
+    private final List<Socket> sockets = Collections.synchronizedList(new ArrayList<>());
+    
+    final AtomicInteger connections = new AtomicInteger();
+    final AtomicInteger messages = new AtomicInteger();
+    final Map<String, Integer> deliveries = new ConcurrentHashMap<>();
+    final List<Integer> recipientsPerMessage = Collections.synchronizedList(new ArrayList<>());
+    
+    volatile int latencyMicros;
+    volatile int dropEvery;
+    
+    FakeSmtpServer() throws IOException {
+        server = new ServerSocket(0, 50, InetAddress.getLoopbackAddress());
+        Thread acceptor = new Thread(this::accept, "fake-smtp-accept");
+        acceptor.setDaemon(true);
+        acceptor.start();
+    }
+    
+    int getPort() {
+        return server.getLocalPort();
+    }
+    
+    void reset() {
+        connections.set(0);
+        messages.set(0);
+        deliveries.clear();
+        recipientsPerMessage.clear();
+    }
+    
+    boolean deliveredExactlyOnce(int expected) {
+        if (deliveries.size() != expected) return false;
+        for (int count : deliveries.values()) {
+            if (count != 1) return false;
+        }
+        return true;
+    }
+    
+    @Override
+    public void close() throws IOException {
+        server.close();
+        synchronized (sockets) {
+            for (Socket socket : sockets) {
+                socket.close();
+            }
+        }
+    }
+    
+    private void accept() {
+        try {
+            while (true) {
+                Socket socket = server.accept();
+                connections.incrementAndGet();
+                sockets.add(socket);
+                Thread session = new Thread(() -> serve(socket), "fake-smtp-session");
+                session.setDaemon(true);
+                session.start();
+            }
+        } catch (IOException e) {
+        }
+    }
+    
+    private void serve(Socket socket) {
+        try (Socket s = socket;
+             BufferedReader in = new BufferedReader(new InputStreamReader(s.getInputStream(), StandardCharsets.ISO_8859_1));
+             Writer out = new OutputStreamWriter(s.getOutputStream(), StandardCharsets.ISO_8859_1)) {
+            out.write("220 fake ESMTP\r\n");
+            out.flush();
+            int recipients = 0;
+            int accepted = 0;
+            String line;
+            while ((line = in.readLine()) != null) {
+                String command = line.length() >= 4 ? line.substring(0, 4).toUpperCase() : line.toUpperCase();
+                pause();
+                switch (command) {
+                    case "EHLO":
+                        out.write("250-fake\r\n250 8BITMIME\r\n");
+                        break;
+                    case "HELO":
+                    case "NOOP":
+                    case "RSET":
+                        out.write("250 OK\r\n");
+                        break;
+                    case "MAIL":
+                        recipients = 0;
+                        out.write("250 OK\r\n");
+                        break;
+                    case "RCPT":
+                        recipients++;
+                        out.write("250 OK\r\n");
+                        break;
+                    case "DATA":
+                        out.write("354 End data with <CR><LF>.<CR><LF>\r\n");
+                        out.flush();
+                        String messageId = readData(in);
+                        messages.incrementAndGet();
+                        recipientsPerMessage.add(recipients);
+                        if (messageId != null) {
+                            deliveries.merge(messageId, 1, Integer::sum);
+                        }
+                        out.write("250 queued\r\n");
+                        accepted++;
+                        if (dropEvery > 0 && accepted % dropEvery == 0) {
+                            out.flush();
+                            return;
+                        }
+                        break;
+                    case "QUIT":
+                        out.write("221 bye\r\n");
+                        out.flush();
+                        return;
+                    default:
+                        out.write("500 unrecognised command\r\n");
+                }
+                out.flush();
+            }
+        } catch (IOException e) {
+        } finally {
+            sockets.remove(socket);
+        }
+    }
+    
+    private static String readData(BufferedReader in) throws IOException {
+        String messageId = null;
+        String line;
+        while ((line = in.readLine()) != null && !line.equals(".")) {
+            if (messageId == null && line.startsWith(ID_HEADER)) {
+                messageId = line.substring(ID_HEADER.length());
+            }
+        }
+        return messageId;
+    }
+    
+    private void pause() {
+        int micros = latencyMicros;
+        if (micros <= 0) return;
+        long end = System.nanoTime() + micros * 1000L;
+        while (System.nanoTime() < end) {
+            Thread.onSpinWait();
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package crs.service;
+
+import crs.Check;
+import crs.model.Course;
+import crs.model.ModelCodecs;
+import crs.util.ConnectionPool;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+public class JdbcRepositoryTest {
+    
+    private static final String URL = "jdbc:h2:" + new File("crs_test").getAbsolutePath();
+    private static final AtomicInteger seedCalls = new AtomicInteger();
+    
+    public static void main(String[] args) {
+        ConnectionPool pool = pool();
+        Check.equal("[L1, L2]", ids(repository(pool).load()), "empty new table seeded from legacy files");
+        Check.equal(1, seedCalls.get(), "legacy seed read once");
+        
+        JdbcRepository<Course> courses = repository(pool);
+        courses.load();
+        courses.put(course("C3", 3));
+        courses.put(course("C3", 4));
+        courses.remove("L1");
+        Check.equal("[C3, L2]", ids(repository(pool).load()), "puts and removes visible after reload");
+        Check.equal(4, findCredits(repository(pool).load(), "C3"), "latest put wins");
+        
+        courses.removeAll(Arrays.asList("L2", "C3"));
+        Check.equal("[]", ids(repository(pool).load()), "table stays empty after every row is deleted");
+        pool.close();
+        
+        pool = pool();
+        Check.equal("[]", ids(repository(pool).load()), "table stays empty after reopening the database");
+        Check.equal(1, seedCalls.get(), "legacy seed not read again");
+        
+        JdbcRepository<Course> queued = new JdbcRepository<>(pool, "existing_rows", Course::getCourseId, ModelCodecs.COURSE,
+            Map.of(), null);
+        queued.load();
+        queued.put(course("Q1", 3));
+        JdbcRepository<Course> upgraded = new JdbcRepository<>(pool, "existing_rows", Course::getCourseId,
+            ModelCodecs.COURSE, Map.of(), JdbcRepositoryTest::legacy);
+        Check.equal("[Q1]", ids(upgraded.load()), "table with rows is not re-seeded");
+        Check.equal(1, seedCalls.get(), "seed skipped for a table that already has rows");
+        pool.close();
+        System.out.println("JdbcRepositoryTest passed");
+    }
+    
+    private static ConnectionPool pool() {
+        return new ConnectionPool(URL, null, "", 2);
+    }
+    
+    private static JdbcRepository<Course> repository(ConnectionPool pool) {
+        Map<String, Function<Course, String>> columns = Map.of("semester", Course::getSemester);
+        return new JdbcRepository<>(pool, "courses", Course::getCourseId, ModelCodecs.COURSE, columns,
+            JdbcRepositoryTest::legacy);
+    }
+    
+    private static List<Course> legacy() {
+        seedCalls.incrementAndGet();
+        return Arrays.asList(course("L1", 3), course("L2", 3));
+    }
+    
+    private static Course course(String id, int credits) {
+        return new Course(id, "Course " + id, credits, "Fall", "Dr Smith", 60, 40);
+    }
+    
+    private static int findCredits(List<Course> courses, String id) {
+        for (Course course : courses) {
+            if (course.getCourseId().equals(id)) {
+                return course.getCredits();
+            }
+        }
+        return -1;
+    }
+    
+    private static String ids(List<Course> courses) {
+        List<String> ids = new ArrayList<>();
+        for (Course course : courses) {
+            ids.add(course.getCourseId());
+        }
+        Collections.sort(ids);
+        return ids.toString();
+    }
+}
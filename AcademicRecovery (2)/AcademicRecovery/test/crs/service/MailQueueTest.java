@@ -0,0 +1,104 @@
+package crs.service;
+
+import crs.Check;
+import crs.model.OutboundEmail;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class MailQueueTest {
+    
+    public static void main(String[] args) throws Exception {
+        try (FakeSmtpServer server = new FakeSmtpServer()) {
+            deliversEachMessageOnceAndCompletesOnce(server);
+            recoversFromServerDrops(server);
+        }
+        completesEmptyDispatchOnce();
+        System.out.println("MailQueueTest passed");
+    }
+    
+    private static void deliversEachMessageOnceAndCompletesOnce(FakeSmtpServer server) throws InterruptedException {
+        server.reset();
+        server.latencyMicros = 200;
+        SmtpMailTransport transport = transport(server, 9);
+        AtomicInteger logged = new AtomicInteger();
+        MailQueue queue = new MailQueue("mail_queue_delivery.dat", transport,
+            (message, success) -> logged.incrementAndGet(), 8, 5);
+        
+        Completion completion = new Completion();
+        MailDispatch dispatch = queue.enqueue(messages("q", 2000), completion);
+        Check.that(completion.awaitFirst(), "dispatch completed");
+        Thread.sleep(200);
+        server.latencyMicros = 0;
+        transport.close();
+        
+        Check.equal(1, completion.completions.get(), "completion callback fired once");
+        Check.equal(0, completion.progressAfterCompletion.get(), "no progress callbacks after completion");
+        Check.equal(2000, dispatch.getSent(), "dispatch counts every delivery");
+        Check.that(server.deliveredExactlyOnce(2000), "each queued message delivered once");
+        Check.equal(2000, logged.get(), "each delivery logged once");
+        Check.equal(0, queue.size(), "queue drained");
+        Check.that(server.connections.get() <= 9, "workers reuse pooled connections (" + server.connections.get() + ")");
+    }
+    
+    private static void recoversFromServerDrops(FakeSmtpServer server) throws InterruptedException {
+        server.reset();
+        server.dropEvery = 40;
+        SmtpMailTransport transport = transport(server, 5);
+        MailQueue queue = new MailQueue("mail_queue_drops.dat", transport, (message, success) -> {}, 4, 5);
+        
+        Completion completion = new Completion();
+        MailDispatch dispatch = queue.enqueue(messages("r", 400), completion);
+        Check.that(completion.awaitFirst(), "dispatch completed despite dropped connections");
+        server.dropEvery = 0;
+        transport.close();
+        
+        Check.equal(1, completion.completions.get(), "completion callback fired once");
+        Check.equal(400, dispatch.getSent(), "every message eventually sent");
+        Check.equal(0, dispatch.getFailed(), "no message given up on");
+        Check.that(server.deliveredExactlyOnce(400), "no duplicates after reconnecting");
+    }
+    
+    private static void completesEmptyDispatchOnce() {
+        MailQueue queue = new MailQueue("mail_queue_empty.dat", MailTransport.LOG_ONLY, (message, success) -> {}, 1, 1);
+        Completion completion = new Completion();
+        MailDispatch dispatch = queue.enqueue(new ArrayList<>(), completion);
+        dispatch.report();
+        Check.equal(1, completion.completions.get(), "empty dispatch completes once");
+    }
+    
+    private static final class Completion implements MailDispatch.Listener {
+        final AtomicInteger completions = new AtomicInteger();
+        final AtomicInteger progressAfterCompletion = new AtomicInteger();
+        final CountDownLatch first = new CountDownLatch(1);
+        
+        @Override
+        public void onProgress(MailDispatch dispatch, boolean complete) {
+            if (complete) {
+                completions.incrementAndGet();
+                first.countDown();
+            } else if (completions.get() > 0) {
+                progressAfterCompletion.incrementAndGet();
+            }
+        }
+        
+        boolean awaitFirst() throws InterruptedException {
+            return first.await(60, TimeUnit.SECONDS);
+        }
+    }
+    
+    private static SmtpMailTransport transport(FakeSmtpServer server, int poolSize) {
+        return new SmtpMailTransport("127.0.0.1", server.getPort(), null, null, "crs@example.com", poolSize);
+    }
+    
+    private static List<OutboundEmail> messages(String prefix, int count) {
+        List<OutboundEmail> messages = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            messages.add(new OutboundEmail(prefix + i, "student" + i + "@example.com", "Notice " + i, "Body " + i));
+        }
+        return messages;
+    }
+}
@@ -0,0 +1,35 @@
+package crs.service;
+
+import crs.Check;
+import crs.model.Milestone;
+import crs.model.RecoveryPlan;
+import crs.model.Student;
+import crs.util.FileManager;
+
+import java.time.LocalDate;
+
+public class ReminderDigestServiceTest {
+    
+    public static void main(String[] args) {
+        LocalDate today = LocalDate.of(2026, 3, 2);
+        StudentService.getInstance().addStudent(
+            new Student("S900", "Ada", "Lovelace", "ada@example.com", "Computer Science", "Junior"));
+        RecoveryPlanService planService = RecoveryPlanService.getInstance();
+        RecoveryPlan plan = planService.createRecoveryPlan("S900", "C900", "Weekly tutorials",
+            today.minusDays(14), today.plusDays(30), "U001");
+        Milestone overdue = planService.addMilestone(plan.getPlanId(), "Week 1", "Quiz", "", today.minusDays(2));
+        planService.addMilestone(plan.getPlanId(), "Week 3", "Essay", "", today.plusDays(2));
+        
+        ReminderDigestService reminders = ReminderDigestService.getInstance();
+        Check.equal(1, reminders.sendDigests(today), "first run sends a digest");
+        Check.equal(0, reminders.sendDigests(today.plusDays(1)), "reminded milestones are not re-sent the next day");
+        Check.equal(0, reminders.sendDigests(today.plusDays(6)), "nothing re-sent within the repeat interval");
+        Check.equal(1, reminders.sendDigests(today.plusDays(7)), "open milestones re-sent after the repeat interval");
+        Check.equal(2, FileManager.readFromTextFile("reminder_state.txt").size(), "reminder state persisted per milestone");
+        
+        planService.gradeMilestone(plan.getPlanId(), overdue.getMilestoneId(), 80, "Good");
+        Check.equal(0, reminders.sendDigests(today.plusDays(8)), "completed milestone not reminded");
+        Check.equal(1, FileManager.readFromTextFile("reminder_state.txt").size(), "state of completed milestones dropped");
+        System.out.println("ReminderDigestServiceTest passed");
+    }
+}
@@ -0,0 +1,121 @@
+package crs.service;
+
+import crs.Check;
+import crs.model.OutboundEmail;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.util.concurrent.TimeUnit;
+
+public class SmtpMailTransportTest {
+    
+    public static void main(String[] args) throws Exception {
+        System.setProperty("crs.smtp.timeoutMillis", "500");
+        try (FakeSmtpServer server = new FakeSmtpServer()) {
+            reusesPooledConnection(server);
+            sendsAllRecipientsInOneTransaction(server);
+            reconnectsAfterServerDrop(server);
+            boundsWaitForExhaustedPool(server);
+            reportsDeliveryThroughEmailService(server);
+        }
+        reportsFailureWhenServerIsDown();
+        System.out.println("SmtpMailTransportTest passed");
+    }
+    
+    private static void reusesPooledConnection(FakeSmtpServer server) throws IOException {
+        server.reset();
+        SmtpMailTransport transport = transport(server, 2);
+        for (int i = 0; i < 50; i++) {
+            try (MailTransport.Connection connection = transport.open()) {
+                connection.send(message("m" + i, "student" + i + "@example.com"));
+            }
+        }
+        transport.close();
+        Check.equal(50, server.messages.get(), "all pooled sends delivered");
+        Check.that(server.deliveredExactlyOnce(50), "each pooled send delivered once");
+        Check.equal(1, server.connections.get(), "sequential sends share one connection");
+        Check.equal(50L, transport.getStatistics().getSent(), "statistics count every send");
+    }
+    
+    private static void sendsAllRecipientsInOneTransaction(FakeSmtpServer server) throws IOException {
+        server.reset();
+        SmtpMailTransport transport = transport(server, 1);
+        try (MailTransport.Connection connection = transport.open()) {
+            connection.send(message("multi", "a@example.com, b@example.com, c@example.com"));
+        }
+        transport.close();
+        Check.equal(1, server.messages.get(), "multi-recipient message sent once");
+        Check.equal(3, (int) server.recipientsPerMessage.get(0), "all recipients in one transaction");
+    }
+    
+    private static void reconnectsAfterServerDrop(FakeSmtpServer server) {
+        server.reset();
+        server.dropEvery = 5;
+        SmtpMailTransport transport = transport(server, 1);
+        int failures = 0;
+        for (int i = 0; i < 20; i++) {
+            OutboundEmail email = message("d" + i, "student" + i + "@example.com");
+            for (int attempt = 0; attempt < 3; attempt++) {
+                try (MailTransport.Connection connection = transport.open()) {
+                    connection.send(email);
+                    break;
+                } catch (IOException e) {
+                    failures++;
+                }
+            }
+        }
+        transport.close();
+        server.dropEvery = 0;
+        Check.that(server.deliveredExactlyOnce(20), "every message delivered once across server drops");
+        Check.that(server.connections.get() >= 4, "dropped connections are replaced");
+        Check.that(failures <= server.connections.get(), "at most one failed send per dropped connection");
+    }
+    
+    private static void boundsWaitForExhaustedPool(FakeSmtpServer server) throws IOException {
+        SmtpMailTransport transport = transport(server, 1);
+        MailTransport.Connection held = transport.open();
+        long started = System.nanoTime();
+        try {
+            transport.open().close();
+            throw new AssertionError("open() succeeded while the only connection was held");
+        } catch (IOException e) {
+            long waited = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started);
+            Check.that(waited >= 400 && waited < 5000, "exhausted pool fails after the timeout (" + waited + " ms)");
+        } finally {
+            held.close();
+        }
+        try (MailTransport.Connection connection = transport.open()) {
+            Check.that(connection != null, "connection available again after release");
+        }
+        transport.close();
+    }
+    
+    private static void reportsDeliveryThroughEmailService(FakeSmtpServer server) {
+        server.reset();
+        EmailService emailService = EmailService.getInstance();
+        emailService.configure("127.0.0.1", String.valueOf(server.getPort()), null, null);
+        boolean sent = emailService.sendEmail("student@example.com", "Test", "Hello");
+        Check.that(sent, "EmailService reports a delivered send");
+        Check.equal(1, server.messages.get(), "EmailService send reached the server");
+    }
+    
+    private static void reportsFailureWhenServerIsDown() throws IOException {
+        int port;
+        try (ServerSocket socket = new ServerSocket(0)) {
+            port = socket.getLocalPort();
+        }
+        EmailService emailService = EmailService.getInstance();
+        emailService.configure("127.0.0.1", String.valueOf(port), null, null);
+        Check.that(!emailService.sendEmail("student@example.com", "Test", "Hello"),
+            "EmailService reports a failed send when the server is down");
+        emailService.setTransport(MailTransport.LOG_ONLY);
+    }
+    
+    private static SmtpMailTransport transport(FakeSmtpServer server, int poolSize) {
+        return new SmtpMailTransport("127.0.0.1", server.getPort(), null, null, "crs@example.com", poolSize);
+    }
+    
+    private static OutboundEmail message(String id, String recipient) {
+        return new OutboundEmail(id, recipient, "Subject " + id, "Body of " + id);
+    }
+}
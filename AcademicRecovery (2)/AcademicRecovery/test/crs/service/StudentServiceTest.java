@@ -0,0 +1,51 @@
+package crs.service;
+
+import crs.Check;
+import crs.model.Course;
+import crs.model.GradeStatistics;
+import crs.model.Student;
+import crs.model.StudentCourse;
+
+public class StudentServiceTest {
+    
+    public static void main(String[] args) {
+        StudentService service = StudentService.getInstance();
+        Course math = new Course("C1", "Mathematics", 3, "Fall", "Dr Smith", 60, 40);
+        Course physics = new Course("C2", "Physics", 4, "Fall", "Dr Jones", 60, 40);
+        
+        service.addStudent(student("S1"));
+        service.enrollStudentInCourse("S1", math, "Fall", 2026);
+        service.enrollStudentInCourse("S1", physics, "Fall", 2026);
+        service.assignGrade("S1", "C1", "F", 20, 30);
+        service.assignGrade("S1", "C2", "B", 70, 70);
+        double cgpa = service.calculateCGPA("S1");
+        Check.that(cgpa > 0, "graded enrolments give a CGPA");
+        
+        service.updateStudent(student("S1"));
+        Check.equal(cgpa, service.calculateCGPA("S1"), "replacement student keeps its CGPA");
+        Check.equal(1, service.findById("S1").getFailedCoursesCount(), "replacement student keeps its failed courses");
+        
+        service.enrollStudentInCourse("S2", math, "Fall", 2026);
+        service.assignGrade("S2", "C1", "F", 10, 10);
+        service.addStudent(student("S2"));
+        Check.equal(1, service.findById("S2").getFailedCoursesCount(), "student added after enrolment sees its courses");
+        Check.that(!service.isEligibleToProgress("S2"), "student added after enrolment is not eligible");
+        
+        StudentCourse enrolment = service.getStudentCourses("S2").get(0);
+        enrolment.setGrade("A");
+        service.updateStudentCourse(enrolment);
+        Check.equal(0, service.findById("S2").getFailedCoursesCount(), "grade changed on the same instance is picked up");
+        Check.equal(4.0, service.calculateCGPA("S2"), "CGPA recomputed after updating the same instance");
+        
+        GradeStatistics statistics = service.getGradeStatistics();
+        Check.equal(3, statistics.getEnrolmentCount(), "grade statistics count every enrolment");
+        Check.equal("{A=1, B=1, F=1}", statistics.getGradeCounts().toString(), "grade counts follow the grade scale");
+        Check.equal("{C1=1}", statistics.getFailuresByCourse().toString(), "failures are counted per course");
+        Check.equal(1, statistics.getIneligibleStudents(), "only the student with a failure is ineligible");
+        System.out.println("StudentServiceTest passed");
+    }
+    
+    private static Student student(String id) {
+        return new Student(id, "First " + id, "Last " + id, id.toLowerCase() + "@example.com", "Computer Science", "Junior");
+    }
+}
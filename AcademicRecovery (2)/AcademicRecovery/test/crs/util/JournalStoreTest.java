@@ -0,0 +1,153 @@
+package crs.util;
+
+import crs.Check;
+import crs.model.Course;
+import crs.model.ModelCodecs;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.zip.CRC32;
+
+public class JournalStoreTest {
+    
+    public static void main(String[] args) throws Exception {
+        truncatesTornTail();
+        rejectsUndecodableRecord();
+        reportsFailedWritesAndRetriesThem();
+        compactsStateAsOfCommit();
+        System.out.println("JournalStoreTest passed");
+    }
+    
+    private static void truncatesTornTail() throws IOException {
+        JournalStore<Course> store = store("torn.dat");
+        store.load();
+        store.put(course("C1"));
+        store.put(course("C2"));
+        store.close();
+        
+        File journal = FileManager.getFile("torn.wal");
+        long length = journal.length();
+        Files.write(journal.toPath(), new byte[] {0, 0, 0, 40, 1, 2, 3}, StandardOpenOption.APPEND);
+        
+        List<Course> loaded = store("torn.dat").load();
+        Check.equal(2, loaded.size(), "records before a torn tail are kept");
+        Check.equal(length, journal.length(), "torn tail truncated");
+    }
+    
+    private static void rejectsUndecodableRecord() throws IOException {
+        JournalStore<Course> store = store("corrupt.dat");
+        store.load();
+        store.put(course("C1"));
+        store.close();
+        
+        File journal = FileManager.getFile("corrupt.wal");
+        Files.write(journal.toPath(), frame(undecodableRecord("C2")), StandardOpenOption.APPEND);
+        store.put(course("C3"));
+        long length = journal.length();
+        
+        try {
+            store("corrupt.dat").load();
+            throw new AssertionError("load() accepted a record the codec cannot decode");
+        } catch (IllegalStateException e) {
+            Check.that(e.getMessage().contains("corrupt.wal"), "decode failure aborts the load");
+        }
+        Check.equal(length, journal.length(), "journal left intact after a decode failure");
+    }
+    
+    private static void reportsFailedWritesAndRetriesThem() throws IOException {
+        JournalStore<Course> store = store("failing.dat");
+        store.load();
+        store.put(course("C1"));
+        store.close();
+        
+        File journal = FileManager.getFile("failing.wal");
+        Files.delete(journal.toPath());
+        Files.createDirectory(journal.toPath());
+        try {
+            store.put(course("C2"));
+            throw new AssertionError("put() succeeded although the journal could not be written");
+        } catch (IllegalStateException e) {
+            Check.that(e.getMessage().contains("failing.wal"), "failed journal write reported to the caller");
+        }
+        
+        Files.delete(journal.toPath());
+        store.put(course("C3"));
+        store.close();
+        List<Course> loaded = store("failing.dat").load();
+        Check.equal("[C2, C3]", ids(loaded), "failed record retried with the next commit");
+    }
+    
+    private static void compactsStateAsOfCommit() {
+        JournalStore<Course> store = store("compacted.dat");
+        store.load();
+        List<Course> courses = new ArrayList<>();
+        for (int i = 0; i < 5000; i++) {
+            courses.add(course("C" + i));
+        }
+        store.setSource(() -> new ArrayList<>(courses));
+        store.putAll(courses.subList(0, 4999));
+        store.put(courses.get(4999));
+        for (Course course : courses) {
+            course.setCourseName("Changed after commit");
+        }
+        store.close();
+        
+        Check.that(!FileManager.fileExists("compacted.wal.old"), "rotated journal removed after compaction");
+        List<Course> loaded = store("compacted.dat").load();
+        Check.equal(5000, loaded.size(), "compacted snapshot holds every record");
+        int changed = 0;
+        for (Course course : loaded) {
+            if (!course.getCourseName().startsWith("Course ")) {
+                changed++;
+            }
+        }
+        Check.equal(0, changed, "snapshot encoded as of the commit");
+    }
+    
+    private static String ids(List<Course> courses) {
+        List<String> ids = new ArrayList<>();
+        for (Course course : courses) {
+            ids.add(course.getCourseId());
+        }
+        Collections.sort(ids);
+        return ids.toString();
+    }
+    
+    private static JournalStore<Course> store(String file) {
+        return new JournalStore<>(file, Course::getCourseId, ModelCodecs.COURSE);
+    }
+    
+    private static Course course(String id) {
+        return new Course(id, "Course " + id, 3, "Fall", "Dr Smith", 60, 40);
+    }
+    
+    private static byte[] undecodableRecord(String key) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(bytes);
+        out.writeByte(3);
+        out.writeUTF(key);
+        out.writeByte(ModelCodecs.COURSE.getVersion());
+        out.writeByte(0x7f);
+        out.flush();
+        return bytes.toByteArray();
+    }
+    
+    private static byte[] frame(byte[] record) throws IOException {
+        CRC32 crc = new CRC32();
+        crc.update(record);
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(bytes);
+        out.writeInt(record.length);
+        out.writeInt((int) crc.getValue());
+        out.write(record);
+        out.flush();
+        return bytes.toByteArray();
+    }
+}
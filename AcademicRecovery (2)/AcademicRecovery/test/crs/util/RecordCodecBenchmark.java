@@ -0,0 +1,129 @@
+package crs.util;
+
+import crs.model.*;
+
+import java.nio.file.Files;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+public class RecordCodecBenchmark {
+    
+    private static final int ROUNDS = Integer.getInteger("crs.bench.rounds", 3);
+    
+    public static void main(String[] args) throws Exception {
+        System.out.printf("%-16s %7s | %-36s | %-36s%n", "file", "records", "java serialization", "record codec");
+        bench("students", students(20000), ModelCodecs.STUDENT);
+        bench("student_courses", enrolments(200000), ModelCodecs.STUDENT_COURSE);
+        bench("recovery_plans", plans(20000), ModelCodecs.RECOVERY_PLAN);
+        bench("login_logs", loginLogs(100000), ModelCodecs.LOGIN_LOG);
+        bench("users", users(2000), ModelCodecs.USER);
+    }
+    
+    private static <T> void bench(String name, List<T> items, RecordCodec<T> codec) throws Exception {
+        String serialized = name + ".ser";
+        String encoded = name + ".rec";
+        long javaSave = Long.MAX_VALUE;
+        long javaLoad = Long.MAX_VALUE;
+        long codecSave = Long.MAX_VALUE;
+        long codecLoad = Long.MAX_VALUE;
+        List<T> fromJava = null;
+        List<T> fromCodec = null;
+        for (int round = 0; round < ROUNDS; round++) {
+            long started = System.nanoTime();
+            FileManager.saveToBinaryFile(serialized, items);
+            javaSave = Math.min(javaSave, System.nanoTime() - started);
+            
+            started = System.nanoTime();
+            fromJava = FileManager.loadFromBinaryFile(serialized);
+            javaLoad = Math.min(javaLoad, System.nanoTime() - started);
+            
+            started = System.nanoTime();
+            RecordFile.save(encoded, items, codec);
+            codecSave = Math.min(codecSave, System.nanoTime() - started);
+            
+            started = System.nanoTime();
+            fromCodec = RecordFile.load(encoded, codec);
+            codecLoad = Math.min(codecLoad, System.nanoTime() - started);
+        }
+        
+        String check = name + ".check.rec";
+        RecordFile.save(check, fromCodec, codec);
+        if (fromJava.size() != items.size() || !Arrays.equals(
+                Files.readAllBytes(FileManager.getFile(encoded).toPath()),
+                Files.readAllBytes(FileManager.getFile(check).toPath()))) {
+            throw new IllegalStateException("Round trip mismatch for " + name);
+        }
+        System.out.printf("%-16s %7d | %8.1f KB save %5.0f ms load %5.0f ms | %8.1f KB save %5.0f ms load %5.0f ms%n",
+            name, items.size(),
+            FileManager.getFile(serialized).length() / 1024.0, javaSave / 1e6, javaLoad / 1e6,
+            FileManager.getFile(encoded).length() / 1024.0, codecSave / 1e6, codecLoad / 1e6);
+    }
+    
+    private static List<Student> students(int count) {
+        String[] majors = {"Computer Science", "Literature", "Mathematics", "Physics", "Business"};
+        String[] years = {"Freshman", "Sophomore", "Junior", "Senior"};
+        List<Student> students = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            students.add(new Student("S" + i, "First" + i, "Last" + i, "s" + i + "@university.edu",
+                majors[i % majors.length], years[i % years.length]));
+        }
+        return students;
+    }
+    
+    private static List<StudentCourse> enrolments(int count) {
+        String[] grades = {"A", "B+", "C", "F", "D"};
+        List<StudentCourse> enrolments = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            Course course = new Course("C" + (i % 60), "Course " + (i % 60), 3, "Fall", "Dr Smith", 60, 40);
+            StudentCourse enrolment = new StudentCourse("S" + (i / 10), course, "Fall", 2020 + i % 10);
+            enrolment.setGrade(grades[i % grades.length]);
+            enrolment.setExamScore(i % 100);
+            enrolment.setAssignmentScore(i % 77);
+            enrolments.add(enrolment);
+        }
+        return enrolments;
+    }
+    
+    private static List<RecoveryPlan> plans(int count) {
+        List<RecoveryPlan> plans = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            RecoveryPlan plan = new RecoveryPlan("P" + i, "S" + i, "C" + (i % 60));
+            plan.setRecommendation("Retake the exam component and attend weekly tutorials");
+            plan.setStartDate(LocalDate.now());
+            plan.setEndDate(LocalDate.now().plusWeeks(8));
+            plan.setCreatedBy("U001");
+            for (int m = 0; m < 4; m++) {
+                Milestone milestone = new Milestone("M" + i + "_" + m, "P" + i, "Week " + (m * 2 + 1), "Task " + m);
+                milestone.setDueDate(LocalDate.now().plusWeeks(m * 2));
+                plan.addMilestone(milestone);
+            }
+            plans.add(plan);
+        }
+        return plans;
+    }
+    
+    private static List<LoginLog> loginLogs(int count) {
+        List<LoginLog> logs = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            LoginLog log = new LoginLog("L" + i, "U00" + (i % 5), "user" + (i % 5), i % 2 == 0 ? "LOGIN" : "LOGOUT", true);
+            log.setIpAddress("127.0.0.1");
+            logs.add(log);
+        }
+        return logs;
+    }
+    
+    private static List<User> users(int count) {
+        List<User> users = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            User user = i % 2 == 0
+                ? new AcademicOfficer("U" + i, "user" + i, "hash" + i, "u" + i + "@uni.edu", "User " + i)
+                : new CourseAdministrator("U" + i, "user" + i, "hash" + i, "u" + i + "@uni.edu", "User " + i);
+            user.setLastLogin(LocalDateTime.now());
+            users.add(user);
+        }
+        return users;
+    }
+}
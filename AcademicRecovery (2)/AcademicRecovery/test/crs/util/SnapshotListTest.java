@@ -0,0 +1,69 @@
+package crs.util;
+
+import crs.Check;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class SnapshotListTest {
+    
+    public static void main(String[] args) {
+        replacesByPosition();
+        keepsPositionsAfterRemoval();
+        replacesLargeListQuickly();
+        System.out.println("SnapshotListTest passed");
+    }
+    
+    private static void replacesByPosition() {
+        SnapshotList<String> list = new SnapshotList<>();
+        String a = new String("a");
+        String b = new String("b");
+        String c = new String("c");
+        list.add(a);
+        list.addAll(List.of(b, c));
+        String b2 = new String("b2");
+        Check.that(list.replace(b, b2), "replace finds an existing item");
+        Check.that(!list.replace(b, "x"), "replaced item is no longer found");
+        Check.that(!list.replace(new String("a"), "x"), "replace matches by identity");
+        Check.that(list.replace(b2, "b3"), "replacement can itself be replaced");
+        Check.equal("[a, b3, c]", contents(list), "order preserved after replace");
+    }
+    
+    private static void keepsPositionsAfterRemoval() {
+        SnapshotList<String> list = new SnapshotList<>();
+        List<String> items = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            items.add(new String("i" + i));
+        }
+        list.reset(items);
+        list.removeIf(item -> item.equals("i2") || item.equals("i5"));
+        Check.that(list.replace(items.get(9), "last"), "item after removals found");
+        Check.that(list.replace(items.get(3), "three"), "item shifted by removal found");
+        Check.equal("[i0, i1, three, i4, i6, i7, i8, last]", contents(list), "replace hits the shifted positions");
+    }
+    
+    private static void replacesLargeListQuickly() {
+        int count = 200000;
+        List<Integer> items = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            items.add(Integer.valueOf(i));
+        }
+        SnapshotList<Integer> list = new SnapshotList<>();
+        list.reset(items);
+        long started = System.nanoTime();
+        for (int i = count - 1; i >= count - 20000; i--) {
+            list.replace(items.get(i), Integer.valueOf(-i));
+        }
+        long millis = (System.nanoTime() - started) / 1000000;
+        Check.equal(-(count - 1), list.snapshot().get(count - 1), "tail item replaced");
+        Check.that(millis < 2000, "20000 replacements near the tail of 200000 items in " + millis + " ms");
+    }
+    
+    private static String contents(SnapshotList<String> list) {
+        List<String> items = new ArrayList<>();
+        for (String item : list) {
+            items.add(item);
+        }
+        return items.toString();
+    }
+}